@@ -20,8 +20,13 @@ public class CollectionOptions {
     @QueryParam("order")
     private SortOrder order;
 
+    @QueryParam("cursor")
+    private String    cursor;
+
     private boolean lastRecord = false;
 
+    private String nextCursor;
+
     public CollectionOptions() {
     }
 
@@ -79,4 +84,30 @@ public class CollectionOptions {
     public void setLastRecord(boolean lastRecord) {
         this.lastRecord = lastRecord;
     }
+
+    /**
+     * Get the cursor of the last record of the previous page, for queries paged by keyset.
+     *
+     * @return the cursor, or null for the first page
+     */
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Get the cursor to pass as {@link #getCursor()} to fetch the next page, for queries paged by keyset.
+     *
+     * @return the cursor, or null if this was the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
 }
@@ -0,0 +1,126 @@
+package se.fortnox.reactivewizard.benchmarks;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.ws.rs.BeanParam;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.QueryParam;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resource used by the benchmarks, with the kinds of parameters and results that are typical for an api.
+ */
+@Path("/benchmark")
+public class BenchmarkResource {
+
+    private final List<Entity> entities = new ArrayList<>();
+
+    public BenchmarkResource() {
+        for (int i = 0; i < 100; i++) {
+            entities.add(new Entity(i, "entity " + i, i % 2 == 0));
+        }
+    }
+
+    @GET
+    @Path("entities/{id}")
+    public Mono<Entity> get(@PathParam("id") int id) {
+        return Mono.just(entities.get(id));
+    }
+
+    @GET
+    @Path("entities")
+    public Flux<Entity> list(@QueryParam("limit") Integer limit, @QueryParam("offset") Integer offset) {
+        return Flux.fromIterable(entities)
+            .skip(offset == null ? 0 : offset)
+            .take(limit == null ? entities.size() : limit);
+    }
+
+    @GET
+    @Path("search")
+    public Mono<Integer> search(@BeanParam Filter filter) {
+        return Mono.just(filter.getLimit());
+    }
+
+    @POST
+    @Path("entities")
+    public Mono<Entity> create(Entity entity) {
+        return Mono.just(entity);
+    }
+
+    public static class Filter {
+        @QueryParam("name")
+        private String  name;
+        @QueryParam("active")
+        private Boolean active;
+        @QueryParam("limit")
+        private int     limit;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Boolean getActive() {
+            return active;
+        }
+
+        public void setActive(Boolean active) {
+            this.active = active;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        public void setLimit(int limit) {
+            this.limit = limit;
+        }
+    }
+
+    public static class Entity {
+        private int     id;
+        private String  name;
+        private boolean active;
+
+        public Entity() {
+        }
+
+        public Entity(int id, String name, boolean active) {
+            this.id = id;
+            this.name = name;
+            this.active = active;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package se.fortnox.reactivewizard.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks given on the command line, in the same way as the JMH main class, but always with the gc
+ * profiler so that the allocation rate per operation is reported along with the time per operation.
+ *
+ * <p>Build with {@code mvn -pl benchmarks -am package -DskipTests} and run with
+ * {@code java -jar benchmarks/target/benchmarks.jar [jmh options] [benchmark regexp]}.</p>
+ */
+public class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        OptionsBuilder     options            = new OptionsBuilder();
+        options.parent(commandLineOptions);
+        boolean hasGcProfiler = commandLineOptions.getProfilers()
+            .stream()
+            .anyMatch(profiler -> profiler.getKlass().equals("gc") || profiler.getKlass().equals(GCProfiler.class.getName()));
+        if (!hasGcProfiler) {
+            options.addProfiler(GCProfiler.class);
+        }
+        Options built = options.build();
+        new Runner(built).run();
+    }
+}
@@ -0,0 +1,71 @@
+package se.fortnox.reactivewizard.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import se.fortnox.reactivewizard.jaxrs.ByteBufCollector;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the collection of a request body arriving in chunks, both by copying it into a byte array and by keeping
+ * the received buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-opens", "java.base/java.lang.invoke=ALL-UNNAMED"})
+public class ByteBufCollectorBenchmark {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    @Param({"1024", "65536", "1048576"})
+    private int bodySize;
+
+    private ByteBufCollector collector;
+    private ByteBuf[]        chunks;
+
+    @Setup
+    public void setup() {
+        collector = new ByteBufCollector(10 * 1024 * 1024);
+        int chunkCount = (bodySize + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        chunks = new ByteBuf[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            int size = Math.min(CHUNK_SIZE, bodySize - i * CHUNK_SIZE);
+            chunks[i] = Unpooled.unreleasableBuffer(Unpooled.directBuffer(size).writeZero(size));
+        }
+    }
+
+    @Benchmark
+    public byte[] collectBytes() {
+        return collector.collectBytes(body()).block();
+    }
+
+    @Benchmark
+    public int collectByteBuf() {
+        CompositeByteBuf buffer = collector.collectByteBuf(body()).block();
+        try {
+            return buffer.readableBytes();
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private Flux<ByteBuf> body() {
+        return Flux.fromArray(chunks).map(ByteBuf::duplicate);
+    }
+}
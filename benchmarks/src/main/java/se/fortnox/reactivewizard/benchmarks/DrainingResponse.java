@@ -0,0 +1,47 @@
+package se.fortnox.reactivewizard.benchmarks;
+
+import io.netty.buffer.ByteBuf;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.NettyOutbound;
+import se.fortnox.reactivewizard.mocks.MockHttpServerResponse;
+
+import java.util.function.Predicate;
+
+/**
+ * Response that consumes the sent data when the result of a send is subscribed, like a connection would, and counts
+ * the sent bytes instead of keeping them.
+ */
+class DrainingResponse extends MockHttpServerResponse {
+    private Mono<Void> sent = Mono.empty();
+    private long       sentBytes;
+
+    @Override
+    public NettyOutbound sendByteArray(Publisher<? extends byte[]> dataStream) {
+        sent = Flux.from(dataStream)
+            .doOnNext(bytes -> sentBytes += bytes.length)
+            .then();
+        return this;
+    }
+
+    @Override
+    public NettyOutbound send(Publisher<? extends ByteBuf> dataStream, Predicate<ByteBuf> predicate) {
+        sent = Flux.from(dataStream)
+            .doOnNext(buffer -> {
+                sentBytes += buffer.readableBytes();
+                buffer.release();
+            })
+            .then();
+        return this;
+    }
+
+    @Override
+    public Mono<Void> then() {
+        return sent;
+    }
+
+    long getSentBytes() {
+        return sentBytes;
+    }
+}
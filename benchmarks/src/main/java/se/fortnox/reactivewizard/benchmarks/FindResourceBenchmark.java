@@ -0,0 +1,184 @@
+package se.fortnox.reactivewizard.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.jaxrs.JaxRsRequest;
+import se.fortnox.reactivewizard.jaxrs.JaxRsResource;
+import se.fortnox.reactivewizard.jaxrs.JaxRsResourceFactory;
+import se.fortnox.reactivewizard.jaxrs.JaxRsResources;
+import se.fortnox.reactivewizard.mocks.MockHttpServerRequest;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JaxRsResources#findResource(JaxRsRequest)} with a varying number of routes. The routes are made up of
+ * copies of {@link RouteResource} mounted under different prefixes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-opens", "java.base/java.lang.invoke=ALL-UNNAMED"})
+public class FindResourceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int routes;
+
+    private JaxRsResources resources;
+    private String         firstPath;
+    private String         lastPath;
+    private String         missingPath;
+
+    @Setup
+    public void setup() {
+        int      prefixes = Math.max(1, routes / RouteResource.ROUTES);
+        Object[] services = new Object[prefixes];
+        for (int i = 0; i < prefixes; i++) {
+            services[i] = new PrefixedService("/service" + i, new RouteResource());
+        }
+        resources = new JaxRsResources(services, new PrefixedResourceFactory(), false);
+        firstPath = "/service0/items/123";
+        lastPath = "/service" + (prefixes - 1) + "/items/123/parts/456";
+        missingPath = "/service" + (prefixes - 1) + "/missing/123";
+    }
+
+    @Benchmark
+    public JaxRsResource<?> findFirstRoute() {
+        return resources.findResource(new JaxRsRequest(new MockHttpServerRequest(firstPath)));
+    }
+
+    @Benchmark
+    public JaxRsResource<?> findLastRoute() {
+        return resources.findResource(new JaxRsRequest(new MockHttpServerRequest(lastPath)));
+    }
+
+    @Benchmark
+    public JaxRsResource<?> findMissingRoute() {
+        return resources.findResource(new JaxRsRequest(new MockHttpServerRequest(missingPath)));
+    }
+
+    @Path("/")
+    public static class RouteResource {
+        static final int ROUTES = 10;
+
+        @GET
+        @Path("items")
+        public Mono<String> items() {
+            return Mono.empty();
+        }
+
+        @POST
+        @Path("items")
+        public Mono<String> createItem() {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("items/{id}")
+        public Mono<String> item(@PathParam("id") String id) {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("items/{id}/parts")
+        public Mono<String> parts(@PathParam("id") String id) {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("items/{id}/parts/{partId}")
+        public Mono<String> part(@PathParam("id") String id, @PathParam("partId") String partId) {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("orders")
+        public Mono<String> orders() {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("orders/{id}")
+        public Mono<String> order(@PathParam("id") String id) {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("orders/{id}/rows")
+        public Mono<String> orderRows(@PathParam("id") String id) {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("customers/{id}")
+        public Mono<String> customer(@PathParam("id") String id) {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("files/{file:.*}")
+        public Mono<String> file(@PathParam("file") String file) {
+            return Mono.empty();
+        }
+    }
+
+    private static class PrefixedService {
+        private final String prefix;
+        private final Object service;
+
+        PrefixedService(String prefix, Object service) {
+            this.prefix = prefix;
+            this.service = service;
+        }
+    }
+
+    /**
+     * Mounts the service of each {@link PrefixedService} under its prefix, as the path of a class is otherwise given
+     * by its annotation.
+     */
+    private static class PrefixedResourceFactory extends JaxRsResourceFactory {
+        @Override
+        public void createResources(Object service, List<JaxRsResource> resources) {
+            PrefixedService prefixedService = (PrefixedService)service;
+            Path            path            = path(prefixedService.prefix);
+            for (Method method : prefixedService.service.getClass().getDeclaredMethods()) {
+                JaxRsResource resource = createResource(path, method, prefixedService.service);
+                if (resource != null) {
+                    resources.add(resource);
+                }
+            }
+        }
+
+        private static Path path(String value) {
+            return new Path() {
+                @Override
+                public String value() {
+                    return value;
+                }
+
+                @Override
+                public Class<? extends Annotation> annotationType() {
+                    return Path.class;
+                }
+            };
+        }
+    }
+}
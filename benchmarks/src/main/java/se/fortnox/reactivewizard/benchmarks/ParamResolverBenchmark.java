@@ -0,0 +1,84 @@
+package se.fortnox.reactivewizard.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import se.fortnox.reactivewizard.jaxrs.JaxRsRequest;
+import se.fortnox.reactivewizard.jaxrs.JaxRsResource;
+import se.fortnox.reactivewizard.jaxrs.JaxRsResourceFactory;
+import se.fortnox.reactivewizard.jaxrs.params.ParamResolver;
+import se.fortnox.reactivewizard.jaxrs.params.ParamResolverFactories;
+import se.fortnox.reactivewizard.mocks.MockHttpServerRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resolving of query, path and bean params by resolvers built by {@link ParamResolverFactories}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-opens", "java.base/java.lang.invoke=ALL-UNNAMED"})
+public class ParamResolverBenchmark {
+
+    private static final String PATH_PARAM_URI  = "/benchmark/entities/42";
+    private static final String QUERY_PARAM_URI = "/benchmark/entities?limit=10&offset=20";
+    private static final String BEAN_PARAM_URI  = "/benchmark/search?name=entity&active=true&limit=10";
+
+    private List<ParamResolver> pathParamResolvers;
+    private List<ParamResolver> queryParamResolvers;
+    private List<ParamResolver> beanParamResolvers;
+    private JaxRsResource<?>    pathParamResource;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        ParamResolverFactories paramResolverFactories = new ParamResolverFactories();
+        pathParamResolvers = paramResolverFactories.createParamResolvers(
+            BenchmarkResource.class.getMethod("get", int.class), null);
+        queryParamResolvers = paramResolverFactories.createParamResolvers(
+            BenchmarkResource.class.getMethod("list", Integer.class, Integer.class), null);
+        beanParamResolvers = paramResolverFactories.createParamResolvers(
+            BenchmarkResource.class.getMethod("search", BenchmarkResource.Filter.class), null);
+
+        for (JaxRsResource<?> resource : new JaxRsResourceFactory().createResources(new Object[]{new BenchmarkResource()})) {
+            if (resource.getResourceMethod().getName().equals("get")) {
+                pathParamResource = resource;
+            }
+        }
+    }
+
+    @Benchmark
+    public void resolvePathParam(Blackhole blackhole) {
+        JaxRsRequest request = new JaxRsRequest(new MockHttpServerRequest(PATH_PARAM_URI));
+        // Binds the path params of the request
+        pathParamResource.canHandleRequest(request);
+        resolve(pathParamResolvers, request, blackhole);
+    }
+
+    @Benchmark
+    public void resolveQueryParams(Blackhole blackhole) {
+        resolve(queryParamResolvers, new JaxRsRequest(new MockHttpServerRequest(QUERY_PARAM_URI)), blackhole);
+    }
+
+    @Benchmark
+    public void resolveBeanParam(Blackhole blackhole) {
+        resolve(beanParamResolvers, new JaxRsRequest(new MockHttpServerRequest(BEAN_PARAM_URI)), blackhole);
+    }
+
+    private static void resolve(List<ParamResolver> resolvers, JaxRsRequest request, Blackhole blackhole) {
+        for (ParamResolver resolver : resolvers) {
+            blackhole.consume(resolver.resolve(request).block());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package se.fortnox.reactivewizard.benchmarks;
+
+import io.netty.handler.codec.http.HttpMethod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import se.fortnox.reactivewizard.ExceptionHandler;
+import se.fortnox.reactivewizard.jaxrs.JaxRsRequestHandler;
+import se.fortnox.reactivewizard.jaxrs.JaxRsResourceFactory;
+import se.fortnox.reactivewizard.mocks.MockHttpServerRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full handling of a request by {@link JaxRsRequestHandler#apply}, from finding the resource to writing
+ * the serialized result, using fake requests and responses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-opens", "java.base/java.lang.invoke=ALL-UNNAMED"})
+public class RequestHandlerBenchmark {
+
+    private static final String ENTITY_JSON = "{\"id\":1,\"name\":\"entity 1\",\"active\":true}";
+
+    private JaxRsRequestHandler handler;
+
+    @Setup
+    public void setup() {
+        handler = new JaxRsRequestHandler(new Object[]{new BenchmarkResource()},
+            new JaxRsResourceFactory(),
+            new ExceptionHandler(),
+            false);
+    }
+
+    @Benchmark
+    public long getWithPathParam() {
+        return handle(new MockHttpServerRequest("/benchmark/entities/42"));
+    }
+
+    @Benchmark
+    public long getWithQueryParams() {
+        return handle(new MockHttpServerRequest("/benchmark/entities?limit=10&offset=20"));
+    }
+
+    @Benchmark
+    public long getWithBeanParam() {
+        return handle(new MockHttpServerRequest("/benchmark/search?name=entity&active=true&limit=10"));
+    }
+
+    @Benchmark
+    public long postWithBody() {
+        return handle(new MockHttpServerRequest("/benchmark/entities", HttpMethod.POST, ENTITY_JSON));
+    }
+
+    private long handle(MockHttpServerRequest request) {
+        DrainingResponse response = new DrainingResponse();
+        Flux.from(handler.apply(request, response)).blockLast();
+        return response.getSentBytes();
+    }
+}
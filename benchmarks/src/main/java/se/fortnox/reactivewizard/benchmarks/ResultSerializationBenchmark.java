@@ -0,0 +1,96 @@
+package se.fortnox.reactivewizard.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.jaxrs.JaxRsResource;
+import se.fortnox.reactivewizard.jaxrs.JaxRsResourceFactory;
+import se.fortnox.reactivewizard.jaxrs.RequestLogger;
+import se.fortnox.reactivewizard.jaxrs.params.ParamResolverFactories;
+import se.fortnox.reactivewizard.jaxrs.response.ByteBufSerializerFactory;
+import se.fortnox.reactivewizard.jaxrs.response.JaxRsResultFactory;
+import se.fortnox.reactivewizard.jaxrs.response.JaxRsResultFactoryFactory;
+import se.fortnox.reactivewizard.jaxrs.response.NoContentTransformer;
+import se.fortnox.reactivewizard.jaxrs.response.ResponseDecoratorTransformer;
+import se.fortnox.reactivewizard.jaxrs.response.ResultTransformerFactories;
+import se.fortnox.reactivewizard.json.JsonSerializerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the serialization and writing of single and array results by {@link JaxRsResultFactory}, with
+ * serialization into byte arrays as well as straight into buffers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-opens", "java.base/java.lang.invoke=ALL-UNNAMED"})
+public class ResultSerializationBenchmark {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    @Param({"false", "true"})
+    private boolean serializeToByteBuf;
+
+    @Param({"100"})
+    private int arraySize;
+
+    private JaxRsResultFactory<BenchmarkResource.Entity> singleResultFactory;
+    private JaxRsResultFactory<BenchmarkResource.Entity> arrayResultFactory;
+    private BenchmarkResource.Entity                     entity;
+    private List<BenchmarkResource.Entity>               entities;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        JaxRsResultFactoryFactory resultFactoryFactory = new JaxRsResultFactoryFactory(
+            new ResultTransformerFactories(new ResponseDecoratorTransformer(), new NoContentTransformer()),
+            new JsonSerializerFactory(),
+            new ByteBufSerializerFactory(serializeToByteBuf, 64));
+        JaxRsResourceFactory resourceFactory = new JaxRsResourceFactory(new ParamResolverFactories(),
+            resultFactoryFactory,
+            new RequestLogger());
+
+        for (JaxRsResource resource : resourceFactory.createResources(new Object[]{new BenchmarkResource()})) {
+            if (resource.getResourceMethod().getName().equals("get")) {
+                singleResultFactory = resultFactoryFactory.createResultFactory(resource);
+            } else if (resource.getResourceMethod().getName().equals("list")) {
+                arrayResultFactory = resultFactoryFactory.createResultFactory(resource);
+            }
+        }
+
+        entity = new BenchmarkResource.Entity(1, "entity 1", true);
+        entities = new ArrayList<>();
+        for (int i = 0; i < arraySize; i++) {
+            entities.add(new BenchmarkResource.Entity(i, "entity " + i, i % 2 == 0));
+        }
+    }
+
+    @Benchmark
+    public long writeSingleResult() {
+        DrainingResponse response = new DrainingResponse();
+        Mono.from(singleResultFactory.create(Flux.just(entity), NO_ARGS).write(response)).block();
+        return response.getSentBytes();
+    }
+
+    @Benchmark
+    public long writeArrayResult() {
+        DrainingResponse response = new DrainingResponse();
+        Flux.from(arrayResultFactory.create(Flux.fromIterable(entities), NO_ARGS).write(response)).blockLast();
+        return response.getSentBytes();
+    }
+}
@@ -0,0 +1,57 @@
+package se.fortnox.reactivewizard.db;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs at most a given number of tasks at a time on a delegate executor. Tasks exceeding the limit are queued, without
+ * occupying a thread, until a running task completes.
+ */
+class BoundedExecutor implements Executor {
+
+    private final Executor            delegate;
+    private final Semaphore           permits;
+    private final Queue<Runnable>     queue = new ConcurrentLinkedQueue<>();
+
+    BoundedExecutor(Executor delegate, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1, was " + maxConcurrency);
+        }
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        queue.offer(task);
+        drain();
+    }
+
+    private void drain() {
+        while (!queue.isEmpty() && permits.tryAcquire()) {
+            Runnable task = queue.poll();
+            if (task == null) {
+                permits.release();
+                continue;
+            }
+            try {
+                delegate.execute(() -> run(task));
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } finally {
+            permits.release();
+            drain();
+        }
+    }
+}
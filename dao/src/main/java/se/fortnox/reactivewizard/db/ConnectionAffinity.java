@@ -0,0 +1,220 @@
+package se.fortnox.reactivewizard.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the statements of DbProxy on a fixed number of threads, each keeping a connection between the statements it
+ * runs instead of taking one from the pool per statement. Statements wait in a queue for the next free thread.
+ * <p>
+ * A kept connection is returned to the pool when it has been closed or marked as broken by the pool, when it has
+ * been kept for the given time, so that the pool can replace it within its max lifetime, and when it has been idle
+ * for the idle timeout of the pool. Kept connections of idle threads are returned by a timer. Like the pool validates
+ * a connection on checkout, a kept connection that has been idle for a while is validated before it is lent to the
+ * next statement. If the connection of a thread is still in use when the thread runs a statement, such as by a
+ * transaction executing on several threads, the statement takes a connection from the pool.
+ */
+class ConnectionAffinity implements ConnectionProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ConnectionAffinity.class);
+
+    /**
+     * The time a kept connection may be idle before it is validated, the same as the pool uses on checkout.
+     */
+    static final long VALIDATE_AFTER_IDLE_MILLIS = 500;
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final ConnectionProvider   connectionProvider;
+    private final long                 keepMillis;
+    private final long                 idleMillis;
+    private final ExecutorService      executor;
+    private final List<AffinityThread> threads = new CopyOnWriteArrayList<>();
+
+    /**
+     * Create threads keeping connections.
+     *
+     * @param connectionProvider the pool
+     * @param threads            the number of threads
+     * @param keepMillis         the time a connection may be kept
+     * @param idleMillis         the time a connection may be kept without being used, or 0 to keep idle connections
+     */
+    ConnectionAffinity(ConnectionProvider connectionProvider, int threads, long keepMillis, long idleMillis) {
+        this.connectionProvider = connectionProvider;
+        this.keepMillis = keepMillis;
+        this.idleMillis = idleMillis;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, task -> {
+            AffinityThread thread = new AffinityThread(task, "DbProxy-affinity-" + threadCount.incrementAndGet());
+            this.threads.add(thread);
+            return thread;
+        });
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "DbProxy-affinity-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, Math.min(keepMillis, idleMillis > 0 ? idleMillis : keepMillis) / 2);
+        timer.scheduleAtFixedRate(this::returnExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get the scheduler running statements on the threads keeping connections.
+     *
+     * @return the scheduler
+     */
+    Scheduler scheduler() {
+        return Schedulers.fromExecutorService(executor, "DbProxy-affinity");
+    }
+
+    @Override
+    public Connection get() {
+        if (!(Thread.currentThread() instanceof AffinityThread thread) || thread.owner != this) {
+            return connectionProvider.get();
+        }
+        synchronized (thread) {
+            if (thread.inUse) {
+                return connectionProvider.get();
+            }
+            if (thread.connection != null && !usable(thread)) {
+                release(thread);
+            }
+            if (thread.connection == null) {
+                thread.connection = connectionProvider.get();
+                thread.keptSince = System.currentTimeMillis();
+            }
+            thread.inUse = true;
+            return lend(thread, thread.connection);
+        }
+    }
+
+    /**
+     * Check a kept connection before lending it, as the pool would check a connection before giving it out.
+     */
+    private boolean usable(AffinityThread thread) {
+        long now = System.currentTimeMillis();
+        if (expired(thread, now)) {
+            return false;
+        }
+        try {
+            if (thread.connection.isClosed()) {
+                return false;
+            }
+            return now - thread.lastUsed < VALIDATE_AFTER_IDLE_MILLIS
+                || thread.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            LOG.warn("Could not validate kept connection, returning it to the pool", e);
+            return false;
+        }
+    }
+
+    private boolean expired(AffinityThread thread, long now) {
+        return now - thread.keptSince >= keepMillis || (idleMillis > 0 && now - thread.lastUsed >= idleMillis);
+    }
+
+    /**
+     * Return the kept connections of threads that have not used them for too long.
+     */
+    private void returnExpired() {
+        for (AffinityThread thread : threads) {
+            synchronized (thread) {
+                if (!thread.inUse && thread.connection != null && expired(thread, System.currentTimeMillis())) {
+                    release(thread);
+                }
+            }
+        }
+    }
+
+    private static void release(AffinityThread thread) {
+        Connection connection = thread.connection;
+        thread.connection = null;
+        try {
+            connection.close();
+        } catch (Exception e) {
+            LOG.error("Error closing connection", e);
+        }
+    }
+
+    @Override
+    public Connection getReplica() {
+        return connectionProvider.getReplica();
+    }
+
+    /**
+     * Wrap the kept connection of a thread, so that closing it gives it back to the thread. The wrapper cannot be used
+     * after it has been closed, since the connection may then be lent to the next statement.
+     */
+    private Connection lend(AffinityThread thread, Connection connection) {
+        AtomicBoolean returned = new AtomicBoolean();
+        return (Connection)Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                    if (returned.compareAndSet(false, true)) {
+                        giveBack(thread, connection);
+                    }
+                    return null;
+                }
+                if (method.getName().equals("isClosed") && method.getParameterCount() == 0) {
+                    return returned.get() || connection.isClosed();
+                }
+                if (returned.get()) {
+                    throw new SQLException("Connection is closed");
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    private void giveBack(AffinityThread thread, Connection connection) {
+        synchronized (thread) {
+            boolean keep = false;
+            try {
+                if (!connection.isClosed() && System.currentTimeMillis() - thread.keptSince < keepMillis) {
+                    if (!connection.getAutoCommit()) {
+                        connection.rollback();
+                        connection.setAutoCommit(true);
+                    }
+                    keep = true;
+                }
+            } catch (SQLException e) {
+                LOG.warn("Could not reset kept connection, returning it to the pool", e);
+            }
+            if (!keep) {
+                release(thread);
+            }
+            thread.lastUsed = System.currentTimeMillis();
+            thread.inUse = false;
+        }
+    }
+
+    private class AffinityThread extends Thread {
+        private final    ConnectionAffinity owner = ConnectionAffinity.this;
+        private volatile Connection         connection;
+        private volatile long               keptSince;
+        private volatile long               lastUsed;
+        private volatile boolean            inUse;
+
+        private AffinityThread(Runnable task, String name) {
+            super(task, name);
+            setDaemon(true);
+        }
+    }
+}
@@ -4,4 +4,13 @@ import java.sql.Connection;
 
 public interface ConnectionProvider {
     Connection get();
+
+    /**
+     * Get a connection for reads that do not need to see the latest writes, such as a connection to a read replica.
+     *
+     * @return the connection, which is a connection to the primary unless the provider has replicas
+     */
+    default Connection getReplica() {
+        return get();
+    }
 }
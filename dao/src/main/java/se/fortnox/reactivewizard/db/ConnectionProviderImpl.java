@@ -9,18 +9,27 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Singleton
 public class ConnectionProviderImpl implements ConnectionProvider {
-    private final HikariDataSource ds;
-    private final DatabaseConfig   databaseConfig;
+    private final HikariDataSource       ds;
+    private final List<HikariDataSource> replicas;
+    private final AtomicInteger          nextReplica = new AtomicInteger();
 
     @Inject
     public ConnectionProviderImpl(DatabaseConfig databaseConfig) {
-        this.databaseConfig = databaseConfig;
+        ds = createDataSource(databaseConfig, databaseConfig.getUrl());
+        replicas = databaseConfig.getReplicaUrls().stream()
+            .map(url -> createDataSource(databaseConfig, url))
+            .toList();
+    }
+
+    private static HikariDataSource createDataSource(DatabaseConfig databaseConfig, String url) {
         HikariConfig connectionPool = new HikariConfig();
 
-        connectionPool.setJdbcUrl(databaseConfig.getUrl());
+        connectionPool.setJdbcUrl(url);
         connectionPool.setUsername(databaseConfig.getUser());
         connectionPool.setPassword(databaseConfig.getPassword());
         connectionPool.setMaximumPoolSize(databaseConfig.getPoolSize());
@@ -28,23 +37,38 @@ public class ConnectionProviderImpl implements ConnectionProvider {
         connectionPool.setIdleTimeout(databaseConfig.getIdleTimeout());
         connectionPool.setConnectionTimeout(databaseConfig.getConnectionTimeout());
         connectionPool.setMaxLifetime(databaseConfig.getMaxLifetime());
+        connectionPool.setSchema(databaseConfig.getSchema());
         connectionPool.setMetricRegistry(Metrics.registry());
 
         connectionPool.addDataSourceProperty("socketTimeout", databaseConfig.getSocketTimeout());
 
-        DbDriver.loadDriver(databaseConfig.getUrl());
+        DbDriver.loadDriver(url);
 
-        ds = new HikariDataSource(connectionPool);
+        return new HikariDataSource(connectionPool);
     }
 
     @Override
     public Connection get() {
+        return getConnection(ds);
+    }
+
+    /**
+     * Get a connection from the replicas in turn, or from the primary if there are no replicas.
+     *
+     * @return the connection
+     */
+    @Override
+    public Connection getReplica() {
+        if (replicas.isEmpty()) {
+            return get();
+        }
+        int index = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        return getConnection(replicas.get(index));
+    }
+
+    private static Connection getConnection(HikariDataSource dataSource) {
         try {
-            Connection connection = ds.getConnection();
-            if (databaseConfig.getSchema() != null) {
-                connection.setSchema(databaseConfig.getSchema());
-            }
-            return connection;
+            return dataSource.getConnection();
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
@@ -52,5 +76,6 @@ public class ConnectionProviderImpl implements ConnectionProvider {
 
     public void close() {
         ds.close();
+        replicas.forEach(HikariDataSource::close);
     }
 }
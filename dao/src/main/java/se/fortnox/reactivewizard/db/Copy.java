@@ -0,0 +1,41 @@
+package se.fortnox.reactivewizard.db;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bulk insert of the rows passed as the only argument of the method, a {@link Iterable} or a
+ * {@link org.reactivestreams.Publisher} of rows. On PostgreSQL the rows are streamed through COPY FROM STDIN in csv
+ * format, with other databases they are inserted in JDBC batches. The method returns the number of rows inserted, as
+ * a Long, or Void.
+ * <p>
+ * The insert holds a connection and a thread of DbProxy until the last row has been inserted, so a Publisher of rows
+ * should produce them without waiting on slow sources. The Publisher is subscribed to on another scheduler and its
+ * rows are buffered up to the batch size, but it must not depend on other dao calls of the same DbProxy to produce its
+ * rows, since those may wait for the thread held by the insert.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Copy {
+    /**
+     * The table to insert the rows into.
+     * @return the table
+     */
+    String table();
+
+    /**
+     * The columns to insert. The value of each column is taken from the property of the row with the camel case name
+     * of the column, and converted as when the property is a parameter of a query.
+     * @return the columns
+     */
+    String[] columns();
+
+    /**
+     * Number of rows per JDBC batch, when the database does not support COPY, and number of rows of a Publisher
+     * buffered ahead of the insert.
+     * @return the batch size
+     */
+    int batchSize() default 1000;
+}
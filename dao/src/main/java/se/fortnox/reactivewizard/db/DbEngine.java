@@ -0,0 +1,25 @@
+package se.fortnox.reactivewizard.db;
+
+import reactor.core.publisher.Flux;
+import se.fortnox.reactivewizard.db.statement.DbStatementFactory;
+import se.fortnox.reactivewizard.db.transactions.StatementContext;
+
+/**
+ * Executes the statements of dao methods that are not part of a transaction or a batch. The default engine executes
+ * statements on JDBC connections on the scheduler of DbProxy, see {@link JdbcEngine}. Another engine, such as
+ * {@link R2dbcEngine} built on a non-blocking driver, can be used with {@link DbProxy#usingEngine(DbEngine)}.
+ * <p>
+ * Transactions and batched updates always execute on the JDBC connections of the connection scheduler.
+ */
+public interface DbEngine {
+
+    /**
+     * Execute a statement. Called once per subscription to the result, when subscribed. The phases of the execution
+     * should be reported to the statement metrics of the context.
+     *
+     * @param statementContext the context of the statement, giving the statement and the connection scheduler
+     * @param statementFactory the factory of the statement, telling whether it is read only or streaming
+     * @return the results of the statement
+     */
+    Flux<Object> execute(StatementContext statementContext, DbStatementFactory statementFactory);
+}
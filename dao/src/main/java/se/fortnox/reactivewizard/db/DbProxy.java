@@ -1,8 +1,12 @@
 package se.fortnox.reactivewizard.db;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
+import se.fortnox.reactivewizard.CollectionOptions;
 import se.fortnox.reactivewizard.db.config.DatabaseConfig;
 import se.fortnox.reactivewizard.db.paging.PagingOutput;
 import se.fortnox.reactivewizard.db.statement.DbStatementFactory;
@@ -19,9 +23,16 @@ import javax.inject.Singleton;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static java.text.MessageFormat.format;
 import static se.fortnox.reactivewizard.util.FluxRxConverter.converterFromFlux;
@@ -29,6 +40,7 @@ import static se.fortnox.reactivewizard.util.FluxRxConverter.converterFromFlux;
 @Singleton
 public class DbProxy implements InvocationHandler {
 
+    private static final Logger LOG = LoggerFactory.getLogger(DbProxy.class);
     private static final TypeReference<Object[]> OBJECT_ARRAY_TYPE_REFERENCE = new TypeReference<>() {
     };
     private final DbStatementFactoryFactory dbStatementFactoryFactory;
@@ -37,6 +49,10 @@ public class DbProxy implements InvocationHandler {
     private final ConnectionScheduler connectionScheduler;
     protected final Function<Object[], String> paramSerializer;
     private final DatabaseConfig databaseConfig;
+    private final DbEngine engine;
+    private final ConnectionProvider connectionProvider;
+    private final Map<Method, QueryResultCache> queryCaches = new ConcurrentHashMap<>();
+    private final Map<Method, List<Method>> invalidatedQueries = new ConcurrentHashMap<>();
 
     @Inject
     public DbProxy(DatabaseConfig databaseConfig,
@@ -45,12 +61,25 @@ public class DbProxy implements InvocationHandler {
                    JsonSerializerFactory jsonSerializerFactory
     ) {
         this(databaseConfig,
-                threadPool(databaseConfig.getPoolSize()),
+                connectionAffinity(databaseConfig, connectionProvider),
                 connectionProvider,
                 dbStatementFactoryFactory,
                 jsonSerializerFactory);
     }
 
+    private DbProxy(DatabaseConfig databaseConfig,
+                    @Nullable ConnectionAffinity connectionAffinity,
+                    @Nullable ConnectionProvider connectionProvider,
+                    DbStatementFactoryFactory dbStatementFactoryFactory,
+                    JsonSerializerFactory jsonSerializerFactory
+    ) {
+        this(databaseConfig,
+                connectionAffinity == null ? threadPool(databaseConfig) : connectionAffinity.scheduler(),
+                connectionAffinity == null ? connectionProvider : connectionAffinity,
+                dbStatementFactoryFactory,
+                jsonSerializerFactory);
+    }
+
     public DbProxy(DatabaseConfig databaseConfig,
                    Scheduler scheduler,
                    ConnectionProvider connectionProvider,
@@ -76,8 +105,22 @@ public class DbProxy implements InvocationHandler {
                       DbStatementFactoryFactory dbStatementFactoryFactory,
                       Function<Object[], String> paramSerializer,
                       Map<Method, ReactiveStatementFactory> statementFactories
+    ) {
+        this(databaseConfig, scheduler, connectionProvider, dbStatementFactoryFactory, paramSerializer,
+                statementFactories, null);
+    }
+
+    private DbProxy(DatabaseConfig databaseConfig,
+                    Scheduler scheduler,
+                    ConnectionProvider connectionProvider,
+                    DbStatementFactoryFactory dbStatementFactoryFactory,
+                    Function<Object[], String> paramSerializer,
+                    Map<Method, ReactiveStatementFactory> statementFactories,
+                    @Nullable DbEngine engine
     ) {
         this.scheduler = scheduler;
+        this.engine = engine;
+        this.connectionProvider = connectionProvider;
         this.dbStatementFactoryFactory = dbStatementFactoryFactory;
         this.paramSerializer = paramSerializer;
         this.databaseConfig = databaseConfig;
@@ -85,11 +128,46 @@ public class DbProxy implements InvocationHandler {
         this.connectionScheduler = new ConnectionScheduler(connectionProvider, scheduler);
     }
 
-    private static Scheduler threadPool(int poolSize) {
+    private static ConnectionAffinity connectionAffinity(DatabaseConfig databaseConfig,
+                                                         @Nullable ConnectionProvider connectionProvider) {
+        int threads = databaseConfig.getConnectionAffinityThreads();
+        if (threads <= 0 || connectionProvider == null) {
+            return null;
+        }
+        if (databaseConfig.getPoolSize() > 0 && threads >= databaseConfig.getPoolSize()) {
+            throw new RuntimeException("connectionAffinityThreads must be less than poolSize");
+        }
+        return new ConnectionAffinity(connectionProvider, threads, databaseConfig.getMaxLifetime() / 2,
+            databaseConfig.getIdleTimeout());
+    }
+
+    private static Scheduler threadPool(DatabaseConfig databaseConfig) {
+        int poolSize = databaseConfig.getPoolSize();
         if (poolSize == -1) {
             return Schedulers.boundedElastic();
         }
-        return Schedulers.newBoundedElastic(10, Integer.MAX_VALUE, "DbProxy");
+        if (databaseConfig.isVirtualThreads()) {
+            return Schedulers.fromExecutor(new BoundedExecutor(virtualThreadExecutor(), poolSize));
+        }
+        return Schedulers.newBoundedElastic(poolSize, Integer.MAX_VALUE, "DbProxy");
+    }
+
+    /**
+     * Create an executor starting a virtual thread per task, or a cached pool of platform threads if the JVM does not
+     * support virtual threads.
+     */
+    static Executor virtualThreadExecutor() {
+        try {
+            return (Executor)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOG.info("Virtual threads are not supported by this JVM, DbProxy will use platform threads");
+            AtomicInteger threadCount = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "DbProxy-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
     }
 
     /**
@@ -115,35 +193,113 @@ public class DbProxy implements InvocationHandler {
             }
             DbStatementFactory statementFactory = dbStatementFactoryFactory.createStatementFactory(method);
             PagingOutput pagingOutput = new PagingOutput(method);
+            Update update = method.getAnnotation(Update.class);
             reactiveStatementFactory = new ReactiveStatementFactory(
                     statementFactory,
                     pagingOutput,
                     createMetrics(method),
+                    new StatementMetrics(metricsName(method)),
                     databaseConfig,
-                    converterFromFlux(method.getReturnType()));
+                    converterFromFlux(method.getReturnType()),
+                    update == null ? 0 : update.batchSize(),
+                    update == null ? 0 : update.batchWindowMillis());
             statementFactories.put(method, reactiveStatementFactory);
         }
-        return reactiveStatementFactory.create(args, connectionScheduler);
+        if (engine != null) {
+            return reactiveStatementFactory.create(args, connectionScheduler, engine, cacheOperator(method, args),
+                    cacheInvalidation(method));
+        }
+        return reactiveStatementFactory.create(args, connectionScheduler, cacheOperator(method, args), cacheInvalidation(method));
+    }
+
+    private Function<Flux<Object>, Flux<Object>> cacheOperator(Method method, Object[] args) {
+        Query query = method.getAnnotation(Query.class);
+        if (query == null || query.cacheTtlMillis() <= 0) {
+            return Function.identity();
+        }
+        QueryResultCache cache = queryCaches.computeIfAbsent(method, this::createQueryCache);
+        String key = paramSerializer.apply(args == null ? new Object[0] : args);
+        return result -> cache.get(key, result);
+    }
+
+    private Runnable cacheInvalidation(Method method) {
+        Update update = method.getAnnotation(Update.class);
+        if (update == null || update.invalidates().length == 0) {
+            return null;
+        }
+        List<Method> invalidated = invalidatedQueries.computeIfAbsent(method, DbProxy::findInvalidatedQueries);
+        return () -> invalidated.forEach(this::invalidateQueryCache);
+    }
+
+    private QueryResultCache createQueryCache(Method method) {
+        if (Stream.of(method.getParameterTypes()).anyMatch(CollectionOptions.class::isAssignableFrom)) {
+            throw new RuntimeException("Caching is not supported for queries with CollectionOptions: " + method);
+        }
+        Query query = method.getAnnotation(Query.class);
+        return new QueryResultCache(Duration.ofMillis(query.cacheTtlMillis()), query.cacheMaxEntries());
+    }
+
+    private void invalidateQueryCache(Method method) {
+        QueryResultCache cache = queryCaches.get(method);
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    private static List<Method> findInvalidatedQueries(Method method) {
+        List<Method> invalidated = new ArrayList<>();
+        for (String name : method.getAnnotation(Update.class).invalidates()) {
+            List<Method> queries = Stream.of(method.getDeclaringClass().getMethods())
+                .filter(candidate -> candidate.getName().equals(name))
+                .filter(candidate -> {
+                    Query query = candidate.getAnnotation(Query.class);
+                    return query != null && query.cacheTtlMillis() > 0;
+                })
+                .toList();
+            if (queries.isEmpty()) {
+                throw new RuntimeException(format("No cached @Query method named {0} found in {1}, invalidated by {2}",
+                        name, method.getDeclaringClass().getName(), method.getName()));
+            }
+            invalidated.addAll(queries);
+        }
+        return invalidated;
     }
 
     private PublisherMetrics createMetrics(Method method) {
+        return PublisherMetrics.get(metricsName(method));
+    }
+
+    private static String metricsName(Method method) {
         String type = method.isAnnotationPresent(Query.class) ? "query" : "update";
-        String metricsName = format(
+        return format(
                 "DAO_type:{0}_method:{1}.{2}_{3}",
                 type, method.getDeclaringClass().getName(), method.getName(), method.getParameterCount());
-        return PublisherMetrics.get(metricsName);
     }
 
     public DbProxy usingConnectionProvider(ConnectionProvider connectionProvider) {
-        return new DbProxy(databaseConfig, scheduler, connectionProvider, dbStatementFactoryFactory, paramSerializer, statementFactories);
+        return new DbProxy(databaseConfig, scheduler, connectionProvider, dbStatementFactoryFactory, paramSerializer, statementFactories,
+                engine);
     }
 
     public DbProxy usingConnectionProvider(ConnectionProvider connectionProvider, DatabaseConfig databaseConfig) {
-        return new DbProxy(databaseConfig, scheduler, connectionProvider, dbStatementFactoryFactory, paramSerializer, statementFactories);
+        return new DbProxy(databaseConfig, scheduler, connectionProvider, dbStatementFactoryFactory, paramSerializer, statementFactories,
+                engine);
     }
 
     public DbProxy usingConnectionProvider(ConnectionProvider newConnectionProvider, Scheduler newScheduler) {
-        return new DbProxy(databaseConfig, newScheduler, newConnectionProvider, dbStatementFactoryFactory, paramSerializer, statementFactories);
+        return new DbProxy(databaseConfig, newScheduler, newConnectionProvider, dbStatementFactoryFactory, paramSerializer, statementFactories,
+                engine);
+    }
+
+    /**
+     * Create a DbProxy executing statements that are not part of a transaction or a batch with the given engine.
+     *
+     * @param newEngine the engine
+     * @return the DbProxy
+     */
+    public DbProxy usingEngine(DbEngine newEngine) {
+        return new DbProxy(databaseConfig, scheduler, connectionProvider, dbStatementFactoryFactory,
+                paramSerializer, statementFactories, newEngine);
     }
 
     public DatabaseConfig getDatabaseConfig() {
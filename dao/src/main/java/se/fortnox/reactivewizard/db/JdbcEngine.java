@@ -0,0 +1,75 @@
+package se.fortnox.reactivewizard.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+import se.fortnox.reactivewizard.db.statement.DbStatementFactory;
+import se.fortnox.reactivewizard.db.statement.Statement;
+import se.fortnox.reactivewizard.db.transactions.ConnectionScheduler;
+import se.fortnox.reactivewizard.db.transactions.StatementContext;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Executes statements on JDBC connections, blocking a thread of the connection scheduler per statement. Read only
+ * statements run on a replica when replicas are configured.
+ */
+public class JdbcEngine implements DbEngine {
+
+    private static final Logger LOG = LoggerFactory.getLogger("Dao");
+    private final DatabaseConfig config;
+
+    public JdbcEngine(DatabaseConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    public Flux<Object> execute(StatementContext statementContext, DbStatementFactory statementFactory) {
+        StatementMetrics.Execution execution = statementContext.getStatementMetrics().start();
+        return Flux.create(fluxSink -> {
+            try {
+                ConnectionScheduler.ThrowableAction action = connection -> {
+                    execution.connected();
+                    Statement dbStatement = statementContext.getStatement();
+                    dbStatement.setFluxSink(fluxSink);
+                    executeStatement(dbStatement, connection);
+                };
+                if (statementFactory.isReadOnly() && !config.getReplicaUrls().isEmpty()) {
+                    statementContext.getConnectionScheduler().scheduleOnReplica(fluxSink::error, action, execution::started);
+                } else {
+                    statementContext.getConnectionScheduler().schedule(fluxSink::error, action, execution::started);
+                }
+            } catch (Exception e) {
+                if (!fluxSink.isCancelled()) {
+                    fluxSink.error(e);
+                }
+            }
+        }, FluxSink.OverflowStrategy.ERROR)
+            .doOnNext(row -> execution.row())
+            .doOnComplete(execution::completed)
+            .doOnCancel(execution::completed);
+    }
+
+    private static void executeStatement(Statement dbStatement, Connection connection) {
+        try {
+            connection.setAutoCommit(true);
+            dbStatement.execute(connection);
+            closeSilently(connection);
+            dbStatement.onCompleted();
+        } catch (Throwable e) {
+            closeSilently(connection);
+            dbStatement.onError(e);
+        }
+    }
+
+    private static void closeSilently(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException sqlException) {
+            LOG.warn("Failed to close connection", sqlException);
+        }
+    }
+}
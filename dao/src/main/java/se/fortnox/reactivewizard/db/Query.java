@@ -39,4 +39,63 @@ public @interface Query {
      * @return the limit
      */
     int maxLimit() default 1000;
+
+    /**
+     * Read the result in a cursor, fetching this many rows at a time, and only as the subscriber requests them,
+     * instead of reading and buffering the whole result. Runs in a transaction unless already in one, since most
+     * drivers require that for cursors. Use for large results, such as streamed exports. 0 disables the cursor.
+     * <p>
+     * The cursor holds its connection, and its transaction open, for as long as the subscriber takes to request all
+     * rows. A subscriber that stops requesting rows without cancelling, such as a stalled client, would keep them from
+     * the pool and keep the locks and snapshot of the transaction, which is why the wait is limited by
+     * {@link #fetchIdleTimeoutSeconds()}.
+     * @return the fetch size
+     */
+    int fetchSize() default 0;
+
+    /**
+     * Limit the time a cursor, when {@link #fetchSize()} is set, waits for the subscriber to request more rows. When
+     * it has passed, the cursor is closed, its connection released and the result fails with an SQLException.
+     * @return the time in seconds, or 0 to wait for as long as the subscriber neither requests rows nor cancels
+     */
+    int fetchIdleTimeoutSeconds() default 60;
+
+    /**
+     * Limit the time the query may execute, after which the driver cancels it and the result fails with an
+     * SQLException. Applied with {@link java.sql.Statement#setQueryTimeout(int)}. The query is also cancelled when the
+     * subscriber of the result cancels, such as when a client disconnects.
+     * @return the timeout in seconds, or 0 for no timeout
+     */
+    int queryTimeoutSeconds() default 0;
+
+    /**
+     * Page the result by keyset instead of by offset, when the query takes
+     * {@link se.fortnox.reactivewizard.CollectionOptions}. The columns identify the position of a row, must be unique
+     * together, and must be selected by the query under these names. Rows are ordered by the columns, descending if the
+     * order of the options is DESC, and a page starts after the row of the cursor of the options. The cursor of the
+     * last row of the page is returned as the next cursor of the options. Offset and sortBy are ignored.
+     * @return the key columns, or empty to page by offset
+     */
+    String[] keyset() default {};
+
+    /**
+     * Run the query on the primary database even if read replicas are configured, for queries that must see the latest
+     * writes or that modify data. Queries that are part of a transaction always run on the primary.
+     * @return true if the query must run on the primary
+     */
+    boolean requirePrimary() default false;
+
+    /**
+     * Cache the result of the query per combination of arguments for this long. Calls with the same arguments made
+     * while the query is executing share its result. Use {@link Update#invalidates()} to clear the cache on writes.
+     * Not supported for queries taking {@link se.fortnox.reactivewizard.CollectionOptions}.
+     * @return the time to live of cached results in milliseconds, or 0 to not cache results
+     */
+    long cacheTtlMillis() default 0;
+
+    /**
+     * Maximum number of argument combinations whose results are cached, when {@link #cacheTtlMillis()} is set.
+     * @return the maximum number of cached results
+     */
+    int cacheMaxEntries() default 1000;
 }
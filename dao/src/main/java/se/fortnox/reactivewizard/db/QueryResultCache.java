@@ -0,0 +1,56 @@
+package se.fortnox.reactivewizard.db;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cache of the results of a query method, keyed by its serialized arguments. Concurrent calls with the same arguments
+ * share one execution of the query. Failed executions are not cached.
+ */
+class QueryResultCache {
+    private final Cache<String, Mono<List<Object>>> results;
+
+    QueryResultCache(Duration ttl, int maxEntries) {
+        results = CacheBuilder.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(maxEntries)
+            .build();
+    }
+
+    /**
+     * Get the cached result of a query, executing it if there is no cached result.
+     *
+     * @param key   the serialized arguments of the query
+     * @param query the query
+     * @return the result
+     */
+    Flux<Object> get(String key, Flux<Object> query) {
+        return Flux.defer(() -> {
+            try {
+                return results.get(key, () -> load(key, query));
+            } catch (ExecutionException | UncheckedExecutionException e) {
+                return Mono.error(e.getCause());
+            }
+        }).flatMapIterable(result -> result);
+    }
+
+    private Mono<List<Object>> load(String key, Flux<Object> query) {
+        AtomicReference<Mono<List<Object>>> loaded = new AtomicReference<>();
+        loaded.set(query.collectList()
+            .doOnError(e -> results.asMap().remove(key, loaded.get()))
+            .cache());
+        return loaded.get();
+    }
+
+    void invalidateAll() {
+        results.invalidateAll();
+    }
+}
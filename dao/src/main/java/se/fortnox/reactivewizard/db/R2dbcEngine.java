@@ -0,0 +1,43 @@
+package se.fortnox.reactivewizard.db;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.db.statement.DbStatementFactory;
+import se.fortnox.reactivewizard.db.transactions.StatementContext;
+
+/**
+ * Executes statements on connections of an R2DBC driver, without blocking any thread. Each execution gets its own
+ * connection from the connection factory, which would usually be a pool, and closes it when the result completes,
+ * fails or is cancelled.
+ * <p>
+ * Queries and updates bind their parameters and read their rows the same way as on JDBC. Statements run on the
+ * connection factory even if they are read only, and {@link Copy} is not supported.
+ */
+public class R2dbcEngine implements DbEngine {
+
+    private final ConnectionFactory connectionFactory;
+
+    public R2dbcEngine(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public Flux<Object> execute(StatementContext statementContext, DbStatementFactory statementFactory) {
+        StatementMetrics.Execution execution = statementContext.getStatementMetrics().start();
+        return Flux.usingWhen(
+                Mono.defer(() -> {
+                    execution.started();
+                    return Mono.from(connectionFactory.create());
+                }),
+                connection -> {
+                    execution.connected();
+                    return statementContext.getStatement().execute(connection);
+                },
+                Connection::close)
+            .doOnNext(row -> execution.row())
+            .doOnComplete(execution::completed)
+            .doOnCancel(execution::completed);
+    }
+}
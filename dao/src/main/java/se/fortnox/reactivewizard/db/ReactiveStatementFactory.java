@@ -13,8 +13,7 @@ import se.fortnox.reactivewizard.db.transactions.StatementContext;
 import se.fortnox.reactivewizard.metrics.PublisherMetrics;
 import se.fortnox.reactivewizard.util.DebugUtil;
 
-import java.sql.Connection;
-import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 import static java.lang.String.format;
@@ -29,8 +28,12 @@ public class ReactiveStatementFactory {
     private final PagingOutput pagingOutput;
     private final Function<Flux, Object> resultConverter;
     private final PublisherMetrics publisherMetrics;
+    private final StatementMetrics statementMetrics;
 
     private final DatabaseConfig config;
+    private final JdbcEngine jdbcEngine;
+    private final int batchSize;
+    private final int batchWindowMillis;
 
     public ReactiveStatementFactory(
             DbStatementFactory statementFactory,
@@ -38,19 +41,53 @@ public class ReactiveStatementFactory {
             PublisherMetrics publisherMetrics,
             DatabaseConfig config,
             Function<Flux, Object> resultConverter) {
+        this(statementFactory, pagingOutput, publisherMetrics, config, resultConverter, 0, 0);
+    }
+
+    /**
+     * Create a factory of statements whose independent executions may be grouped into batches.
+     *
+     * @param batchSize         the maximum number of statements in a batch, or 0 to execute every statement separately
+     * @param batchWindowMillis the time to wait for more statements after the first statement of a batch
+     */
+    public ReactiveStatementFactory(
+            DbStatementFactory statementFactory,
+            PagingOutput pagingOutput,
+            PublisherMetrics publisherMetrics,
+            DatabaseConfig config,
+            Function<Flux, Object> resultConverter,
+            int batchSize,
+            int batchWindowMillis) {
+        this(statementFactory, pagingOutput, publisherMetrics, StatementMetrics.none(), config, resultConverter,
+                batchSize, batchWindowMillis);
+    }
+
+    /**
+     * Create a factory of statements recording the phases of their executions, whose independent executions may be
+     * grouped into batches.
+     *
+     * @param statementMetrics  the metrics of the phases of executing the statements
+     * @param batchSize         the maximum number of statements in a batch, or 0 to execute every statement separately
+     * @param batchWindowMillis the time to wait for more statements after the first statement of a batch
+     */
+    public ReactiveStatementFactory(
+            DbStatementFactory statementFactory,
+            PagingOutput pagingOutput,
+            PublisherMetrics publisherMetrics,
+            StatementMetrics statementMetrics,
+            DatabaseConfig config,
+            Function<Flux, Object> resultConverter,
+            int batchSize,
+            int batchWindowMillis) {
         this.statementFactory = statementFactory;
         this.pagingOutput = pagingOutput;
         this.publisherMetrics = publisherMetrics;
+        this.statementMetrics = statementMetrics;
         this.config = config;
+        this.jdbcEngine = new JdbcEngine(config);
         this.resultConverter = resultConverter;
-    }
-
-    private static void closeSilently(Connection connection) {
-        try {
-            connection.close();
-        } catch (SQLException sqlException) {
-            LOG.warn("Failed to close connection", sqlException);
-        }
+        this.batchSize = batchSize;
+        this.batchWindowMillis = batchWindowMillis;
     }
 
     /**
@@ -61,21 +98,45 @@ public class ReactiveStatementFactory {
      * @return the observable statement
      */
     public Object create(Object[] args, ConnectionScheduler connectionScheduler) {
-        StatementContext statementContext = new StatementContext(() -> statementFactory.create(args), connectionScheduler);
-        Flux<Object> result = Flux.create(fluxSink -> {
-            try {
-                statementContext.getConnectionScheduler()
-                        .schedule(fluxSink::error, connection -> {
-                            Statement dbStatement = statementContext.getStatement();
-                            dbStatement.setFluxSink(fluxSink);
-                            executeStatement(dbStatement, connection);
-                        });
-            } catch (Exception e) {
-                if (!fluxSink.isCancelled()) {
-                    fluxSink.error(e);
-                }
-            }
-        }, FluxSink.OverflowStrategy.ERROR);
+        return create(args, connectionScheduler, Function.identity(), null);
+    }
+
+    /**
+     * Create observable statement, with an operator applied to the result before it is converted to the return type
+     * of the dao method.
+     *
+     * @param args                the arguments
+     * @param connectionScheduler the scheduler
+     * @param resultOperator      the operator, such as a cache of the result
+     * @param onExecuted          action to run when the statement has executed, on its own or in a transaction, or null
+     * @return the observable statement
+     */
+    public Object create(Object[] args, ConnectionScheduler connectionScheduler,
+                         Function<Flux<Object>, Flux<Object>> resultOperator, Runnable onExecuted) {
+        return create(args, connectionScheduler, jdbcEngine, resultOperator, onExecuted);
+    }
+
+    /**
+     * Create observable statement executed by an engine, with an operator applied to the result before it is
+     * converted to the return type of the dao method.
+     *
+     * @param args                the arguments
+     * @param connectionScheduler the scheduler
+     * @param engine              the engine executing the statement when it is not part of a transaction or a batch
+     * @param resultOperator      the operator, such as a cache of the result
+     * @param onExecuted          action to run when the statement has executed, on its own or in a transaction, or null
+     * @return the observable statement
+     */
+    public Object create(Object[] args, ConnectionScheduler connectionScheduler, DbEngine engine,
+                         Function<Flux<Object>, Flux<Object>> resultOperator, Runnable onExecuted) {
+        StatementContext statementContext = new StatementContext(() -> statementFactory.create(args), connectionScheduler,
+                statementMetrics);
+        if (onExecuted != null) {
+            statementContext.onTransactionCompleted(onExecuted);
+        }
+        Flux<Object> result = batchSize > 0
+                ? Flux.create(fluxSink -> addToBatch(statementContext, fluxSink), FluxSink.OverflowStrategy.ERROR)
+                : Flux.defer(() -> engine.execute(statementContext, statementFactory));
 
         if (DebugUtil.IS_DEBUG || LOG.isDebugEnabled()) {
             Exception queryFailure = new RuntimeException("Query failed");
@@ -87,26 +148,50 @@ public class ReactiveStatementFactory {
 
         result = pagingOutput.apply(result, args);
         result = Flux.from(publisherMetrics.measure(result, this::logSlowQuery));
-        result = result.onBackpressureBuffer(RECORD_BUFFER_SIZE);
+        if (!statementFactory.isStreaming()) {
+            result = result.onBackpressureBuffer(RECORD_BUFFER_SIZE);
+        }
 
-        return decorated(resultConverter.apply(result), statementContext);
+        if (onExecuted != null) {
+            result = runOnFirstSignal(result, onExecuted);
+        }
+
+        return decorated(resultConverter.apply(resultOperator.apply(result)), statementContext);
     }
 
-    private void logSlowQuery(long time) {
-        if (time > config.getSlowQueryLogThreshold()) {
-            LOG.warn(format("Slow query: %s\ntime: %d", statementFactory, time));
-        }
+    /**
+     * Run an action when the statement has executed, before its result reaches the subscriber, so that a caller
+     * receiving the result can rely on the action having run. Also run when the subscriber cancels before the result.
+     */
+    private static Flux<Object> runOnFirstSignal(Flux<Object> result, Runnable action) {
+        return Flux.defer(() -> {
+            AtomicBoolean done = new AtomicBoolean();
+            Runnable once = () -> {
+                if (done.compareAndSet(false, true)) {
+                    action.run();
+                }
+            };
+            return result
+                    .doOnEach(signal -> once.run())
+                    .doFinally(signal -> once.run());
+        });
     }
 
-    private void executeStatement(Statement dbStatement, Connection connection) {
+    private void addToBatch(StatementContext statementContext, FluxSink<Object> fluxSink) {
         try {
-            connection.setAutoCommit(true);
-            dbStatement.execute(connection);
-            closeSilently(connection);
-            dbStatement.onCompleted();
-        } catch (Throwable e) {
-            closeSilently(connection);
-            dbStatement.onError(e);
+            Statement dbStatement = statementContext.getStatement();
+            dbStatement.setFluxSink(fluxSink);
+            statementContext.getConnectionScheduler()
+                    .batcher(this, batchSize, batchWindowMillis, statementMetrics::batchExecuted)
+                    .add(dbStatement);
+        } catch (Exception e) {
+            fluxSink.error(e);
+        }
+    }
+
+    private void logSlowQuery(long time) {
+        if (time > config.getSlowQueryLogThreshold()) {
+            LOG.warn(format("Slow query: %s\ntime: %d", statementFactory, time));
         }
     }
 }
@@ -0,0 +1,129 @@
+package se.fortnox.reactivewizard.db;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import se.fortnox.reactivewizard.metrics.Metrics;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Metrics of the phases of executing the statements of a dao method, telling time spent waiting for a thread or a
+ * connection from time spent executing the statement and reading its rows. Registered in {@link Metrics#registry()}
+ * under the name of the method followed by:
+ * <ul>
+ *     <li>{@code _phase:queue} the time from scheduling a statement until a thread starts running it</li>
+ *     <li>{@code _phase:connection} the time getting a connection</li>
+ *     <li>{@code _phase:execute} the time from getting a connection until the first row, or until completion for
+ *     statements without rows</li>
+ *     <li>{@code _phase:lastRow} the time from getting a connection until the last row</li>
+ *     <li>{@code _rows} the number of rows emitted per execution</li>
+ *     <li>{@code _batchSize} the number of statements per batch, for batched updates</li>
+ * </ul>
+ */
+public class StatementMetrics {
+
+    private static final StatementMetrics NONE = new StatementMetrics(new MetricRegistry(), "none");
+
+    private final Timer     queue;
+    private final Timer     connection;
+    private final Timer     execute;
+    private final Timer     lastRow;
+    private final Histogram rows;
+    private final Histogram batchSize;
+
+    public StatementMetrics(String name) {
+        this(Metrics.registry(), name);
+    }
+
+    private StatementMetrics(MetricRegistry registry, String name) {
+        this.queue = registry.timer(name + "_phase:queue");
+        this.connection = registry.timer(name + "_phase:connection");
+        this.execute = registry.timer(name + "_phase:execute");
+        this.lastRow = registry.timer(name + "_phase:lastRow");
+        this.rows = registry.histogram(name + "_rows");
+        this.batchSize = registry.histogram(name + "_batchSize");
+    }
+
+    /**
+     * Get metrics that are not registered anywhere, for statements that are not measured.
+     *
+     * @return the metrics
+     */
+    public static StatementMetrics none() {
+        return NONE;
+    }
+
+    /**
+     * Start measuring an execution of a statement, when it is scheduled.
+     *
+     * @return the execution
+     */
+    public Execution start() {
+        return new Execution();
+    }
+
+    /**
+     * Record the size of a batch of statements executed together.
+     *
+     * @param size the number of statements
+     */
+    public void batchExecuted(int size) {
+        batchSize.update(size);
+    }
+
+    /**
+     * The phases of one execution of a statement.
+     */
+    public class Execution {
+        private final    long scheduled = System.nanoTime();
+        private volatile long started;
+        private volatile long connected;
+        private volatile long rowCount;
+
+        private Execution() {
+        }
+
+        /**
+         * A thread has started running the statement, and is about to get a connection.
+         */
+        public void started() {
+            started = System.nanoTime();
+            queue.update(started - scheduled, NANOSECONDS);
+        }
+
+        /**
+         * The statement has got its connection.
+         */
+        public void connected() {
+            connected = System.nanoTime();
+            if (started != 0) {
+                connection.update(connected - started, NANOSECONDS);
+            }
+        }
+
+        /**
+         * The statement has emitted a row.
+         */
+        public void row() {
+            if (rowCount++ == 0 && connected != 0) {
+                execute.update(System.nanoTime() - connected, NANOSECONDS);
+            }
+        }
+
+        /**
+         * The statement has emitted its last row, or the subscriber has cancelled.
+         */
+        public void completed() {
+            if (connected == 0) {
+                return;
+            }
+            long elapsed = System.nanoTime() - connected;
+            if (rowCount == 0) {
+                execute.update(elapsed, NANOSECONDS);
+            }
+            lastRow.update(elapsed, NANOSECONDS);
+            rows.update(rowCount);
+        }
+    }
+}
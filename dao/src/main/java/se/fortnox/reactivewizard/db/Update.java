@@ -19,4 +19,27 @@ public @interface Update {
      * @return number of rows
      */
     int minimumAffected() default 1;
+
+    /**
+     * Maximum number of concurrent calls to execute together as one JDBC batch, on a shared connection. Calls made
+     * within {@link #batchWindowMillis()} of each other are grouped, and each caller receives its own update count.
+     * Calls that are part of a transaction are never grouped. Not supported when returning a generated key.
+     * A driver that does not count the rows of each statement of a batch gives the count
+     * {@link java.sql.Statement#SUCCESS_NO_INFO}, which is not checked against {@link #minimumAffected()}.
+     * @return the maximum batch size, or 0 to execute every call separately
+     */
+    int batchSize() default 0;
+
+    /**
+     * Time to wait for more calls to group with the first call of a batch, when {@link #batchSize()} is set.
+     * @return the window in milliseconds
+     */
+    int batchWindowMillis() default 5;
+
+    /**
+     * Names of cached {@link Query} methods of the same interface whose cached results are cleared when this update
+     * has executed.
+     * @return the names of the query methods
+     */
+    String[] invalidates() default {};
 }
@@ -2,6 +2,8 @@ package se.fortnox.reactivewizard.db.config;
 
 import se.fortnox.reactivewizard.config.Config;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.Executor;
 
 @Config("database")
@@ -37,6 +39,9 @@ public class DatabaseConfig {
     private int    minimumIdle           = 1;
     private long   slowQueryLogThreshold = 5000;
     private long   socketTimeout         = 300;
+    private boolean virtualThreads       = false;
+    private int    connectionAffinityThreads = 0;
+    private List<String> replicaUrls     = new ArrayList<>();
 
     public String getSchema() {
         return schema;
@@ -133,4 +138,48 @@ public class DatabaseConfig {
     public void setSocketTimeout(long socketTimeout) {
         this.socketTimeout = socketTimeout;
     }
+
+    /**
+     * Whether the blocking JDBC calls of DbProxy run on virtual threads, bounded by the pool size, instead of on a
+     * bounded elastic scheduler. Falls back to platform threads when the JVM does not support virtual threads.
+     *
+     * @return true if virtual threads should be used
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Urls of read replicas of the database, each getting a connection pool of its own with the same settings as the
+     * primary. Queries that do not require the primary are spread over the replicas.
+     *
+     * @return the urls of the replicas, empty if all statements should go to the primary
+     */
+    public List<String> getReplicaUrls() {
+        return replicaUrls;
+    }
+
+    public void setReplicaUrls(List<String> replicaUrls) {
+        this.replicaUrls = replicaUrls;
+    }
+
+    /**
+     * Number of DbProxy threads that each keep a connection of the pool for the statements they run, instead of taking
+     * a connection from the pool per statement. Must be less than the pool size, since statements of transactions
+     * spanning several threads and connections for other callers are still taken from the pool. A kept connection is
+     * returned to the pool after half of maxLifetime, or when it has not been used for idleTimeout.
+     *
+     * @return the number of threads, or 0 to take a connection per statement
+     */
+    public int getConnectionAffinityThreads() {
+        return connectionAffinityThreads;
+    }
+
+    public void setConnectionAffinityThreads(int connectionAffinityThreads) {
+        this.connectionAffinityThreads = connectionAffinityThreads;
+    }
 }
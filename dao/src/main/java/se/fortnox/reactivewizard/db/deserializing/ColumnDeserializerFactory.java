@@ -11,61 +11,64 @@ import java.time.LocalTime;
 import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 public class ColumnDeserializerFactory {
 
     static Deserializer getColumnDeserializer(Class<?> columnClass, int columnType, int columnIndex) {
         if (columnClass.equals(String.class)) {
-            return (resultSet) -> Optional.ofNullable(resultSet.getString(columnIndex));
+            return (resultSet) -> resultSet.getString(columnIndex);
         } else if (columnClass.equals(int.class)) {
-            return (resultSet) -> Optional.of(resultSet.getInt(columnIndex));
+            return (resultSet) -> resultSet.getInt(columnIndex);
         } else if (columnClass.equals(Integer.class)) {
-            return (resultSet) -> mayBeNull(resultSet, resultSet.getInt(columnIndex));
+            return (resultSet) -> getNullableInt(resultSet, columnIndex);
         } else if (columnClass.equals(long.class)) {
-            return (resultSet) -> Optional.of(resultSet.getLong(columnIndex));
+            return (resultSet) -> resultSet.getLong(columnIndex);
         } else if (columnClass.equals(Long.class)) {
-            return (resultSet) -> mayBeNull(resultSet, resultSet.getLong(columnIndex));
+            return (resultSet) -> getNullableLong(resultSet, columnIndex);
         } else if (columnClass.equals(boolean.class)) {
-            return (resultSet) -> Optional.of(resultSet.getBoolean(columnIndex));
+            return (resultSet) -> resultSet.getBoolean(columnIndex);
         } else if (columnClass.equals(Boolean.class)) {
-            return (resultSet) -> mayBeNull(resultSet, resultSet.getBoolean(columnIndex));
+            return (resultSet) -> getNullableBoolean(resultSet, columnIndex);
         } else if (columnClass.isEnum()) {
-            return (resultSet) -> Optional.ofNullable(getEnum(columnClass, resultSet, columnIndex));
+            return (resultSet) -> getEnum(columnClass, resultSet, columnIndex);
         } else if (columnClass.equals(float.class)) {
-            return (resultSet) -> Optional.of(resultSet.getFloat(columnIndex));
+            return (resultSet) -> resultSet.getFloat(columnIndex);
         } else if (columnClass.equals(Float.class)) {
-            return (resultSet) -> mayBeNull(resultSet, resultSet.getFloat(columnIndex));
+            return (resultSet) -> getNullableFloat(resultSet, columnIndex);
         } else if (columnClass.equals(double.class)) {
-            return (resultSet) -> Optional.of(resultSet.getDouble(columnIndex));
+            return (resultSet) -> resultSet.getDouble(columnIndex);
         } else if (columnClass.equals(Double.class)) {
-            return (resultSet) -> mayBeNull(resultSet, resultSet.getDouble(columnIndex));
+            return (resultSet) -> getNullableDouble(resultSet, columnIndex);
         } else if (columnClass.equals(BigDecimal.class)) {
             return (resultSet) -> mayBeNull(resultSet, resultSet.getBigDecimal(columnIndex));
         } else if (columnClass.equals(UUID.class)) {
             return (resultSet) -> mayBeNull(resultSet, resultSet.getObject(columnIndex));
         } else if (columnClass.equals(LocalDate.class)) {
-            return (resultSet) -> Optional.ofNullable(getLocalDate(resultSet, columnIndex));
+            return (resultSet) -> getLocalDate(resultSet, columnIndex);
         } else if (columnClass.equals(LocalTime.class)) {
-            return (resultSet) -> Optional.ofNullable(getLocalTime(resultSet, columnIndex));
+            return (resultSet) -> getLocalTime(resultSet, columnIndex);
         } else if (columnClass.equals(LocalDateTime.class)) {
-            return (resultSet) -> Optional.ofNullable(getLocalDateTime(resultSet, columnIndex));
+            return (resultSet) -> getLocalDateTime(resultSet, columnIndex);
         } else if (columnClass.equals(YearMonth.class)) {
-            return (resultSet) -> mayBeNull(resultSet, resultSet.getInt(columnIndex)).map(ColumnDeserializerFactory::toYearMonth);
+            return (resultSet) -> getYearMonth(resultSet, columnIndex);
         } else if (columnClass.isArray()) {
             if (columnClass.equals(byte[].class)) {
-                return (resultSet) -> Optional.ofNullable(resultSet.getBytes(columnIndex));
+                return (resultSet) -> resultSet.getBytes(columnIndex);
             }
-            return (resultSet) -> Optional.ofNullable(getArray(resultSet, columnIndex));
+            return (resultSet) -> getArray(resultSet, columnIndex);
         } else if (columnClass.isAssignableFrom(List.class) && columnType == Types.ARRAY) {
-            return (resultSet) -> Optional.ofNullable(getList(resultSet, columnIndex));
+            return (resultSet) -> getList(resultSet, columnIndex);
         }
         return null;
     }
 
-    private static YearMonth toYearMonth(Integer integer) {
-        return YearMonth.of(integer / 100, integer % 100);
+    private static YearMonth getYearMonth(ResultSet resultSet, int columnIndex) throws SQLException {
+        int value = resultSet.getInt(columnIndex);
+        if (resultSet.wasNull()) {
+            return null;
+        }
+        return YearMonth.of(value / 100, value % 100);
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -78,12 +81,52 @@ public class ColumnDeserializerFactory {
         return Enum.valueOf(columnClass, string);
     }
 
-    private static <T> Optional<T> mayBeNull(ResultSet resultSet, T value)
+    private static <T> T mayBeNull(ResultSet resultSet, T value)
         throws SQLException {
         if (resultSet.wasNull()) {
-            value = null;
+            return null;
+        }
+        return value;
+    }
+
+    private static Integer getNullableInt(ResultSet resultSet, int columnIndex) throws SQLException {
+        int value = resultSet.getInt(columnIndex);
+        if (resultSet.wasNull()) {
+            return null;
+        }
+        return value;
+    }
+
+    private static Long getNullableLong(ResultSet resultSet, int columnIndex) throws SQLException {
+        long value = resultSet.getLong(columnIndex);
+        if (resultSet.wasNull()) {
+            return null;
+        }
+        return value;
+    }
+
+    private static Boolean getNullableBoolean(ResultSet resultSet, int columnIndex) throws SQLException {
+        boolean value = resultSet.getBoolean(columnIndex);
+        if (resultSet.wasNull()) {
+            return null;
+        }
+        return value;
+    }
+
+    private static Float getNullableFloat(ResultSet resultSet, int columnIndex) throws SQLException {
+        float value = resultSet.getFloat(columnIndex);
+        if (resultSet.wasNull()) {
+            return null;
+        }
+        return value;
+    }
+
+    private static Double getNullableDouble(ResultSet resultSet, int columnIndex) throws SQLException {
+        double value = resultSet.getDouble(columnIndex);
+        if (resultSet.wasNull()) {
+            return null;
         }
-        return Optional.ofNullable(value);
+        return value;
     }
 
     private static LocalDate getLocalDate(ResultSet resultSet, int columnIndex) throws SQLException {
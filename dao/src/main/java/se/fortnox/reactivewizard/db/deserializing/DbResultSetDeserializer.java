@@ -24,7 +24,7 @@ public class DbResultSetDeserializer {
             if (deserializer == null) {
                 deserializer = createDeserializer(cls, rs);
             }
-            return deserializer.deserialize(rs).orElse(null);
+            return deserializer.deserialize(rs);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -42,8 +42,10 @@ public class DbResultSetDeserializer {
     }
 
     private Deserializer createDeserializer(Class<?> cls, ResultSetMetaData metaData) throws SQLException {
-        return isImmutable(cls) ?
-            JacksonObjectDeserializer.create(cls, metaData) :
-            SimpleObjectDeserializer.create(cls, metaData);
+        if (!isImmutable(cls)) {
+            return SimpleObjectDeserializer.create(cls, metaData);
+        }
+        Deserializer recordDeserializer = RecordDeserializer.create(cls, metaData);
+        return recordDeserializer != null ? recordDeserializer : JacksonObjectDeserializer.create(cls, metaData);
     }
 }
@@ -3,10 +3,14 @@ package se.fortnox.reactivewizard.db.deserializing;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Optional;
 
 interface Deserializer<T> {
-    Optional<T> deserialize(ResultSet rs) throws SQLException,
+    /**
+     * Deserialize the current row.
+     * @param rs the result set
+     * @return the value, or null if the column is SQL NULL
+     */
+    T deserialize(ResultSet rs) throws SQLException,
         InvocationTargetException, IllegalAccessException,
         InstantiationException;
 }
@@ -67,10 +67,9 @@ class DeserializerUtil {
         return deserializerFactory.apply(propertyResolver, (rs) -> {
             String columnValue = rs.getString(columnIndex);
             if (columnValue == null) {
-                return Optional.empty();
+                return null;
             }
-            Object value       = deserializer.apply(columnValue);
-            return Optional.ofNullable(value);
+            return deserializer.apply(columnValue);
         });
     }
 
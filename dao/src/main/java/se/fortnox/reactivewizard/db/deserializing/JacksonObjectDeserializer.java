@@ -10,7 +10,6 @@ import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
 /**
  * Deserializer that uses the conversion functionality in Jackson Databinding to build the object.
@@ -38,11 +37,11 @@ public class JacksonObjectDeserializer implements Deserializer {
     }
 
     @Override
-    public Optional<?> deserialize(ResultSet rs)
+    public Object deserialize(ResultSet rs)
         throws SQLException, InvocationTargetException, IllegalAccessException, InstantiationException {
 
         Map<String, Object> propertyMap = createPropertyMap(rs);
-        return Optional.ofNullable(OBJECT_MAPPER.convertValue(propertyMap, targetClass));
+        return OBJECT_MAPPER.convertValue(propertyMap, targetClass);
     }
 
     @SuppressWarnings("unchecked")
@@ -57,7 +56,7 @@ public class JacksonObjectDeserializer implements Deserializer {
             Map<String, Object> current = root;
             for (int i = 0; i < path.length; i++) {
                 if (i == path.length - 1) {
-                    current.put(path[i], deserializer.deserialize(rs).orElse(null));
+                    current.put(path[i], deserializer.deserialize(rs));
                 } else {
                     current = (Map<String, Object>)current.computeIfAbsent(path[i], k -> new HashMap<>());
                 }
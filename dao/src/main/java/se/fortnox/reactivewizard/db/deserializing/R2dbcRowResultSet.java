@@ -0,0 +1,126 @@
+package se.fortnox.reactivewizard.db.deserializing;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.function.Function;
+
+/**
+ * A ResultSet positioned on a single R2DBC row, so that rows of an R2DBC result can be read by the same deserializers
+ * as rows of a JDBC result. Only the getters by column index that the deserializers use are supported, and the row
+ * must only be read within the mapping function of the R2DBC result.
+ */
+public class R2dbcRowResultSet implements InvocationHandler {
+    private final Row         row;
+    private final RowMetadata metadata;
+    private       boolean     wasNull;
+
+    private R2dbcRowResultSet(Row row, RowMetadata metadata) {
+        this.row = row;
+        this.metadata = metadata;
+    }
+
+    /**
+     * Create a ResultSet of a row.
+     * @param row the row
+     * @param metadata the metadata of the row
+     * @return the ResultSet
+     */
+    public static ResultSet of(Row row, RowMetadata metadata) {
+        return (ResultSet)Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class[]{ResultSet.class},
+            new R2dbcRowResultSet(row, metadata));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            return method.invoke(this, args);
+        }
+        if (method.getName().equals("wasNull")) {
+            return wasNull;
+        }
+        if (method.getName().equals("getMetaData")) {
+            return metaData();
+        }
+        if (args == null || args.length != 1 || !(args[0] instanceof Integer columnIndex)) {
+            throw new SQLFeatureNotSupportedException(method.getName() + " is not supported for R2DBC rows");
+        }
+        int index = columnIndex - 1;
+        return switch (method.getName()) {
+            case "getString" -> get(index, String.class);
+            case "getInt" -> number(index).intValue();
+            case "getLong" -> number(index).longValue();
+            case "getFloat" -> number(index).floatValue();
+            case "getDouble" -> number(index).doubleValue();
+            case "getBoolean" -> Boolean.TRUE.equals(get(index, Boolean.class));
+            case "getBigDecimal" -> get(index, BigDecimal.class);
+            case "getBytes" -> get(index, byte[].class);
+            case "getObject" -> get(index, Object.class);
+            case "getDate" -> ifNotNull(get(index, LocalDate.class), Date::valueOf);
+            case "getTime" -> ifNotNull(get(index, LocalTime.class), Time::valueOf);
+            case "getTimestamp" -> ifNotNull(get(index, LocalDateTime.class), Timestamp::valueOf);
+            case "getArray" -> ifNotNull((Object[])get(index, Object.class), R2dbcRowResultSet::array);
+            default -> throw new SQLFeatureNotSupportedException(method.getName() + " is not supported for R2DBC rows");
+        };
+    }
+
+    private <T> T get(int index, Class<T> type) {
+        T value = row.get(index, type);
+        wasNull = value == null;
+        return value;
+    }
+
+    /**
+     * Get a number column, which is 0 if it is null just like the primitive getters of JDBC.
+     */
+    private Number number(int index) {
+        Number value = (Number)get(index, Object.class);
+        return value == null ? 0 : value;
+    }
+
+    private static <T, R> R ifNotNull(T value, Function<T, R> mapper) {
+        return value == null ? null : mapper.apply(value);
+    }
+
+    private ResultSetMetaData metaData() {
+        return (ResultSetMetaData)Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+            new Class[]{ResultSetMetaData.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getColumnCount" -> metadata.getColumnMetadatas().size();
+                case "getColumnLabel", "getColumnName" -> metadata.getColumnMetadata((Integer)args[0] - 1).getName();
+                case "getColumnType" -> columnType(metadata.getColumnMetadata((Integer)args[0] - 1).getJavaType());
+                default -> throw new SQLFeatureNotSupportedException(method.getName() + " is not supported for R2DBC rows");
+            });
+    }
+
+    /**
+     * The JDBC type of a column, which the deserializers only use to tell arrays from other columns.
+     */
+    private static int columnType(Class<?> javaType) {
+        return javaType != null && javaType.isArray() && javaType != byte[].class ? Types.ARRAY : Types.OTHER;
+    }
+
+    private static Array array(Object[] elements) {
+        return (Array)Proxy.newProxyInstance(Array.class.getClassLoader(), new Class[]{Array.class},
+            (proxy, method, args) -> switch (method.getName()) {
+                case "getArray" -> elements;
+                case "free" -> null;
+                default -> throw new SQLFeatureNotSupportedException(method.getName() + " is not supported for R2DBC arrays");
+            });
+    }
+}
@@ -0,0 +1,172 @@
+package se.fortnox.reactivewizard.db.deserializing;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Deserializer of records that reads the columns of each row by index and passes them straight to the canonical
+ * constructor. Columns of nested records, such as {@code child.name}, are passed to the canonical constructor of the
+ * nested record.
+ * <p>
+ * Records that cannot be mapped this way, for example because they use Jackson annotations or nest other kinds of
+ * classes, are left to {@link JacksonObjectDeserializer}.
+ */
+class RecordDeserializer {
+    private static final String JACKSON_PACKAGE = "com.fasterxml.jackson";
+
+    private RecordDeserializer() {
+    }
+
+    /**
+     * Create a deserializer.
+     * @param cls the record class
+     * @param metaData the meta data
+     * @return the deserializer, or null if the record cannot be mapped without Jackson
+     * @throws SQLException on error
+     */
+    static Deserializer create(Class<?> cls, ResultSetMetaData metaData) throws SQLException {
+        RecordMapper mapper = RecordMapper.of(cls);
+        if (mapper == null) {
+            return null;
+        }
+        Map<String[], Deserializer> propertyDeserializers = DeserializerUtil.createPropertyDeserializers(cls, metaData,
+            (propertyResolver, deserializer) -> deserializer);
+        for (Map.Entry<String[], Deserializer> entry : propertyDeserializers.entrySet()) {
+            if (!mapper.add(entry.getKey(), 0, entry.getValue())) {
+                return null;
+            }
+        }
+        return mapper::map;
+    }
+
+    private static boolean hasJacksonAnnotations(Class<?> cls, Constructor<?> constructor) {
+        Stream<AnnotatedElement> elements = Stream.of(
+            Stream.of(cls, constructor),
+            Stream.of(cls.getDeclaredFields()),
+            Stream.of(cls.getRecordComponents()).map(RecordComponent::getAccessor),
+            Stream.of(constructor.getParameters())
+        ).flatMap(stream -> stream);
+        return elements
+            .flatMap(element -> Stream.of(element.getAnnotations()))
+            .map(Annotation::annotationType)
+            .anyMatch(annotationType -> annotationType.getPackageName().startsWith(JACKSON_PACKAGE));
+    }
+
+    private interface ArgumentReader {
+        Object read(ResultSet rs) throws SQLException, InvocationTargetException, IllegalAccessException,
+            InstantiationException;
+    }
+
+    /**
+     * Reads the constructor arguments of one record class.
+     */
+    private static class RecordMapper implements ArgumentReader {
+        private final MethodHandle      constructor;
+        private final RecordComponent[] components;
+        private final Object[]          defaultValues;
+        private final ArgumentReader[]  readers;
+
+        private RecordMapper(MethodHandle constructor, RecordComponent[] components) {
+            this.constructor = constructor;
+            this.components = components;
+            this.defaultValues = new Object[components.length];
+            this.readers = new ArgumentReader[components.length];
+            for (int i = 0; i < components.length; i++) {
+                Class<?> type = components[i].getType();
+                if (type.isPrimitive()) {
+                    defaultValues[i] = Array.get(Array.newInstance(type, 1), 0);
+                }
+            }
+        }
+
+        static RecordMapper of(Class<?> cls) {
+            if (!cls.isRecord()) {
+                return null;
+            }
+            RecordComponent[] components = cls.getRecordComponents();
+            Class<?>[] parameterTypes = Stream.of(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+            try {
+                Constructor<?> constructor = cls.getDeclaredConstructor(parameterTypes);
+                if (hasJacksonAnnotations(cls, constructor)) {
+                    return null;
+                }
+                constructor.setAccessible(true);
+                MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asSpreader(Object[].class, components.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+                return new RecordMapper(handle, components);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Add the deserializer of a column.
+         * @return false if the column cannot be mapped to the components of this record
+         */
+        boolean add(String[] path, int depth, Deserializer deserializer) {
+            int index = indexOf(path[depth]);
+            if (index == -1) {
+                return false;
+            }
+            if (depth == path.length - 1) {
+                if (readers[index] != null) {
+                    return false;
+                }
+                Object defaultValue = defaultValues[index];
+                readers[index] = rs -> {
+                    Object value = deserializer.deserialize(rs);
+                    return value == null ? defaultValue : value;
+                };
+                return true;
+            }
+            if (readers[index] == null) {
+                readers[index] = of(components[index].getType());
+            }
+            return readers[index] instanceof RecordMapper nested && nested.add(path, depth + 1, deserializer);
+        }
+
+        private int indexOf(String name) {
+            for (int i = 0; i < components.length; i++) {
+                if (components[i].getName().equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Object map(ResultSet rs) throws SQLException, InvocationTargetException, IllegalAccessException,
+            InstantiationException {
+            Object[] args = new Object[readers.length];
+            for (int i = 0; i < readers.length; i++) {
+                ArgumentReader reader = readers[i];
+                args[i] = reader == null ? defaultValues[i] : reader.read(rs);
+            }
+            try {
+                return (Object)constructor.invokeExact(args);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        public Object read(ResultSet rs) throws SQLException, InvocationTargetException, IllegalAccessException,
+            InstantiationException {
+            return map(rs);
+        }
+    }
+}
@@ -8,7 +8,6 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Map;
-import java.util.Optional;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 
@@ -31,14 +30,15 @@ public class SimpleObjectDeserializer {
                 metaData,
                 SimpleObjectDeserializer::createRecordPropertyDeserializer);
 
-        Supplier<I> instantiator = ReflectionUtil.instantiator(cls);
+        PropertyDeserializer[] propertyDeserializers = deserializers.values().toArray(PropertyDeserializer[]::new);
+        Supplier<I>            instantiator          = ReflectionUtil.instantiator(cls);
 
         return (rs) -> {
             Object object = instantiator.get();
-            for (PropertyDeserializer propertyDeserializer : deserializers.values()) {
+            for (PropertyDeserializer propertyDeserializer : propertyDeserializers) {
                 propertyDeserializer.deserialize(rs, object);
             }
-            return Optional.of(object);
+            return object;
         };
     }
 
@@ -46,7 +46,7 @@ public class SimpleObjectDeserializer {
             PropertyResolver<I,T> propertyResolver,
             Deserializer<T> deserializer) {
         BiConsumer<I, T> setter = propertyResolver.setter();
-        return (rs, obj) -> setter.accept(obj, deserializer.deserialize(rs).orElse(null));
+        return (rs, obj) -> setter.accept(obj, deserializer.deserialize(rs));
     }
 
     private interface PropertyDeserializer<I> {
@@ -0,0 +1,21 @@
+package se.fortnox.reactivewizard.db.paging;
+
+import se.fortnox.reactivewizard.json.InvalidJsonException;
+
+/**
+ * Thrown when a cursor of a query paged by keyset was not created by the keyset of the query, for example because it
+ * has been altered by the client or the keyset has changed since. Like other malformed JSON it is a client error.
+ */
+public class InvalidCursorException extends InvalidJsonException {
+    private final String cursor;
+
+    public InvalidCursorException(String cursor, Exception exception) {
+        super(exception);
+        this.cursor = cursor;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Invalid cursor: " + cursor;
+    }
+}
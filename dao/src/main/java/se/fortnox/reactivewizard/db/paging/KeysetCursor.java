@@ -0,0 +1,117 @@
+package se.fortnox.reactivewizard.db.paging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import se.fortnox.reactivewizard.db.Query;
+import se.fortnox.reactivewizard.json.InvalidJsonException;
+import se.fortnox.reactivewizard.json.JsonDeserializerFactory;
+import se.fortnox.reactivewizard.json.JsonSerializerFactory;
+import se.fortnox.reactivewizard.util.CamelSnakeConverter;
+import se.fortnox.reactivewizard.util.PropertyResolver;
+import se.fortnox.reactivewizard.util.ReflectionUtil;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Encodes the position of a row in a result paged by keyset, as declared by {@link Query#keyset()}, into an opaque
+ * cursor, and decodes cursors back into the values of the key columns.
+ */
+public class KeysetCursor {
+    private static final JsonSerializerFactory      JSON_SERIALIZER_FACTORY   = new JsonSerializerFactory();
+    private static final JsonDeserializerFactory    JSON_DESERIALIZER_FACTORY = new JsonDeserializerFactory();
+    private static final Function<Object[], byte[]> VALUES_SERIALIZER         = JSON_SERIALIZER_FACTORY.createByteSerializer(Object[].class);
+    private static final Function<byte[], JsonNode> VALUES_DESERIALIZER       = JSON_DESERIALIZER_FACTORY.createByteDeserializer(JsonNode.class);
+
+    private final String[]                   columns;
+    private final Function<Object, Object>[] getters;
+    private final Function<String, Object>[] deserializers;
+
+    @SuppressWarnings("unchecked")
+    private KeysetCursor(String[] columns, List<PropertyResolver> properties) {
+        this.columns = columns;
+        this.getters = new Function[columns.length];
+        this.deserializers = new Function[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            getters[i] = properties.get(i).getter();
+            deserializers[i] = JSON_DESERIALIZER_FACTORY.createDeserializer(properties.get(i).getPropertyGenericType());
+        }
+    }
+
+    /**
+     * Create the cursor of a query method.
+     *
+     * @param method the method
+     * @return the cursor, or null if the method does not declare keyset columns
+     */
+    public static KeysetCursor create(Method method) {
+        Query query = method.getAnnotation(Query.class);
+        if (query == null || query.keyset().length == 0) {
+            return null;
+        }
+        Class<?>               rowType    = ReflectionUtil.getRawType(ReflectionUtil.getTypeOfObservable(method));
+        List<PropertyResolver> properties = new ArrayList<>();
+        for (String column : query.keyset()) {
+            String propertyName = CamelSnakeConverter.snakeToCamel(column);
+            properties.add(ReflectionUtil.getPropertyResolver(rowType, propertyName)
+                .orElseThrow(() -> new RuntimeException("Keyset column " + column + " has no matching property named "
+                    + propertyName + " in " + rowType.getSimpleName())));
+        }
+        return new KeysetCursor(query.keyset(), properties);
+    }
+
+    /**
+     * Get the key columns, in the order of the values of a cursor.
+     *
+     * @return the columns
+     */
+    public String[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * Encode the position of a row.
+     *
+     * @param row the row
+     * @return the cursor of the row
+     */
+    public String encode(Object row) {
+        Object[] values = new Object[getters.length];
+        for (int i = 0; i < getters.length; i++) {
+            values[i] = getters[i].apply(row);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(VALUES_SERIALIZER.apply(values));
+    }
+
+    /**
+     * Decode a cursor into the values of the key columns.
+     *
+     * @param cursor the cursor
+     * @return the values, in the order of the key columns
+     * @throws InvalidCursorException if the cursor was not created by this keyset
+     */
+    public Object[] decode(String cursor) {
+        JsonNode values;
+        try {
+            values = VALUES_DESERIALIZER.apply(Base64.getUrlDecoder().decode(cursor.getBytes(UTF_8)));
+        } catch (InvalidJsonException | IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor, e);
+        }
+        if (values == null || !values.isArray() || values.size() != deserializers.length) {
+            throw new InvalidCursorException(cursor, null);
+        }
+        Object[] decoded = new Object[deserializers.length];
+        try {
+            for (int i = 0; i < deserializers.length; i++) {
+                decoded[i] = deserializers[i].apply(values.get(i).toString());
+            }
+        } catch (InvalidJsonException e) {
+            throw new InvalidCursorException(cursor, e);
+        }
+        return decoded;
+    }
+}
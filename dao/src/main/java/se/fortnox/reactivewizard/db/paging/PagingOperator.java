@@ -4,17 +4,31 @@ import org.reactivestreams.Publisher;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
 import reactor.core.Disposable;
+import reactor.core.publisher.Operators;
 import se.fortnox.reactivewizard.CollectionOptions;
 
 import java.util.function.BiFunction;
+import java.util.function.Function;
 
 public class PagingOperator<T> implements BiFunction<Publisher<T>, CoreSubscriber<T>, CoreSubscriber<T>> {
 
     private final int limit;
     private final CollectionOptions collectionOptions;
+    private final Function<? super T, String> cursorEncoder;
 
     public PagingOperator(CollectionOptions collectionOptions) {
+        this(collectionOptions, null);
+    }
+
+    /**
+     * Create a paging operator that also sets the cursor of the next page on the options.
+     *
+     * @param collectionOptions the options of the page
+     * @param cursorEncoder     encodes the cursor of the last row of the page, or null if the paging is not by cursor
+     */
+    public PagingOperator(CollectionOptions collectionOptions, Function<? super T, String> cursorEncoder) {
         this.collectionOptions = collectionOptions;
+        this.cursorEncoder = cursorEncoder;
         this.limit = collectionOptions.getLimit() != null ? collectionOptions.getLimit() : Integer.MAX_VALUE;
     }
 
@@ -23,10 +37,14 @@ public class PagingOperator<T> implements BiFunction<Publisher<T>, CoreSubscribe
         return new CoreSubscriber<>() {
 
             int count = 0;
+            T   last;
 
             @Override
             public void onComplete() {
                 collectionOptions.setLastRecord(count <= limit);
+                if (cursorEncoder != null) {
+                    collectionOptions.setNextCursor(count <= limit || last == null ? null : cursorEncoder.apply(last));
+                }
                 if (!isDisposed(child)) {
                     child.onComplete();
                 }
@@ -46,6 +64,7 @@ public class PagingOperator<T> implements BiFunction<Publisher<T>, CoreSubscribe
                 }
                 count++;
                 if (count <= limit) {
+                    last = item;
                     child.onNext(item);
                 }
             }
@@ -53,7 +72,7 @@ public class PagingOperator<T> implements BiFunction<Publisher<T>, CoreSubscribe
             @Override
             public void onSubscribe(Subscription subscription) {
                 if (!isDisposed(child)) {
-                    child.onSubscribe(subscription);
+                    child.onSubscribe(new ExtraRecordSubscription(subscription));
                 }
             }
 
@@ -62,4 +81,34 @@ public class PagingOperator<T> implements BiFunction<Publisher<T>, CoreSubscribe
             }
         };
     }
+
+    /**
+     * Requests the extra record, which is never passed on, once the subscriber has requested the whole page. Otherwise
+     * a source respecting backpressure would never emit it, and the paging would never complete.
+     */
+    private class ExtraRecordSubscription implements Subscription {
+        private final Subscription subscription;
+        private       long         requested;
+        private       boolean      extraRequested;
+
+        private ExtraRecordSubscription(Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void request(long count) {
+            requested = Operators.addCap(requested, count);
+            if (!extraRequested && requested >= limit) {
+                extraRequested = true;
+                subscription.request(Operators.addCap(count, 1));
+                return;
+            }
+            subscription.request(count);
+        }
+
+        @Override
+        public void cancel() {
+            subscription.cancel();
+        }
+    }
 }
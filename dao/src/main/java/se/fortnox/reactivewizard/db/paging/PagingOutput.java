@@ -5,6 +5,7 @@ import se.fortnox.reactivewizard.CollectionOptions;
 import se.fortnox.reactivewizard.db.Query;
 
 import java.lang.reflect.Method;
+import java.util.function.Function;
 
 import static com.google.common.collect.Iterables.indexOf;
 import static java.lang.Math.min;
@@ -15,6 +16,7 @@ public class PagingOutput {
     private final int index;
     private final int defaultLimit;
     private final int maxLimit;
+    private final Function<Object, String> cursorEncoder;
 
     public PagingOutput(Method method) {
         index = indexOf(asList(method.getParameterTypes()), CollectionOptions.class::isAssignableFrom);
@@ -27,6 +29,8 @@ public class PagingOutput {
             defaultLimit = 100;
             maxLimit = 1000;
         }
+        KeysetCursor keysetCursor = index == -1 ? null : KeysetCursor.create(method);
+        cursorEncoder = keysetCursor == null ? null : keysetCursor::encode;
     }
 
     /**
@@ -52,6 +56,7 @@ public class PagingOutput {
         }
 
         collectionOptions.setLimit(min(maxLimit, collectionOptions.getLimit()));
-        return result.transformDeferred(liftPublisher(new PagingOperator(collectionOptions)));
+        PagingOperator<T> pagingOperator = new PagingOperator<>(collectionOptions, cursorEncoder);
+        return result.transformDeferred(liftPublisher((PagingOperator)pagingOperator));
     }
 }
@@ -0,0 +1,93 @@
+package se.fortnox.reactivewizard.db.query;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Writes parameters as the fields of a line in the csv format of PostgreSQL COPY, instead of setting them on a
+ * statement. Null is an unquoted empty field, every other value is quoted.
+ */
+public class CsvParameters extends PreparedStatementParameters {
+    private final StringBuilder line = new StringBuilder();
+    private       int           fields;
+
+    public CsvParameters() {
+        super(null);
+    }
+
+    @Override
+    public void addNull() {
+        addField(null);
+    }
+
+    @Override
+    public void addObject(Object value) {
+        if (value instanceof byte[] bytes) {
+            addField("\\x" + HexFormat.of().formatHex(bytes));
+            return;
+        }
+        addField(value == null ? null : value.toString());
+    }
+
+    @Override
+    public void addArray(String listElementType, List<?> list) {
+        StringBuilder array = new StringBuilder("{");
+        for (Object element : list) {
+            if (array.length() > 1) {
+                array.append(',');
+            }
+            if (element == null) {
+                array.append("NULL");
+            } else {
+                array.append('"')
+                    .append(element.toString().replace("\\", "\\\\").replace("\"", "\\\""))
+                    .append('"');
+            }
+        }
+        addField(array.append('}').toString());
+    }
+
+    @Override
+    public void addTimestamp(Timestamp timestamp, Calendar calendar) {
+        addField(timestamp.toInstant().toString());
+    }
+
+    @Override
+    public void addTimestamp(Timestamp timestamp) {
+        addField(timestamp.toString());
+    }
+
+    @Override
+    public void addDate(Date sqlDate) {
+        addField(sqlDate.toString());
+    }
+
+    @Override
+    public void addTime(Time sqlTime) {
+        addField(sqlTime.toString());
+    }
+
+    /**
+     * Get the line of the fields added since the last call, and start a new line.
+     * @return the line, ending with a newline
+     */
+    public String nextLine() {
+        String result = line.append('\n').toString();
+        line.setLength(0);
+        fields = 0;
+        return result;
+    }
+
+    private void addField(String value) {
+        if (fields++ > 0) {
+            line.append(',');
+        }
+        if (value != null) {
+            line.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+}
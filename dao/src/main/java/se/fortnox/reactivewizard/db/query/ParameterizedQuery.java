@@ -5,6 +5,8 @@ import se.fortnox.reactivewizard.db.query.parts.DynamicQueryPart;
 import se.fortnox.reactivewizard.db.query.parts.ParamQueryPart;
 import se.fortnox.reactivewizard.db.query.parts.QueryPart;
 import se.fortnox.reactivewizard.db.query.parts.StaticQueryPart;
+import se.fortnox.reactivewizard.db.query.parts.ValuesQueryPart;
+import se.fortnox.reactivewizard.util.ReflectionUtil;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
@@ -14,9 +16,12 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -24,12 +29,53 @@ public class ParameterizedQuery {
 
     public static final Pattern NAMED_PARAMETER_PATTERN = Pattern.compile("(?<!:):([\\w\\.]+)");
 
-    private final List<QueryPart> queryParts;
-    private final String          sql;
+    /**
+     * The maximum number of parameters of a statement, as limited by the PostgreSQL protocol.
+     */
+    static final int MAX_PARAMETERS = 32767;
+
+    private static final Pattern VALUES_PATTERN = Pattern.compile("(?i)\\bVALUES\\s*\\(");
+
+    private final List<QueryPart>            queryParts;
+    private final String                     sql;
+    private final CollectionOptionsQueryPart collectionOptionsQueryPart;
+    private final String                     staticSql;
+    private final ValuesQueryPart            valuesQueryPart;
+    private final int                        rowsPerStatement;
 
     public ParameterizedQuery(String sql, Method method) throws SQLException {
         this.sql = sql;
         this.queryParts = createQueryParts(sql, method);
+        this.collectionOptionsQueryPart = (CollectionOptionsQueryPart)queryParts.get(queryParts.size() - 1);
+        this.staticSql = createStaticSql(queryParts.subList(0, queryParts.size() - 1));
+        this.valuesQueryPart = (ValuesQueryPart)queryParts.stream()
+            .filter(ValuesQueryPart.class::isInstance)
+            .findFirst()
+            .orElse(null);
+        this.rowsPerStatement = valuesQueryPart == null ? 0 : rowsPerStatement(queryParts, valuesQueryPart);
+    }
+
+    /**
+     * The number of rows of a VALUES list that fit in the parameters of one statement, next to the other parameters
+     * and the limit and offset of paging.
+     */
+    private static int rowsPerStatement(List<QueryPart> parts, ValuesQueryPart valuesQueryPart) {
+        long otherParams = parts.stream().filter(DynamicQueryPart.class::isInstance).count() + 2;
+        return Math.max(1, (int)((MAX_PARAMETERS - otherParams) / Math.max(1, valuesQueryPart.getParamsPerRow())));
+    }
+
+    /**
+     * Build the sql of the parts once, if it does not depend on the arguments.
+     */
+    private static String createStaticSql(List<QueryPart> parts) {
+        StringBuilder sql = new StringBuilder();
+        for (QueryPart part : parts) {
+            if (!part.isStatic()) {
+                return null;
+            }
+            part.visit(sql, null);
+        }
+        return sql.toString();
     }
 
     private List<QueryPart> createQueryParts(String sqlInput, Method method) throws SQLException {
@@ -42,6 +88,22 @@ public class ParameterizedQuery {
             throw new RuntimeException("Unnamed parameters are not supported: " + sqlInput);
         }
 
+        Map<String, Integer> listArguments = findListArguments(method);
+        int[]                values        = findValuesRow(sqlInput, listArguments.keySet());
+        if (values == null) {
+            addQueryParts(sqlInput, parts, queryArguments);
+        } else {
+            addQueryParts(sqlInput.substring(0, values[0]), parts, queryArguments);
+            parts.add(createValuesQueryPart(sqlInput.substring(values[0], values[1]), method, listArguments, queryArguments));
+            addQueryParts(sqlInput.substring(values[1]), parts, queryArguments);
+        }
+        parts.add(new CollectionOptionsQueryPart(method));
+
+        return parts;
+    }
+
+    private void addQueryParts(String sqlInput, List<QueryPart> parts, Map<String, DynamicQueryPart> queryArguments)
+        throws SQLException {
         int     pos     = 0;
         Matcher matcher = NAMED_PARAMETER_PATTERN.matcher(sqlInput);
         if (matcher.find()) {
@@ -54,9 +116,93 @@ public class ParameterizedQuery {
             while (matcher.find());
         }
         parts.add(new StaticQueryPart(sqlInput.substring(pos, sqlInput.length())));
-        parts.add(new CollectionOptionsQueryPart(method));
+    }
 
-        return parts;
+    /**
+     * Find the row of a VALUES clause referring to properties of the elements of a list argument, such as
+     * {@code VALUES (:rows.id, :rows.name)}.
+     *
+     * @return the start and end of the row, or null if there is no such row
+     */
+    private static int[] findValuesRow(String sqlInput, Set<String> listArguments) {
+        if (listArguments.isEmpty()) {
+            return null;
+        }
+        Matcher valuesMatcher = VALUES_PATTERN.matcher(sqlInput);
+        while (valuesMatcher.find()) {
+            int start = valuesMatcher.end() - 1;
+            int end   = findClosingParenthesis(sqlInput, start);
+            if (end == -1) {
+                return null;
+            }
+            Matcher paramMatcher = NAMED_PARAMETER_PATTERN.matcher(sqlInput.substring(start, end));
+            while (paramMatcher.find()) {
+                String[] paramNameParts = paramMatcher.group(1).split("\\.");
+                if (paramNameParts.length > 1 && listArguments.contains(paramNameParts[0])) {
+                    return new int[]{start, end};
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int findClosingParenthesis(String sqlInput, int start) {
+        int     depth   = 0;
+        boolean literal = false;
+        for (int i = start; i < sqlInput.length(); i++) {
+            char character = sqlInput.charAt(i);
+            if (character == '\'') {
+                literal = !literal;
+            } else if (!literal && character == '(') {
+                depth++;
+            } else if (!literal && character == ')' && --depth == 0) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private ValuesQueryPart createValuesQueryPart(String row, Method method, Map<String, Integer> listArguments,
+        Map<String, DynamicQueryPart> queryArguments
+    ) throws SQLException {
+        List<QueryPart> rowParts     = new ArrayList<>();
+        String          listArgument = null;
+        int             pos          = 0;
+        Matcher         matcher      = NAMED_PARAMETER_PATTERN.matcher(row);
+        while (matcher.find()) {
+            rowParts.add(new StaticQueryPart(row.substring(pos, matcher.start(1) - 1)));
+            String[] paramNameParts = matcher.group(1).split("\\.");
+            if (paramNameParts.length > 1 && listArguments.containsKey(paramNameParts[0])) {
+                if (listArgument != null && !listArgument.equals(paramNameParts[0])) {
+                    throw new RuntimeException("A row of VALUES can only refer to the elements of one list: " + row);
+                }
+                listArgument = paramNameParts[0];
+                Type elementType = ReflectionUtil.getGenericParameter(
+                    method.getGenericParameterTypes()[listArguments.get(listArgument)]);
+                rowParts.add(createParamQueryPart(method.getParameterCount(), elementType)
+                    .subPath(Arrays.copyOfRange(paramNameParts, 1, paramNameParts.length)));
+            } else {
+                rowParts.add(getDynamicQueryPart(matcher.group(1), queryArguments));
+            }
+            pos = matcher.end(1);
+        }
+        rowParts.add(new StaticQueryPart(row.substring(pos)));
+        return new ValuesQueryPart(listArguments.get(listArgument), rowParts);
+    }
+
+    private static Map<String, Integer> findListArguments(Method method) {
+        Parameter[]          parameters    = method.getParameters();
+        Map<String, Integer> listArguments = new HashMap<>();
+        for (int i = 0; i < parameters.length; i++) {
+            if (List.class.isAssignableFrom(parameters[i].getType())) {
+                listArguments.put(parameterName(parameters[i], i), i);
+            }
+        }
+        return listArguments;
+    }
+
+    private static String parameterName(Parameter parameter, int index) {
+        return parameter.isNamePresent() ? parameter.getName() : "param" + index;
     }
 
     private Map<String, DynamicQueryPart> createQueryArguments(Method method) throws SQLException {
@@ -64,8 +210,7 @@ public class ParameterizedQuery {
         Parameter[]                   parameters     = method.getParameters();
         Map<String, DynamicQueryPart> queryArguments = new LinkedHashMap<>();
         for (int i = 0; i < parameters.length; i++) {
-            String name = parameters[i].isNamePresent() ? parameters[i].getName() : "param" + i;
-            queryArguments.put(name, createParamQueryPart(i, parameterTypes[i]));
+            queryArguments.put(parameterName(parameters[i], i), createParamQueryPart(i, parameterTypes[i]));
         }
         return queryArguments;
     }
@@ -104,12 +249,87 @@ public class ParameterizedQuery {
      */
     public PreparedStatement createStatement(Connection connection, Object[] arguments, Integer options)
         throws SQLException {
+        return createPreparedStatement(connection, options, createSql(arguments));
+    }
+
+    /**
+     * Create an R2DBC statement with the parameters bound. The parameters are written as the indexed bind markers
+     * {@code $1, $2, ...} of R2DBC.
+     * @param connection the connection
+     * @param arguments the arguments
+     * @return the statement
+     * @throws SQLException on error
+     */
+    public io.r2dbc.spi.Statement createStatement(io.r2dbc.spi.Connection connection, Object[] arguments) throws SQLException {
+        io.r2dbc.spi.Statement statement = connection.createStatement(toIndexedBindMarkers(createSql(arguments)));
+        addParameters(arguments, new R2dbcParameters(statement));
+        return statement;
+    }
+
+    /**
+     * Replace the parameters of the sql with indexed bind markers. Every question mark is a parameter, since unnamed
+     * parameters are not allowed in the sql of a dao method.
+     */
+    private static String toIndexedBindMarkers(String sql) {
+        StringBuilder indexed   = new StringBuilder(sql.length() + 16);
+        int           parameter = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char character = sql.charAt(i);
+            if (character == '?') {
+                indexed.append('$').append(++parameter);
+            } else {
+                indexed.append(character);
+            }
+        }
+        return indexed.toString();
+    }
+
+    private String createSql(Object[] arguments) {
+        if (staticSql != null) {
+            return collectionOptionsQueryPart.sql(staticSql, arguments);
+        }
         StringBuilder sql = new StringBuilder();
         for (QueryPart part : queryParts) {
             part.visit(sql, arguments);
         }
+        return sql.toString();
+    }
 
-        return createPreparedStatement(connection, options, sql.toString());
+    /**
+     * Whether the query has a VALUES row repeated per element of a list argument, in which case the sql depends on the
+     * size of the list. Such a query must be executed through {@link #split(Object[])}, which is only done for updates.
+     *
+     * @return true if the query has a list of VALUES
+     */
+    public boolean hasValuesList() {
+        return valuesQueryPart != null;
+    }
+
+    /**
+     * Split the arguments into the arguments of separate statements, when a list of VALUES has more rows than fit in
+     * the parameters of one statement.
+     *
+     * @param args the arguments
+     * @return the arguments of each statement, which are none if the list of VALUES is empty or null
+     */
+    public List<Object[]> split(Object[] args) {
+        if (valuesQueryPart == null) {
+            return Collections.singletonList(args);
+        }
+        List<?> rows = (List<?>)args[valuesQueryPart.getListArgIndex()];
+        if (rows == null || rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (rows.size() <= rowsPerStatement) {
+            return Collections.singletonList(args);
+        }
+        List<Object[]> statements = new ArrayList<>();
+        for (int from = 0; from < rows.size(); from += rowsPerStatement) {
+            Object[] statementArgs = args.clone();
+            statementArgs[valuesQueryPart.getListArgIndex()] = rows.subList(from, Math.min(rows.size(), from + rowsPerStatement));
+            statements.add(statementArgs);
+        }
+        return statements;
     }
 
     /**
@@ -119,7 +339,10 @@ public class ParameterizedQuery {
      * @throws SQLException on error
      */
     public void addParameters(Object[] args, PreparedStatement preparedStatement) throws SQLException {
-        PreparedStatementParameters parameters = new PreparedStatementParameters(preparedStatement);
+        addParameters(args, new PreparedStatementParameters(preparedStatement));
+    }
+
+    private void addParameters(Object[] args, PreparedStatementParameters parameters) throws SQLException {
         for (QueryPart part : queryParts) {
             part.addParams(parameters, args);
         }
@@ -22,6 +22,15 @@ public class PreparedStatementParameters {
         preparedStatement.setNull(parameterIndex++, java.sql.Types.NULL);
     }
 
+    /**
+     * Add null parameter, of a parameter that would otherwise be bound as a value of the type.
+     * @param type the type of the values of the parameter
+     * @throws SQLException on error
+     */
+    public void addNull(Class<?> type) throws SQLException {
+        addNull();
+    }
+
     public void addObject(Object value) throws SQLException {
         preparedStatement.setObject(parameterIndex++, value);
     }
@@ -0,0 +1,63 @@
+package se.fortnox.reactivewizard.db.query;
+
+import io.r2dbc.spi.Statement;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Binds parameters to an R2DBC statement, instead of setting them on a JDBC statement. Dates and times are bound as
+ * the java.time types that R2DBC drivers support.
+ */
+public class R2dbcParameters extends PreparedStatementParameters {
+    private final Statement statement;
+    private       int       parameterIndex;
+
+    public R2dbcParameters(Statement statement) {
+        super(null);
+        this.statement = statement;
+    }
+
+    @Override
+    public void addNull() {
+        addNull(Object.class);
+    }
+
+    @Override
+    public void addNull(Class<?> type) {
+        statement.bindNull(parameterIndex++, type);
+    }
+
+    @Override
+    public void addObject(Object value) {
+        statement.bind(parameterIndex++, value);
+    }
+
+    @Override
+    public void addArray(String listElementType, List<?> list) {
+        statement.bind(parameterIndex++, list.toArray());
+    }
+
+    @Override
+    public void addTimestamp(Timestamp timestamp, Calendar calendar) {
+        statement.bind(parameterIndex++, timestamp.toInstant());
+    }
+
+    @Override
+    public void addTimestamp(Timestamp timestamp) {
+        statement.bind(parameterIndex++, timestamp.toLocalDateTime());
+    }
+
+    @Override
+    public void addDate(Date sqlDate) {
+        statement.bind(parameterIndex++, sqlDate.toLocalDate());
+    }
+
+    @Override
+    public void addTime(Time sqlTime) {
+        statement.bind(parameterIndex++, sqlTime.toLocalTime());
+    }
+}
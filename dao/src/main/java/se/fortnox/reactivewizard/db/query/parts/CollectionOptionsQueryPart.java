@@ -2,75 +2,123 @@ package se.fortnox.reactivewizard.db.query.parts;
 
 import se.fortnox.reactivewizard.CollectionOptions;
 import se.fortnox.reactivewizard.db.Query;
+import se.fortnox.reactivewizard.db.paging.KeysetCursor;
 import se.fortnox.reactivewizard.db.query.PreparedStatementParameters;
 import se.fortnox.reactivewizard.util.CamelSnakeConverter;
 
 import java.lang.reflect.Method;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.collect.Iterables.indexOf;
 import static java.util.Arrays.asList;
 
+/**
+ * Adds ordering and paging from a {@link CollectionOptions} argument to a query. The limit and offset are bound as
+ * parameters, so that the sql only depends on the ordering and whether there is an offset.
+ * <p>
+ * Queries declaring a {@link Query#keyset()} are instead paged by the values of the key columns of the cursor of the
+ * options, so that the cost of a page does not depend on how deep it is.
+ */
 public class CollectionOptionsQueryPart implements QueryPart {
-    private static final String ORDER_BY = "ORDER BY ";
-    private final        int    collectionOptionsArgIndex;
-    private final        Query  queryAnnotation;
+    private static final String       ORDER_BY = "ORDER BY ";
+    private final        int          collectionOptionsArgIndex;
+    private final        Query        queryAnnotation;
+    private final        KeysetCursor keysetCursor;
+
+    /**
+     * Sql per shape, for {@link #sql(String, Object[])}. The number of shapes is bounded by the allowed sort columns
+     * of the query.
+     */
+    private final Map<SqlShape, String> sqlCache = new ConcurrentHashMap<>();
 
     public CollectionOptionsQueryPart(Method method) {
         collectionOptionsArgIndex = indexOf(asList(method.getParameterTypes()), CollectionOptions.class::isAssignableFrom);
 
         queryAnnotation = method.getDeclaredAnnotation(Query.class);
+        keysetCursor = isActive() ? KeysetCursor.create(method) : null;
+    }
+
+    private boolean isActive() {
+        return collectionOptionsArgIndex != -1 && queryAnnotation != null;
     }
 
     @Override
     public void visit(StringBuilder sql, Object[] args) {
-        if (collectionOptionsArgIndex != -1 && queryAnnotation != null) {
-            CollectionOptions collectionOptions           = (CollectionOptions)args[collectionOptionsArgIndex];
-            boolean           collectionOptionsHasOrderBy = false;
-            Integer           limit                       = null;
-            Integer           offset                      = null;
-            if (collectionOptions != null) {
-                if (collectionOptions.getSortBy() != null) {
-                    String sortBy = CamelSnakeConverter.camelToSnake(collectionOptions.getSortBy());
-                    for (String allowed : queryAnnotation.allowedSortColumns()) {
-                        if (allowed.equals(sortBy)) {
-                            collectionOptionsHasOrderBy = true;
-                            addOrderBy(sql, buildOrderBy(collectionOptions.getOrder(), allowed));
-                            break;
-                        }
-                    }
+        if (isActive()) {
+            String precedingSql = sql.toString();
+            sql.setLength(0);
+            sql.append(buildSql(shape(args), precedingSql));
+        }
+    }
+
+    /**
+     * Return the sql of a query whose sql preceding this part is the same on every call. The result is cached per
+     * ordering and presence of an offset.
+     *
+     * @param precedingSql the sql preceding this part, which must be the same on every call
+     * @param args the arguments of the query
+     * @return the sql of the query
+     */
+    public String sql(String precedingSql, Object[] args) {
+        if (!isActive()) {
+            return precedingSql;
+        }
+        return sqlCache.computeIfAbsent(shape(args), shape -> buildSql(shape, precedingSql));
+    }
+
+    private SqlShape shape(Object[] args) {
+        CollectionOptions collectionOptions = (CollectionOptions)args[collectionOptionsArgIndex];
+        if (keysetCursor != null) {
+            boolean hasCursor  = collectionOptions != null && collectionOptions.getCursor() != null;
+            boolean descending = collectionOptions != null && collectionOptions.getOrder() == CollectionOptions.SortOrder.DESC;
+            return new SqlShape(null, false, hasCursor, descending);
+        }
+        String            orderBy           = null;
+        if (collectionOptions != null && collectionOptions.getSortBy() != null) {
+            String sortBy = CamelSnakeConverter.camelToSnake(collectionOptions.getSortBy());
+            for (String allowed : queryAnnotation.allowedSortColumns()) {
+                if (allowed.equals(sortBy)) {
+                    orderBy = buildOrderBy(collectionOptions.getOrder(), allowed);
+                    break;
                 }
-                limit = collectionOptions.getLimit();
-                offset = collectionOptions.getOffset();
             }
+        }
 
-            if (!collectionOptionsHasOrderBy && !queryAnnotation.defaultSort().isEmpty()) {
-                addOrderBy(sql, queryAnnotation.defaultSort());
-            }
+        if (orderBy == null && !queryAnnotation.defaultSort().isEmpty()) {
+            orderBy = queryAnnotation.defaultSort();
+        }
 
-            if (limit == null || limit < 0) {
-                limit = queryAnnotation.defaultLimit();
-            }
-            if (limit > queryAnnotation.maxLimit()) {
-                limit = queryAnnotation.maxLimit();
-            }
+        return new SqlShape(orderBy, getOffset(collectionOptions) != null, false, false);
+    }
 
-            // Add 1 to limit, to get one more record than requested, so
-            // that we know for sure if there are more records, in case we
-            // get exactly the same amount back as was requested. The extra
-            // record is thrown away in PagingResponseProcessor
-            limit = limit + 1;
-            sql.append(" LIMIT ");
-            sql.append(limit);
-
-            if (offset != null && offset > 0) {
-                sql.append(" OFFSET ");
-                sql.append(offset);
-            }
+    private int getLimit(CollectionOptions collectionOptions) {
+        Integer limit = collectionOptions == null ? null : collectionOptions.getLimit();
+        if (limit == null || limit < 0) {
+            limit = queryAnnotation.defaultLimit();
+        }
+        if (limit > queryAnnotation.maxLimit()) {
+            limit = queryAnnotation.maxLimit();
         }
+
+        // Add 1 to limit, to get one more record than requested, so
+        // that we know for sure if there are more records, in case we
+        // get exactly the same amount back as was requested. The extra
+        // record is thrown away in PagingResponseProcessor
+        return limit + 1;
     }
 
-    private String buildOrderBy(CollectionOptions.SortOrder order, String column) {
+    private static Integer getOffset(CollectionOptions collectionOptions) {
+        if (collectionOptions == null) {
+            return null;
+        }
+        Integer offset = collectionOptions.getOffset();
+        return offset != null && offset > 0 ? offset : null;
+    }
+
+    private static String buildOrderBy(CollectionOptions.SortOrder order, String column) {
         StringBuilder orderBy = new StringBuilder(column);
         if (order != null) {
             orderBy.append(" ");
@@ -79,7 +127,7 @@ public class CollectionOptionsQueryPart implements QueryPart {
         return orderBy.toString();
     }
 
-    private void addOrderBy(StringBuilder sql, String orderBy) {
+    private static void addOrderBy(StringBuilder sql, String orderBy) {
         StringBuilder orderByClause = new StringBuilder(orderBy);
         int           pos           = sql.toString().toUpperCase().lastIndexOf(ORDER_BY);
         if (pos != -1) {
@@ -95,5 +143,64 @@ public class CollectionOptionsQueryPart implements QueryPart {
 
     @Override
     public void addParams(PreparedStatementParameters preparedStatement, Object[] args) throws SQLException {
+        if (isActive()) {
+            CollectionOptions collectionOptions = (CollectionOptions)args[collectionOptionsArgIndex];
+            if (keysetCursor != null) {
+                if (collectionOptions != null && collectionOptions.getCursor() != null) {
+                    for (Object value : keysetCursor.decode(collectionOptions.getCursor())) {
+                        preparedStatement.addObject(value);
+                    }
+                }
+                preparedStatement.addObject(getLimit(collectionOptions));
+                return;
+            }
+            preparedStatement.addObject(getLimit(collectionOptions));
+            Integer offset = getOffset(collectionOptions);
+            if (offset != null) {
+                preparedStatement.addObject(offset);
+            }
+        }
+    }
+
+    private String buildSql(SqlShape shape, String precedingSql) {
+        if (keysetCursor != null) {
+            return buildKeysetSql(shape, precedingSql);
+        }
+        StringBuilder sql = new StringBuilder(precedingSql);
+        if (shape.orderBy() != null) {
+            addOrderBy(sql, shape.orderBy());
+        }
+        sql.append(" LIMIT ?");
+        if (shape.hasOffset()) {
+            sql.append(" OFFSET ?");
+        }
+        return sql.toString();
+    }
+
+    private String buildKeysetSql(SqlShape shape, String precedingSql) {
+        String[]      columns = keysetCursor.getColumns();
+        StringBuilder sql     = new StringBuilder("SELECT * FROM (").append(precedingSql).append(") AS keyset");
+        if (shape.hasCursor()) {
+            sql.append(" WHERE (")
+                .append(String.join(", ", columns))
+                .append(shape.descending() ? ") < (" : ") > (")
+                .append(String.join(", ", Collections.nCopies(columns.length, "?")))
+                .append(")");
+        }
+        sql.append(" ").append(ORDER_BY);
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(columns[i]);
+            if (shape.descending()) {
+                sql.append(" DESC");
+            }
+        }
+        sql.append(" LIMIT ?");
+        return sql.toString();
+    }
+
+    private record SqlShape(String orderBy, boolean hasOffset, boolean hasCursor, boolean descending) {
     }
 }
@@ -25,6 +25,7 @@ public class ParamQueryPart implements DynamicQueryPart {
     protected final int                          argIndex;
     private final   PreparedStatementParamSetter paramSetter;
     private final   Function<Object,Object>      getter;
+    private final   Class<?>                     boundType;
 
     public ParamQueryPart(int argIndex, Type cls) throws SQLException {
         this(argIndex, ReflectionUtil.getPropertyResolver(cls, new String[0]).get());
@@ -39,6 +40,7 @@ public class ParamQueryPart implements DynamicQueryPart {
         this.argResolver = argResolver;
         this.getter = argResolver.getter();
         paramSetter = createParamSetter(argResolver.getPropertyGenericType());
+        boundType = boundType(argResolver.getPropertyGenericType());
     }
 
     @Override
@@ -46,11 +48,16 @@ public class ParamQueryPart implements DynamicQueryPart {
         sql.append("?");
     }
 
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+
     @Override
     public void addParams(PreparedStatementParameters parameters, Object[] args) throws SQLException {
         Object val = getValue(args);
         if (val == null) {
-            parameters.addNull();
+            parameters.addNull(boundType);
         } else {
             paramSetter.call(parameters, val);
         }
@@ -116,6 +123,21 @@ public class ParamQueryPart implements DynamicQueryPart {
         }
     }
 
+    /**
+     * The type of the values that the param setter binds, used to bind a null of the right type.
+     */
+    private Class<?> boundType(Type type) {
+        Class<?> rawType = ReflectionUtil.getRawType(type);
+        if (YearMonth.class.isAssignableFrom(rawType)) {
+            return Integer.class;
+        } else if (List.class.isAssignableFrom(rawType)) {
+            return getListElementType(type).isPresent() ? Object[].class : String.class;
+        } else if (rawType.isEnum() || Map.class.isAssignableFrom(rawType)) {
+            return String.class;
+        }
+        return rawType;
+    }
+
     private Optional<String> getListElementType(Type type) {
         Class genericParam = ReflectionUtil.getGenericParameter(type);
         if (genericParam.equals(String.class) || genericParam.isEnum()) {
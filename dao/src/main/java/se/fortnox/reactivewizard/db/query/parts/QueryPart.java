@@ -9,4 +9,14 @@ public interface QueryPart {
     void visit(StringBuilder sql, Object[] args);
 
     void addParams(PreparedStatementParameters preparedStatement, Object[] args) throws SQLException;
+
+    /**
+     * Whether {@link #visit(StringBuilder, Object[])} appends the same sql regardless of the arguments, which lets the
+     * sql of a query be built once instead of on every call.
+     *
+     * @return true if the sql of this part does not depend on the arguments
+     */
+    default boolean isStatic() {
+        return false;
+    }
 }
@@ -19,4 +19,9 @@ public class StaticQueryPart implements QueryPart {
     public void addParams(PreparedStatementParameters preparedStatement, Object[] args) {
 
     }
+
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
 }
@@ -0,0 +1,63 @@
+package se.fortnox.reactivewizard.db.query.parts;
+
+import se.fortnox.reactivewizard.db.query.PreparedStatementParameters;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A row of a VALUES clause repeated for every element of a list argument, such as
+ * {@code VALUES (:rows.id, :rows.name)}. Parameters referring to the elements are resolved per element, other
+ * parameters are bound once per row.
+ */
+public class ValuesQueryPart implements QueryPart {
+    private final int             listArgIndex;
+    private final List<QueryPart> rowParts;
+    private final int             paramsPerRow;
+
+    /**
+     * Create a row repeated per element.
+     *
+     * @param listArgIndex the index of the list argument
+     * @param rowParts     the parts of the row, where element parameters read the element from the argument following
+     *                     the arguments of the method
+     */
+    public ValuesQueryPart(int listArgIndex, List<QueryPart> rowParts) {
+        this.listArgIndex = listArgIndex;
+        this.rowParts = rowParts;
+        this.paramsPerRow = (int)rowParts.stream().filter(DynamicQueryPart.class::isInstance).count();
+    }
+
+    public int getListArgIndex() {
+        return listArgIndex;
+    }
+
+    public int getParamsPerRow() {
+        return paramsPerRow;
+    }
+
+    @Override
+    public void visit(StringBuilder sql, Object[] args) {
+        List<?> rows = (List<?>)args[listArgIndex];
+        for (int i = 0; i < rows.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            for (QueryPart part : rowParts) {
+                part.visit(sql, args);
+            }
+        }
+    }
+
+    @Override
+    public void addParams(PreparedStatementParameters preparedStatement, Object[] args) throws SQLException {
+        Object[] rowArgs = Arrays.copyOf(args, args.length + 1);
+        for (Object row : (List<?>)args[listArgIndex]) {
+            rowArgs[args.length] = row;
+            for (QueryPart part : rowParts) {
+                part.addParams(preparedStatement, rowArgs);
+            }
+        }
+    }
+}
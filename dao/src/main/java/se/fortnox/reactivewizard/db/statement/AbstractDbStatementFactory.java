@@ -1,5 +1,6 @@
 package se.fortnox.reactivewizard.db.statement;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import se.fortnox.reactivewizard.db.query.ParameterizedQuery;
 
@@ -17,6 +18,17 @@ public abstract class AbstractDbStatementFactory implements DbStatementFactory {
     protected abstract void executeStatement(Connection connection, Object[] args, FluxSink<?> fluxSink)
             throws SQLException;
 
+    /**
+     * Execute the statement of some arguments on an R2DBC connection.
+     *
+     * @param connection the connection
+     * @param args       the arguments
+     * @return the results, which are executed when subscribed to
+     */
+    protected Flux<Object> executeStatement(io.r2dbc.spi.Connection connection, Object[] args) {
+        return Flux.error(new UnsupportedOperationException("Statement cannot be executed on an R2DBC connection: " + this));
+    }
+
     protected PreparedStatement batch(Connection connection, PreparedStatement preparedStatement, Object[] args) throws SQLException {
         throw new UnsupportedOperationException();
     }
@@ -50,6 +62,11 @@ public abstract class AbstractDbStatementFactory implements DbStatementFactory {
             executeStatement(connection, args, fluxSink);
         }
 
+        @Override
+        public Flux<Object> execute(io.r2dbc.spi.Connection connection) {
+            return executeStatement(connection, args);
+        }
+
         @Override
         public PreparedStatement batch(Connection connection, PreparedStatement preparedStatement) throws SQLException {
             return AbstractDbStatementFactory.this.batch(connection, preparedStatement, args);
@@ -77,13 +94,13 @@ public abstract class AbstractDbStatementFactory implements DbStatementFactory {
 
         @Override
         public void onError(Throwable throwable) {
-            if (fluxSink != null) {
+            if (fluxSink != null && !fluxSink.isCancelled()) {
                 fluxSink.error(throwable);
             }
         }
 
         @Override
-        public void setFluxSink(FluxSink<?> fluxSink) {
+        public void setFluxSink(FluxSink<Object> fluxSink) {
             this.fluxSink = fluxSink;
         }
     }
@@ -1,8 +1,16 @@
 package se.fortnox.reactivewizard.db.statement;
 
+import io.r2dbc.spi.Result;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import se.fortnox.reactivewizard.db.query.ParameterizedQuery;
 
+import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 public abstract class AbstractUpdateStatementFactory extends AbstractDbStatementFactory {
     private final int minimumAffected;
@@ -12,8 +20,80 @@ public abstract class AbstractUpdateStatementFactory extends AbstractDbStatement
         this.minimumAffected = minimumAffected;
     }
 
+    /**
+     * Execute one statement per arguments split by {@link ParameterizedQuery#split(Object[])}. Several statements are
+     * executed in one transaction, unless they are already part of one.
+     *
+     * @param connection the connection
+     * @param args       the arguments
+     * @param execution  executes the statement of some arguments
+     * @return the sum of the update counts
+     * @throws SQLException on error
+     */
+    protected int executeSplit(Connection connection, Object[] args, Execution execution) throws SQLException {
+        List<Object[]> statements = parameterizedQuery.split(args);
+        if (statements.size() == 1) {
+            return execution.execute(statements.get(0));
+        }
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        int count = 0;
+        try {
+            for (Object[] statementArgs : statements) {
+                count += execution.execute(statementArgs);
+            }
+            if (autoCommit) {
+                connection.commit();
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit) {
+                connection.rollback();
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Execute one R2DBC statement per arguments split by {@link ParameterizedQuery#split(Object[])}, one after the
+     * other. Several statements are executed in one transaction, unless they are already part of one.
+     *
+     * @param connection the connection
+     * @param args       the arguments
+     * @param prepare    prepares the statement of some arguments before it is executed
+     * @param consumer   consumes a result of a statement, before the next statement is executed
+     * @param <T>        the type of the values of the results
+     * @return the values of the results
+     */
+    protected <T> Flux<T> executeSplit(io.r2dbc.spi.Connection connection, Object[] args,
+        UnaryOperator<io.r2dbc.spi.Statement> prepare, Function<Result, Publisher<T>> consumer
+    ) {
+        List<Object[]> statements = parameterizedQuery.split(args);
+        Flux<T> results = Flux.fromIterable(statements).concatMap(statementArgs -> Flux.defer(() -> {
+            try {
+                return Flux.from(prepare.apply(parameterizedQuery.createStatement(connection, statementArgs)).execute());
+            } catch (SQLException e) {
+                return Flux.error(e);
+            }
+        }).concatMap(consumer));
+        if (statements.size() == 1 || !connection.isAutoCommit()) {
+            return results;
+        }
+        return Mono.from(connection.beginTransaction())
+            .thenMany(results)
+            .concatWith(Mono.from(connection.commitTransaction()).then(Mono.empty()))
+            .onErrorResume(e -> Mono.from(connection.rollbackTransaction()).then(Mono.error(e)));
+    }
+
     protected void ensureMinimumReached(int updateCount) throws SQLException {
-        if (updateCount < minimumAffected) {
+        // A driver may execute a batch without counting the rows of each statement, e.g. when rewriting it into one
+        if (updateCount < minimumAffected && updateCount != java.sql.Statement.SUCCESS_NO_INFO) {
             throw new MinimumAffectedRowsException(minimumAffected, updateCount, toString());
         }
     }
@@ -22,4 +102,8 @@ public abstract class AbstractUpdateStatementFactory extends AbstractDbStatement
     public String toString() {
         return parameterizedQuery.toString();
     }
+
+    protected interface Execution {
+        int execute(Object[] args) throws SQLException;
+    }
 }
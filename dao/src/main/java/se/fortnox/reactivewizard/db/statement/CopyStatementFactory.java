@@ -0,0 +1,283 @@
+package se.fortnox.reactivewizard.db.statement;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+import se.fortnox.reactivewizard.db.Copy;
+import se.fortnox.reactivewizard.db.query.CsvParameters;
+import se.fortnox.reactivewizard.db.query.PreparedStatementParameters;
+import se.fortnox.reactivewizard.db.query.parts.DynamicQueryPart;
+import se.fortnox.reactivewizard.db.query.parts.ParamQueryPart;
+import se.fortnox.reactivewizard.util.CamelSnakeConverter;
+import se.fortnox.reactivewizard.util.ReflectionUtil;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Creates statements inserting the rows of a {@link Copy} method. The PostgreSQL driver is used through reflection, so
+ * that it is not required when COPY is not used.
+ */
+public class CopyStatementFactory implements DbStatementFactory {
+    private static final Class<?> PG_CONNECTION;
+    private static final Method   GET_COPY_API;
+    private static final Method   COPY_IN;
+
+    static {
+        Class<?> pgConnection = null;
+        Method   getCopyApi   = null;
+        Method   copyIn       = null;
+        try {
+            pgConnection = Class.forName("org.postgresql.PGConnection");
+            getCopyApi = pgConnection.getMethod("getCopyAPI");
+            copyIn = getCopyApi.getReturnType().getMethod("copyIn", String.class, Reader.class);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // No PostgreSQL driver, rows are always inserted in batches
+            pgConnection = null;
+            getCopyApi = null;
+            copyIn = null;
+        }
+        PG_CONNECTION = pgConnection;
+        GET_COPY_API = getCopyApi;
+        COPY_IN = copyIn;
+    }
+
+    private final String                 copySql;
+    private final String                 insertSql;
+    private final List<DynamicQueryPart> columns = new ArrayList<>();
+    private final int                    batchSize;
+    private final boolean                returnsCount;
+
+    /**
+     * Create a factory of statements inserting rows.
+     * @param copy the annotation of the method
+     * @param method the method
+     * @throws SQLException if the columns cannot be mapped to properties of the rows
+     */
+    public CopyStatementFactory(Copy copy, Method method) throws SQLException {
+        Type[] parameterTypes = method.getGenericParameterTypes();
+        if (parameterTypes.length != 1 || !isRows(ReflectionUtil.getRawType(parameterTypes[0]))) {
+            throw new RuntimeException("@Copy method must take one Iterable or Publisher of rows: " + method);
+        }
+        Class<?> returnType = ReflectionUtil.getRawType(ReflectionUtil.getTypeOfObservable(method));
+        if (Long.class.isAssignableFrom(returnType)) {
+            returnsCount = true;
+        } else if (Void.class.isAssignableFrom(returnType)) {
+            returnsCount = false;
+        } else {
+            throw new RuntimeException("Unsupported return type for Copy");
+        }
+
+        ParamQueryPart row = new ParamQueryPart(0, ReflectionUtil.getGenericParameter(parameterTypes[0]));
+        for (String column : copy.columns()) {
+            columns.add(row.subPath(new String[]{CamelSnakeConverter.snakeToCamel(column)}));
+        }
+        String columnList = String.join(", ", copy.columns());
+        copySql = "COPY " + copy.table() + " (" + columnList + ") FROM STDIN WITH (FORMAT csv)";
+        insertSql = "INSERT INTO " + copy.table() + " (" + columnList + ") VALUES ("
+            + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+        batchSize = copy.batchSize();
+    }
+
+    private static boolean isRows(Class<?> type) {
+        return Iterable.class.isAssignableFrom(type) || Publisher.class.isAssignableFrom(type);
+    }
+
+    @Override
+    public Statement create(Object[] args) {
+        return new CopyStatement(args);
+    }
+
+    private long insertRows(Connection connection, Object[] args) throws SQLException {
+        Object rows = requireNonNull(args[0], "rows");
+        if (rows instanceof Publisher<?> publisher) {
+            // Rows of a Publisher are produced on a thread of their own, and handed over to the connection thread
+            // through the bounded queue of the stream, so that producing them never runs on, or waits for, a thread of
+            // DbProxy. Closing the stream cancels the Publisher, also when the rows could not all be inserted.
+            try (Stream<?> stream = Flux.from(publisher).subscribeOn(Schedulers.boundedElastic()).toStream(Math.max(batchSize, 1))) {
+                return copyOrInsert(connection, stream.iterator());
+            }
+        }
+        return copyOrInsert(connection, ((Iterable<?>)rows).iterator());
+    }
+
+    private long copyOrInsert(Connection connection, Iterator<?> rows) throws SQLException {
+        if (PG_CONNECTION != null && connection.isWrapperFor(PG_CONNECTION)) {
+            return copy(connection, rows);
+        }
+        return insert(connection, rows);
+    }
+
+    private long copy(Connection connection, Iterator<?> rows) throws SQLException {
+        try {
+            Object copyApi = GET_COPY_API.invoke(connection.unwrap(PG_CONNECTION));
+            return (Long)COPY_IN.invoke(copyApi, copySql, new CsvReader(rows));
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new SQLException("COPY failed: " + copySql, e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private long insert(Connection connection, Iterator<?> rows) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        long count = 0;
+        try {
+            try (PreparedStatement statement = connection.prepareStatement(insertSql)) {
+                int batched = 0;
+                while (rows.hasNext()) {
+                    addRow(new PreparedStatementParameters(statement), rows.next());
+                    statement.addBatch();
+                    count++;
+                    if (++batched == batchSize) {
+                        statement.executeBatch();
+                        batched = 0;
+                    }
+                }
+                if (batched > 0) {
+                    statement.executeBatch();
+                }
+            }
+            if (autoCommit) {
+                connection.commit();
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit) {
+                connection.rollback();
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+        return count;
+    }
+
+    private void addRow(PreparedStatementParameters parameters, Object row) throws SQLException {
+        Object[] args = {row};
+        for (DynamicQueryPart column : columns) {
+            column.addParams(parameters, args);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return copySql;
+    }
+
+    /**
+     * Reads rows as csv lines, converting each row when the previous one has been read.
+     */
+    private class CsvReader extends Reader {
+        private final Iterator<?>   rows;
+        private final CsvParameters csv      = new CsvParameters();
+        private       String        line     = "";
+        private       int           position;
+
+        private CsvReader(Iterator<?> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            while (position == line.length()) {
+                if (!rows.hasNext()) {
+                    return -1;
+                }
+                try {
+                    addRow(csv, rows.next());
+                } catch (SQLException e) {
+                    throw new IOException(e);
+                }
+                line = csv.nextLine();
+                position = 0;
+            }
+            int count = Math.min(length, line.length() - position);
+            line.getChars(position, position + count, buffer, offset);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private class CopyStatement implements Statement {
+        private final Object[]         args;
+        private       FluxSink<Object> fluxSink;
+
+        private CopyStatement(Object[] args) {
+            this.args = args;
+        }
+
+        @Override
+        public void execute(Connection connection) throws SQLException {
+            long count = insertRows(connection, args);
+            if (returnsCount && fluxSink != null) {
+                fluxSink.next(count);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            if (fluxSink != null) {
+                fluxSink.complete();
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (fluxSink != null) {
+                fluxSink.error(throwable);
+            }
+        }
+
+        @Override
+        public PreparedStatement batch(Connection connection, PreparedStatement preparedStatement) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void batchExecuted(int count) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean sameBatch(Statement statement) {
+            return false;
+        }
+
+        @Override
+        public void setFluxSink(FluxSink<Object> fluxSink) {
+            this.fluxSink = fluxSink;
+        }
+    }
+}
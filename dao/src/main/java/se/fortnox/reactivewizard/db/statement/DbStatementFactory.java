@@ -3,4 +3,23 @@ package se.fortnox.reactivewizard.db.statement;
 public interface DbStatementFactory {
 
     Statement create(Object[] args);
+
+    /**
+     * Whether statements only emit results as they are requested, in which case the results do not need to be
+     * buffered.
+     *
+     * @return true if the statements respect backpressure
+     */
+    default boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * Whether statements only read data and may run on a read replica when not part of a transaction.
+     *
+     * @return true if the statements may run on a replica
+     */
+    default boolean isReadOnly() {
+        return false;
+    }
 }
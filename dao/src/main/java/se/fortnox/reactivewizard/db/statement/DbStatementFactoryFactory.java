@@ -1,5 +1,6 @@
 package se.fortnox.reactivewizard.db.statement;
 
+import se.fortnox.reactivewizard.db.Copy;
 import se.fortnox.reactivewizard.db.GeneratedKey;
 import se.fortnox.reactivewizard.db.Query;
 import se.fortnox.reactivewizard.db.Update;
@@ -31,14 +32,26 @@ public class DbStatementFactoryFactory {
         Class<?> cls        = ReflectionUtil.getRawType(returnType);
         for (Annotation annotation : method.getAnnotations()) {
             if (annotation instanceof Query) {
-                Query queryAnnotation = (Query)annotation;
-                return new SelectStatementFactory(createParameterizedQuery(queryAnnotation.value(), method), cls);
+                Query              queryAnnotation    = (Query)annotation;
+                ParameterizedQuery parameterizedQuery = createParameterizedQuery(queryAnnotation.value(), method);
+                if (parameterizedQuery.hasValuesList()) {
+                    throw new RuntimeException("A list of VALUES is only supported for Update");
+                }
+                return new SelectStatementFactory(parameterizedQuery, cls,
+                    queryAnnotation.fetchSize(), !queryAnnotation.requirePrimary(), queryAnnotation.queryTimeoutSeconds(),
+                    queryAnnotation.fetchIdleTimeoutSeconds());
 
             } else if (annotation instanceof Update) {
                 Update             updateAnnotation   = (Update)annotation;
                 ParameterizedQuery parameterizedQuery = createParameterizedQuery(updateAnnotation.value(), method);
+                if (updateAnnotation.batchSize() > 0 && parameterizedQuery.hasValuesList()) {
+                    throw new RuntimeException("Batching is not supported for Update with a list of VALUES");
+                }
 
                 if (GeneratedKey.class.isAssignableFrom(cls)) {
+                    if (updateAnnotation.batchSize() > 0) {
+                        throw new RuntimeException("Batching is not supported for Update returning GeneratedKey");
+                    }
                     Class<?> keyType = (Class<?>)((ParameterizedType)returnType).getActualTypeArguments()[0];
                     return new UpdateStatementReturningGeneratedKeyFactory(parameterizedQuery, keyType, updateAnnotation.minimumAffected());
 
@@ -51,9 +64,11 @@ public class DbStatementFactoryFactory {
                 } else {
                     throw new RuntimeException("Unsupported return type for Update");
                 }
+            } else if (annotation instanceof Copy copyAnnotation) {
+                return new CopyStatementFactory(copyAnnotation, method);
             }
         }
-        throw new RuntimeException("Missing annotation @Query or @Update required");
+        throw new RuntimeException("Missing annotation @Query, @Update or @Copy required");
 
     }
 
@@ -1,55 +1,253 @@
 package se.fortnox.reactivewizard.db.statement;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import se.fortnox.reactivewizard.db.deserializing.DbResultSetDeserializer;
+import se.fortnox.reactivewizard.db.deserializing.R2dbcRowResultSet;
 import se.fortnox.reactivewizard.db.query.ParameterizedQuery;
 
-import java.lang.reflect.Type;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.Optional;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 public class SelectStatementFactory extends AbstractDbStatementFactory {
+    private static final Logger LOG = LoggerFactory.getLogger(SelectStatementFactory.class);
     private final DbResultSetDeserializer deserializer;
+    private final int                     fetchSize;
+    private final boolean                 readOnly;
+    private final int                     queryTimeoutSeconds;
+    private final int                     fetchIdleTimeoutSeconds;
 
     public SelectStatementFactory(ParameterizedQuery parameterizedQuery, Class<?> returnType) {
+        this(parameterizedQuery, returnType, 0, false);
+    }
+
+    public SelectStatementFactory(ParameterizedQuery parameterizedQuery, Class<?> returnType, int fetchSize, boolean readOnly) {
+        this(parameterizedQuery, returnType, fetchSize, readOnly, 0, 0);
+    }
+
+    /**
+     * Create a factory of select statements.
+     * @param parameterizedQuery the query
+     * @param returnType the type of the rows
+     * @param fetchSize the fetch size of a cursor reading rows as they are requested, or 0 to read all rows at once
+     * @param readOnly whether the query may run on a read replica
+     * @param queryTimeoutSeconds the time the query may execute before the driver cancels it, or 0 for no limit
+     * @param fetchIdleTimeoutSeconds the time the cursor waits for rows to be requested before it fails, or 0 for no limit
+     */
+    public SelectStatementFactory(ParameterizedQuery parameterizedQuery, Class<?> returnType, int fetchSize, boolean readOnly,
+        int queryTimeoutSeconds, int fetchIdleTimeoutSeconds
+    ) {
         super(parameterizedQuery);
         this.deserializer = new DbResultSetDeserializer(returnType);
+        this.fetchSize = fetchSize;
+        this.readOnly = readOnly;
+        this.queryTimeoutSeconds = queryTimeoutSeconds;
+        this.fetchIdleTimeoutSeconds = fetchIdleTimeoutSeconds;
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return fetchSize > 0;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return readOnly;
     }
 
     @Override
     protected void executeStatement(Connection connection, Object[] args, FluxSink fluxSink)
         throws SQLException {
+        if (isStreaming() && fluxSink != null) {
+            executeInCursor(connection, args, fluxSink);
+            return;
+        }
         try (PreparedStatement statement = parameterizedQuery.createStatement(connection, args)) {
+            setQueryTimeout(statement);
             parameterizedQuery.addParameters(args, statement);
-            try (ResultSet resultSet = statement.executeQuery()) {
-                while (resultSet.next()) {
+            Cancellation cancellation = new Cancellation(statement);
+            if (fluxSink != null) {
+                fluxSink.onCancel(cancellation);
+                if (fluxSink.isCancelled()) {
+                    return;
+                }
+            }
+            try (ResultSet resultSet = cancellation.executeQuery()) {
+                while ((fluxSink == null || !fluxSink.isCancelled()) && resultSet.next()) {
                     if (fluxSink != null) {
-                        var value = deserializer.deserialize(resultSet);
-                        if (value == null) {
-                            var sqlQuery = parameterizedQuery.toString();
-                            throw new NullPointerException("""
-                                One or more of the values returned in the resultset of the following query was null:
-                                {{sqlQuery}}
-                                  
-                                Project Reactor does not allow emitting null values in a stream. Wrap the return value from the dao interface
-                                in a 'wrapper' to solve the issue.
-                                Example: 
-                                record Wrapper(String nullableValue) {};
-                                """.replace("{{sqlQuery}}", sqlQuery));
-                        }
-                        fluxSink.next(value);
+                        fluxSink.next(deserialize(resultSet));
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    protected Flux<Object> executeStatement(io.r2dbc.spi.Connection connection, Object[] args) {
+        return Flux.defer(() -> {
+            io.r2dbc.spi.Statement statement;
+            try {
+                statement = parameterizedQuery.createStatement(connection, args);
+            } catch (SQLException e) {
+                return Flux.error(e);
+            }
+            if (isStreaming()) {
+                statement.fetchSize(fetchSize);
+            }
+            Flux<io.r2dbc.spi.Result> results = Flux.from(statement.execute());
+            if (queryTimeoutSeconds > 0) {
+                results = results.timeout(Duration.ofSeconds(queryTimeoutSeconds));
+            }
+            return results.concatMap(result -> result.map((row, metadata) -> deserialize(R2dbcRowResultSet.of(row, metadata))));
+        });
+    }
+
+    private void setQueryTimeout(PreparedStatement statement) throws SQLException {
+        if (queryTimeoutSeconds > 0) {
+            statement.setQueryTimeout(queryTimeoutSeconds);
+        }
+    }
+
+    private void executeInCursor(Connection connection, Object[] args, FluxSink fluxSink) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            try (PreparedStatement statement = parameterizedQuery.createStatement(connection, args)) {
+                statement.setFetchSize(fetchSize);
+                setQueryTimeout(statement);
+                parameterizedQuery.addParameters(args, statement);
+                Cancellation cancellation = new Cancellation(statement);
+                Demand       demand       = new Demand(fluxSink, cancellation, fetchIdleTimeoutSeconds);
+                if (fluxSink.isCancelled()) {
+                    return;
+                }
+                try (ResultSet resultSet = cancellation.executeQuery()) {
+                    while (demand.await() && resultSet.next()) {
+                        fluxSink.next(deserialize(resultSet));
                     }
                 }
             }
+            if (autoCommit) {
+                connection.commit();
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit) {
+                connection.rollback();
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    private Object deserialize(ResultSet resultSet) {
+        var value = deserializer.deserialize(resultSet);
+        if (value == null) {
+            var sqlQuery = parameterizedQuery.toString();
+            throw new NullPointerException("""
+                One or more of the values returned in the resultset of the following query was null:
+                {{sqlQuery}}
+
+                Project Reactor does not allow emitting null values in a stream. Wrap the return value from the dao interface
+                in a 'wrapper' to solve the issue.
+                Example:
+                record Wrapper(String nullableValue) {};
+                """.replace("{{sqlQuery}}", sqlQuery));
         }
+        return value;
     }
 
     @Override
     public String toString() {
         return parameterizedQuery.toString();
     }
+
+    /**
+     * Cancels the statement in the database if the subscriber cancels while the query is executing, so that it does not
+     * keep holding its connection. Once the query has returned its result, reading the rows just stops.
+     */
+    private static class Cancellation implements Disposable {
+        private final    PreparedStatement statement;
+        private volatile boolean           executing;
+
+        private Cancellation(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        ResultSet executeQuery() throws SQLException {
+            executing = true;
+            try {
+                return statement.executeQuery();
+            } finally {
+                executing = false;
+            }
+        }
+
+        @Override
+        public void dispose() {
+            if (!executing) {
+                return;
+            }
+            try {
+                statement.cancel();
+            } catch (SQLException e) {
+                LOG.warn("Failed to cancel statement", e);
+            }
+        }
+    }
+
+    /**
+     * Parks the reading thread until the subscriber requests more rows or cancels, for at most the idle timeout.
+     */
+    private static class Demand {
+        private final FluxSink<?> fluxSink;
+        private final int         idleTimeoutSeconds;
+
+        private Demand(FluxSink<?> fluxSink, Cancellation cancellation, int idleTimeoutSeconds) {
+            Thread reader = Thread.currentThread();
+            this.fluxSink = fluxSink;
+            this.idleTimeoutSeconds = idleTimeoutSeconds;
+            fluxSink.onRequest(requested -> LockSupport.unpark(reader));
+            fluxSink.onCancel(() -> {
+                cancellation.dispose();
+                LockSupport.unpark(reader);
+            });
+        }
+
+        /**
+         * Wait for demand.
+         * @return true if there is demand, false if the subscriber has cancelled
+         * @throws SQLException if the thread is interrupted while waiting, or no rows are requested within the timeout
+         */
+        boolean await() throws SQLException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(idleTimeoutSeconds);
+            while (!fluxSink.isCancelled() && fluxSink.requestedFromDownstream() == 0) {
+                if (idleTimeoutSeconds == 0) {
+                    LockSupport.park(this);
+                } else {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw new SQLException("No rows were requested from the cursor within " + idleTimeoutSeconds + " seconds");
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                }
+                if (Thread.interrupted()) {
+                    throw new SQLException("Interrupted while waiting for rows to be requested");
+                }
+            }
+            return !fluxSink.isCancelled();
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package se.fortnox.reactivewizard.db.statement;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 
 import java.sql.Connection;
@@ -10,6 +11,17 @@ import java.sql.SQLException;
 public interface Statement {
     void execute(Connection connection) throws SQLException;
 
+    /**
+     * Execute the statement on an R2DBC connection, without blocking. The statement is executed when the result is
+     * subscribed to, and the connection is not closed.
+     *
+     * @param connection the connection
+     * @return the results of the statement
+     */
+    default Flux<Object> execute(io.r2dbc.spi.Connection connection) {
+        return Flux.error(new UnsupportedOperationException("Statement cannot be executed on an R2DBC connection: " + this));
+    }
+
     void onCompleted();
 
     void onError(Throwable throwable);
@@ -46,5 +58,5 @@ public interface Statement {
      *
      * @param fluxSink the FluxSink
      */
-    void setFluxSink(FluxSink<?> fluxSink);
+    void setFluxSink(FluxSink<Object> fluxSink);
 }
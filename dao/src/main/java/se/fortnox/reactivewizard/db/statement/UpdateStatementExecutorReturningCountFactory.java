@@ -1,11 +1,14 @@
 package se.fortnox.reactivewizard.db.statement;
 
+import io.r2dbc.spi.Result;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import se.fortnox.reactivewizard.db.query.ParameterizedQuery;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.function.UnaryOperator;
 
 public class UpdateStatementExecutorReturningCountFactory extends AbstractUpdateStatementFactory {
 
@@ -16,10 +19,26 @@ public class UpdateStatementExecutorReturningCountFactory extends AbstractUpdate
     @Override
     protected void executeStatement(Connection connection, Object[] args, FluxSink fluxSink)
             throws SQLException {
-        try (PreparedStatement statement = parameterizedQuery.createStatement(connection, args)) {
-            parameterizedQuery.addParameters(args, statement);
-            executed(statement.executeUpdate(), fluxSink);
-        }
+        executed(executeSplit(connection, args, statementArgs -> {
+            try (PreparedStatement statement = parameterizedQuery.createStatement(connection, statementArgs)) {
+                parameterizedQuery.addParameters(statementArgs, statement);
+                return statement.executeUpdate();
+            }
+        }), fluxSink);
+    }
+
+    @Override
+    protected Flux<Object> executeStatement(io.r2dbc.spi.Connection connection, Object[] args) {
+        return executeSplit(connection, args, UnaryOperator.identity(), Result::getRowsUpdated)
+            .reduce(0L, Long::sum)
+            .flatMapMany(count -> Flux.create(fluxSink -> {
+                try {
+                    executed(count.intValue(), fluxSink);
+                    fluxSink.complete();
+                } catch (SQLException e) {
+                    fluxSink.error(e);
+                }
+            }));
     }
 
     @Override
@@ -47,6 +66,7 @@ public class UpdateStatementExecutorReturningCountFactory extends AbstractUpdate
 
     @Override
     protected boolean sameBatch(ParameterizedQuery parameterizedQuery) {
-        return parameterizedQuery.toString().equals(this.parameterizedQuery.toString());
+        return !this.parameterizedQuery.hasValuesList()
+            && parameterizedQuery.toString().equals(this.parameterizedQuery.toString());
     }
 }
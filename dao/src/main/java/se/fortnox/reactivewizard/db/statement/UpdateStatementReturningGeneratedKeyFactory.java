@@ -1,8 +1,12 @@
 package se.fortnox.reactivewizard.db.statement;
 
+import io.r2dbc.spi.Result;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
 import se.fortnox.reactivewizard.db.GeneratedKey;
 import se.fortnox.reactivewizard.db.deserializing.DbResultSetDeserializer;
+import se.fortnox.reactivewizard.db.deserializing.R2dbcRowResultSet;
 import se.fortnox.reactivewizard.db.query.ParameterizedQuery;
 
 import java.sql.Connection;
@@ -10,6 +14,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class UpdateStatementReturningGeneratedKeyFactory extends AbstractUpdateStatementFactory {
 
@@ -25,16 +30,42 @@ public class UpdateStatementReturningGeneratedKeyFactory extends AbstractUpdateS
     @Override
     protected void executeStatement(Connection connection, Object[] args, FluxSink fluxSink)
             throws SQLException {
-        try (PreparedStatement statement = parameterizedQuery.createStatement(connection, args, Statement.RETURN_GENERATED_KEYS)) {
-            parameterizedQuery.addParameters(args, statement);
-            ensureMinimumReached(statement.executeUpdate());
-            try (ResultSet resultSet = statement.getGeneratedKeys()) {
-                while (resultSet.next()) {
-                    if (fluxSink != null) {
-                        fluxSink.next((GeneratedKey) () -> deserializer.deserialize(resultSet));
+        ensureMinimumReached(executeSplit(connection, args, statementArgs -> {
+            try (PreparedStatement statement = parameterizedQuery.createStatement(connection, statementArgs, Statement.RETURN_GENERATED_KEYS)) {
+                parameterizedQuery.addParameters(statementArgs, statement);
+                int count = statement.executeUpdate();
+                try (ResultSet resultSet = statement.getGeneratedKeys()) {
+                    while (resultSet.next()) {
+                        if (fluxSink != null) {
+                            fluxSink.next((GeneratedKey) () -> deserializer.deserialize(resultSet));
+                        }
                     }
                 }
+                return count;
             }
-        }
+        }));
+    }
+
+    @Override
+    protected Flux<Object> executeStatement(io.r2dbc.spi.Connection connection, Object[] args) {
+        return Flux.defer(() -> {
+            AtomicLong count = new AtomicLong();
+            return executeSplit(connection, args, io.r2dbc.spi.Statement::returnGeneratedValues, result -> result.flatMap(segment -> {
+                if (segment instanceof Result.UpdateCount updateCount) {
+                    count.addAndGet(updateCount.value());
+                } else if (segment instanceof Result.RowSegment rowSegment) {
+                    Object key = deserializer.deserialize(R2dbcRowResultSet.of(rowSegment.row(), rowSegment.row().getMetadata()));
+                    return Mono.<Object>just((GeneratedKey<Object>)() -> key);
+                }
+                return Mono.empty();
+            })).concatWith(Mono.defer(() -> {
+                try {
+                    ensureMinimumReached(count.intValue());
+                    return Mono.empty();
+                } catch (SQLException e) {
+                    return Mono.error(e);
+                }
+            }));
+        });
     }
 }
@@ -4,11 +4,15 @@ import reactor.core.scheduler.Scheduler;
 import se.fortnox.reactivewizard.db.ConnectionProvider;
 
 import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 public class ConnectionScheduler {
     private final ConnectionProvider connectionProvider;
     private final Scheduler scheduler;
+    private final Map<Object, StatementBatcher> batchers = new ConcurrentHashMap<>();
 
     public ConnectionScheduler(ConnectionProvider connectionProvider, Scheduler scheduler) {
         this.connectionProvider = connectionProvider;
@@ -26,18 +30,99 @@ public class ConnectionScheduler {
      * @param action  the action
      */
     public void schedule(Consumer<Throwable> onError, ThrowableAction action) {
-        Scheduler.Worker worker = scheduler.createWorker();
-        worker.schedule(() -> {
+        scheduleOnConnection(onError, action, false, null);
+    }
+
+    /**
+     * Schedule action, telling when a thread starts running it, before it gets its connection.
+     *
+     * @param onError   the error handler
+     * @param action    the action
+     * @param onStarted called when a thread starts running the action
+     */
+    public void schedule(Consumer<Throwable> onError, ThrowableAction action, Runnable onStarted) {
+        scheduleOnConnection(onError, action, false, onStarted);
+    }
+
+    /**
+     * Schedule action on a connection that is already held, such as the connection of a transaction in progress.
+     *
+     * @param onError    the error handler
+     * @param connection the connection
+     * @param action     the action
+     */
+    public void schedule(Consumer<Throwable> onError, Connection connection, ThrowableAction action) {
+        scheduler.schedule(() -> {
             try {
-                action.call(connectionProvider.get());
+                action.call(connection);
             } catch (Exception e) {
                 onError.accept(e);
-            } finally {
-                worker.dispose();
             }
         });
     }
 
+    /**
+     * Schedule action on a connection to a read replica, or to the primary if there are no replicas.
+     *
+     * @param onError the error handler
+     * @param action  the action
+     */
+    public void scheduleOnReplica(Consumer<Throwable> onError, ThrowableAction action) {
+        scheduleOnConnection(onError, action, true, null);
+    }
+
+    /**
+     * Schedule action on a connection to a read replica, or to the primary if there are no replicas, telling when a
+     * thread starts running it, before it gets its connection.
+     *
+     * @param onError   the error handler
+     * @param action    the action
+     * @param onStarted called when a thread starts running the action
+     */
+    public void scheduleOnReplica(Consumer<Throwable> onError, ThrowableAction action, Runnable onStarted) {
+        scheduleOnConnection(onError, action, true, onStarted);
+    }
+
+    private void scheduleOnConnection(Consumer<Throwable> onError, ThrowableAction action, boolean replica,
+                                      Runnable onStarted) {
+        scheduler.schedule(() -> {
+            try {
+                if (onStarted != null) {
+                    onStarted.run();
+                }
+                action.call(replica ? connectionProvider.getReplica() : connectionProvider.get());
+            } catch (Exception e) {
+                onError.accept(e);
+            }
+        });
+    }
+
+    /**
+     * Get the batcher grouping statements of the given key on connections of this scheduler.
+     *
+     * @param key          identifies the update whose statements are grouped
+     * @param maxSize      the maximum number of statements in a batch
+     * @param windowMillis the time to wait for more statements after the first statement of a batch
+     * @return the batcher
+     */
+    public StatementBatcher batcher(Object key, int maxSize, long windowMillis) {
+        return batchers.computeIfAbsent(key, k -> new StatementBatcher(this, maxSize, windowMillis));
+    }
+
+    /**
+     * Get the batcher grouping statements of the given key on connections of this scheduler, telling the size of each
+     * batch it executes.
+     *
+     * @param key          identifies the update whose statements are grouped
+     * @param maxSize      the maximum number of statements in a batch
+     * @param windowMillis the time to wait for more statements after the first statement of a batch
+     * @param onBatch      called with the number of statements of each batch
+     * @return the batcher
+     */
+    public StatementBatcher batcher(Object key, int maxSize, long windowMillis, IntConsumer onBatch) {
+        return batchers.computeIfAbsent(key, k -> new StatementBatcher(this, maxSize, windowMillis, onBatch));
+    }
+
     public interface ThrowableAction {
         void call(Connection connection) throws Exception;
     }
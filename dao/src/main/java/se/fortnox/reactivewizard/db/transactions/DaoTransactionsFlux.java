@@ -21,4 +21,15 @@ public interface DaoTransactionsFlux {
      * @return  empty Flux
      */
     <T> Mono<Void> executeTransaction(Publisher<T>... daoCalls);
+
+    /**
+     * Creates and executes a transaction for the dao-calls emitted by the passed publisher.
+     * The calls will be run in the order they are emitted, each within a few milliseconds of being emitted once the
+     * calls before it have been run, on a connection held until the publisher completes and the transaction is
+     * committed. Consecutive calls of the same update emitted within those milliseconds are run together as one batch.
+     *
+     * @param daoCalls dao calls to run as one single transaction
+     * @return empty Mono
+     */
+    Mono<Void> executeStreamingTransaction(Publisher<? extends Publisher<?>> daoCalls);
 }
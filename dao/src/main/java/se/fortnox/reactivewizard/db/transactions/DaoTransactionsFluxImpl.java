@@ -1,7 +1,9 @@
 package se.fortnox.reactivewizard.db.transactions;
 
 import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import se.fortnox.reactivewizard.util.ReactiveDecorator;
 
 import javax.inject.Inject;
@@ -13,6 +15,16 @@ import static java.util.Arrays.asList;
 @Singleton
 public class DaoTransactionsFluxImpl implements DaoTransactionsFlux {
 
+    /**
+     * The maximum number of statements in a batch of a streaming transaction.
+     */
+    static final int STREAMING_BATCH_SIZE = 1000;
+
+    /**
+     * The time in milliseconds that a batch of a streaming transaction waits for more statements after its first.
+     */
+    static final long STREAMING_BATCH_WINDOW_MILLIS = 5;
+
     private final TransactionExecutor transactionExecutor;
 
     @Inject
@@ -42,4 +54,18 @@ public class DaoTransactionsFluxImpl implements DaoTransactionsFlux {
     public <T> Mono<Void> executeTransaction(Publisher<T>... daoCalls) {
         return executeTransaction(asList(daoCalls));
     }
+
+    @Override
+    public Mono<Void> executeStreamingTransaction(Publisher<? extends Publisher<?>> daoCalls) {
+        return Mono.usingWhen(
+            Mono.fromSupplier(() -> new StreamingTransaction(STREAMING_BATCH_SIZE, STREAMING_BATCH_WINDOW_MILLIS, Schedulers.parallel())),
+            transaction -> Flux.from(daoCalls)
+                .map(daoCall -> transaction.add(transactionExecutor.getStatementContext(daoCall, ReactiveDecorator::getDecoration)))
+                .doOnComplete(transaction::flush)
+                .flatMap(transaction::submit, STREAMING_BATCH_SIZE)
+                .then(),
+            StreamingTransaction::commit,
+            (transaction, error) -> transaction.rollback(),
+            StreamingTransaction::rollback);
+    }
 }
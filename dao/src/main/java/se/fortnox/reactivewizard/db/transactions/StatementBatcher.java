@@ -0,0 +1,184 @@
+package se.fortnox.reactivewizard.db.transactions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import se.fortnox.reactivewizard.db.statement.Statement;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Groups statements of the same update, made independently of each other, into JDBC batches executed on one
+ * connection. A batch is executed when it is full, or when the window since its first statement has passed.
+ * <p>
+ * The batch is executed in a transaction of its own. If it fails, the statements are executed one by one instead, so
+ * that a failing statement only fails its own caller.
+ */
+public class StatementBatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatementBatcher.class);
+
+    private final ConnectionScheduler connectionScheduler;
+    private final int                 maxSize;
+    private final long                windowMillis;
+    private final Scheduler           timer;
+    private final IntConsumer         onBatch;
+    private       List<Statement>     pending = new ArrayList<>();
+
+    public StatementBatcher(ConnectionScheduler connectionScheduler, int maxSize, long windowMillis) {
+        this(connectionScheduler, maxSize, windowMillis, size -> { });
+    }
+
+    /**
+     * Create a batcher telling the size of each batch it executes.
+     *
+     * @param onBatch called with the number of statements of each batch
+     */
+    public StatementBatcher(ConnectionScheduler connectionScheduler, int maxSize, long windowMillis, IntConsumer onBatch) {
+        this(connectionScheduler, maxSize, windowMillis, Schedulers.parallel(), onBatch);
+    }
+
+    StatementBatcher(ConnectionScheduler connectionScheduler, int maxSize, long windowMillis, Scheduler timer) {
+        this(connectionScheduler, maxSize, windowMillis, timer, size -> { });
+    }
+
+    StatementBatcher(ConnectionScheduler connectionScheduler, int maxSize, long windowMillis, Scheduler timer,
+                     IntConsumer onBatch) {
+        this.connectionScheduler = connectionScheduler;
+        this.maxSize = maxSize;
+        this.windowMillis = windowMillis;
+        this.timer = timer;
+        this.onBatch = onBatch;
+    }
+
+    /**
+     * Add a statement to the current batch.
+     *
+     * @param statement the statement, with its FluxSink set
+     */
+    public void add(Statement statement) {
+        List<Statement> batch;
+        boolean         first;
+        boolean         full;
+        synchronized (this) {
+            batch = pending;
+            batch.add(statement);
+            first = batch.size() == 1;
+            full = batch.size() >= maxSize;
+            if (full) {
+                pending = new ArrayList<>();
+            }
+        }
+        if (full) {
+            schedule(batch);
+        } else if (first) {
+            timer.schedule(() -> flush(batch), windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush(List<Statement> batch) {
+        synchronized (this) {
+            if (pending != batch) {
+                // Already executed because it became full
+                return;
+            }
+            pending = new ArrayList<>();
+        }
+        schedule(batch);
+    }
+
+    private void schedule(List<Statement> statements) {
+        onBatch.accept(statements.size());
+        try {
+            connectionScheduler.schedule(error -> statements.forEach(statement -> statement.onError(error)),
+                connection -> execute(statements, connection));
+        } catch (RuntimeException e) {
+            statements.forEach(statement -> statement.onError(e));
+        }
+    }
+
+    private void execute(List<Statement> statements, Connection connection) {
+        try {
+            if (statements.size() == 1 || !executeBatch(statements, connection)) {
+                executeSeparately(statements, connection);
+            }
+        } finally {
+            closeConnection(connection);
+        }
+    }
+
+    private boolean executeBatch(List<Statement> statements, Connection connection) {
+        int[] counts;
+        try {
+            connection.setAutoCommit(false);
+            PreparedStatement preparedStatement = null;
+            try {
+                for (Statement statement : statements) {
+                    preparedStatement = statement.batch(connection, preparedStatement);
+                }
+                counts = preparedStatement.executeBatch();
+                connection.commit();
+            } finally {
+                if (preparedStatement != null) {
+                    preparedStatement.close();
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            LOG.debug("Batch of {} statements failed, executing them one by one", statements.size(), e);
+            rollback(connection);
+            return false;
+        }
+
+        for (int i = 0; i < statements.size(); i++) {
+            Statement statement = statements.get(i);
+            try {
+                statement.batchExecuted(counts[i]);
+                statement.onCompleted();
+            } catch (Throwable e) {
+                statement.onError(e);
+            }
+        }
+        return true;
+    }
+
+    private static void executeSeparately(List<Statement> statements, Connection connection) {
+        try {
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            statements.forEach(statement -> statement.onError(e));
+            return;
+        }
+        for (Statement statement : statements) {
+            try {
+                statement.execute(connection);
+                statement.onCompleted();
+            } catch (Throwable e) {
+                statement.onError(e);
+            }
+        }
+    }
+
+    private static void rollback(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (Exception rollbackException) {
+            LOG.error("Rollback failed", rollbackException);
+        }
+    }
+
+    private static void closeConnection(Connection connection) {
+        try {
+            connection.setAutoCommit(true);
+            connection.close();
+        } catch (Exception e) {
+            LOG.error("Error closing connection", e);
+        }
+    }
+}
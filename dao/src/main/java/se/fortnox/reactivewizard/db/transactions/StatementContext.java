@@ -1,5 +1,6 @@
 package se.fortnox.reactivewizard.db.transactions;
 
+import se.fortnox.reactivewizard.db.StatementMetrics;
 import se.fortnox.reactivewizard.db.statement.Statement;
 
 import java.util.function.Supplier;
@@ -7,11 +8,18 @@ import java.util.function.Supplier;
 public final class StatementContext {
     private final Supplier<Statement> statementSupplier;
     private final ConnectionScheduler connectionScheduler;
+    private final StatementMetrics statementMetrics;
     private Runnable transactionCompletedAction;
 
     public StatementContext(Supplier<Statement> statementSupplier, ConnectionScheduler connectionScheduler) {
+        this(statementSupplier, connectionScheduler, StatementMetrics.none());
+    }
+
+    public StatementContext(Supplier<Statement> statementSupplier, ConnectionScheduler connectionScheduler,
+                            StatementMetrics statementMetrics) {
         this.statementSupplier = statementSupplier;
         this.connectionScheduler = connectionScheduler;
+        this.statementMetrics = statementMetrics;
     }
 
     public Statement getStatement() {
@@ -22,8 +30,25 @@ public final class StatementContext {
         return connectionScheduler;
     }
 
+    public StatementMetrics getStatementMetrics() {
+        return statementMetrics;
+    }
+
+    /**
+     * Add an action to run when the transaction that the statement is part of has completed.
+     *
+     * @param action the action, run after any previously added actions
+     */
     public void onTransactionCompleted(Runnable action) {
-        this.transactionCompletedAction = action;
+        Runnable previous = this.transactionCompletedAction;
+        this.transactionCompletedAction = previous == null ? action : () -> {
+            previous.run();
+            action.run();
+        };
+    }
+
+    boolean hasTransactionCompletedAction() {
+        return transactionCompletedAction != null;
     }
 
     void transactionCompleted() {
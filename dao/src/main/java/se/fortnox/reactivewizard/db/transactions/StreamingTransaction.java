@@ -0,0 +1,198 @@
+package se.fortnox.reactivewizard.db.transactions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A transaction executing its statements as they arrive, on a connection held from the first statement until the
+ * transaction is committed or rolled back. Consecutive statements that can be batched are executed as one batch, which
+ * is executed when a statement that cannot be batched with it arrives, when it is full, or when the window since its
+ * first statement has passed.
+ */
+class StreamingTransaction {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StreamingTransaction.class);
+
+    private final int                    maxBatchSize;
+    private final long                   windowMillis;
+    private final Scheduler              timer;
+    private final List<StatementContext> completedActions = new ArrayList<>();
+    private final Sinks.Many<OpenBatch>  batches          = Sinks.many().unicast().onBackpressureBuffer();
+    private final Disposable             executions;
+    private       ConnectionScheduler    connectionScheduler;
+    private       OpenBatch              open;
+    private volatile Connection          connection;
+
+    StreamingTransaction(int maxBatchSize, long windowMillis, Scheduler timer) {
+        this.maxBatchSize = maxBatchSize;
+        this.windowMillis = windowMillis;
+        this.timer = timer;
+        // A failed batch has emitted its error to its own statements, so the batches after it are just dropped
+        this.executions = batches.asFlux()
+            .concatMap(this::execute, 1)
+            .onErrorResume(error -> Mono.empty())
+            .subscribe();
+    }
+
+    /**
+     * Create the statement of a dao call of the transaction.
+     *
+     * @param statementContext the context of the dao call
+     * @return the statement
+     */
+    TransactionStatement add(StatementContext statementContext) {
+        if (connectionScheduler == null && statementContext.getConnectionScheduler().hasConnectionProvider()) {
+            connectionScheduler = statementContext.getConnectionScheduler();
+        }
+        if (statementContext.hasTransactionCompletedAction()) {
+            completedActions.add(statementContext);
+        }
+        return new TransactionStatement(statementContext.getStatement());
+    }
+
+    /**
+     * Add a statement to the open batch, or to a new batch if it cannot be batched with the statements before it.
+     *
+     * @param statement the next statement
+     * @return empty Mono completing when the batch of the statement has been executed
+     */
+    synchronized Mono<Void> submit(TransactionStatement statement) {
+        if (open != null && !open.statements.get(open.statements.size() - 1).sameBatch(statement)) {
+            flush(open);
+        }
+        OpenBatch batch = open;
+        if (batch == null) {
+            batch = new OpenBatch();
+            open = batch;
+            OpenBatch scheduled = batch;
+            timer.schedule(() -> flush(scheduled), windowMillis, TimeUnit.MILLISECONDS);
+        }
+        batch.statements.add(statement);
+        if (batch.statements.size() >= maxBatchSize) {
+            flush(batch);
+        }
+        return batch.executed.asMono();
+    }
+
+    /**
+     * Execute the open batch without waiting for its window to pass, since no more statements will arrive.
+     */
+    synchronized void flush() {
+        if (open != null) {
+            flush(open);
+        }
+    }
+
+    private synchronized void flush(OpenBatch batch) {
+        if (open != batch) {
+            // Already executed because a statement of another batch arrived, or because it became full
+            return;
+        }
+        open = null;
+        // Fails only once the transaction has been committed or rolled back, when the batch should not be executed
+        batches.tryEmitNext(batch);
+    }
+
+    private Mono<Void> execute(OpenBatch batch) {
+        Batchable batchable = batch.statements.get(0);
+        for (int i = 1; i < batch.statements.size(); i++) {
+            batchable = Batch.batchWrap(batchable, batch.statements.get(i));
+        }
+        Batchable toExecute = batchable;
+        return onConnection(connection -> toExecute.execute(connection))
+            .doOnSuccess(ignored -> batch.executed.tryEmitEmpty())
+            .doOnError(batch.executed::tryEmitError);
+    }
+
+    /**
+     * Commit the transaction and release its connection.
+     *
+     * @return empty Mono completing when the transaction has been committed
+     */
+    Mono<Void> commit() {
+        executions.dispose();
+        if (connection == null) {
+            completedActions.forEach(StatementContext::transactionCompleted);
+            return Mono.empty();
+        }
+        return onConnection(connection -> {
+            try {
+                connection.commit();
+            } catch (Exception e) {
+                rollbackConnection(connection);
+                throw e;
+            } finally {
+                closeConnection(connection);
+            }
+        }).doOnSuccess(ignored -> completedActions.forEach(StatementContext::transactionCompleted));
+    }
+
+    /**
+     * Roll back the transaction and release its connection.
+     *
+     * @return empty Mono completing when the transaction has been rolled back
+     */
+    Mono<Void> rollback() {
+        executions.dispose();
+        if (connection == null) {
+            return Mono.empty();
+        }
+        return onConnection(connection -> {
+            rollbackConnection(connection);
+            closeConnection(connection);
+        }).onErrorResume(e -> Mono.empty());
+    }
+
+    private Mono<Void> onConnection(ConnectionScheduler.ThrowableAction action) {
+        return Mono.create(sink -> {
+            ConnectionScheduler.ThrowableAction completingAction = connection -> {
+                action.call(connection);
+                sink.success();
+            };
+            if (connection != null) {
+                connectionScheduler.schedule(sink::error, connection, completingAction);
+                return;
+            }
+            if (connectionScheduler == null) {
+                sink.error(new RuntimeException("No DaoObservable with a valid connection provider was found"));
+                return;
+            }
+            connectionScheduler.schedule(sink::error, newConnection -> {
+                connection = newConnection;
+                newConnection.setAutoCommit(false);
+                completingAction.call(newConnection);
+            });
+        });
+    }
+
+    private static void rollbackConnection(Connection connection) {
+        try {
+            connection.rollback();
+        } catch (Exception rollbackException) {
+            LOG.error("Rollback failed", rollbackException);
+        }
+    }
+
+    private static void closeConnection(Connection connection) {
+        try {
+            connection.setAutoCommit(true);
+            connection.close();
+        } catch (Exception e) {
+            LOG.error("Error closing connection", e);
+        }
+    }
+
+    private static class OpenBatch {
+        private final List<TransactionStatement> statements = new ArrayList<>();
+        private final Sinks.Empty<Void>          executed   = Sinks.empty();
+    }
+}
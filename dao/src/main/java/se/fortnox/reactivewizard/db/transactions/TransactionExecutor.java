@@ -54,18 +54,30 @@ class TransactionExecutor {
         List<StatementContext> daoStatementContexts = new ArrayList<>();
 
         for (T statement : daoCalls) {
-            Optional<StatementContext> statementContext = getDecoration.apply(statement);
-            if (statementContext.isEmpty()) {
-                String statementString  = statement == null ? "null" : statement.getClass().toString();
-                String exceptionMessage = "All parameters to createTransaction needs to be observables coming from a Dao-class. Statement was %s.";
-                throw new RuntimeException(String.format(exceptionMessage, statementString));
-            }
-            daoStatementContexts.add(statementContext.get());
+            daoStatementContexts.add(getStatementContext(statement, getDecoration));
         }
 
         return daoStatementContexts;
     }
 
+    /**
+     * Extracts the StatementContext of a dao call.
+     * @param daoCall the dao call
+     * @param getDecoration a function extracting the decoration from the dao call
+     * @param <T> A reactive type Observable, Single, Flux or Mono
+     *
+     * @return the statement context
+     */
+    <T> StatementContext getStatementContext(T daoCall, Function<T, Optional<StatementContext>> getDecoration) {
+        Optional<StatementContext> statementContext = getDecoration.apply(daoCall);
+        if (statementContext.isEmpty()) {
+            String statementString  = daoCall == null ? "null" : daoCall.getClass().toString();
+            String exceptionMessage = "All parameters to createTransaction needs to be observables coming from a Dao-class. Statement was %s.";
+            throw new RuntimeException(String.format(exceptionMessage, statementString));
+        }
+        return statementContext.get();
+    }
+
     /**
      * Get the connection scheduler to use when executing the statements.
      * Will get the first connection scheduler from the first StatementContext.
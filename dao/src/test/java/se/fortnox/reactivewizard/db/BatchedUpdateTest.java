@@ -0,0 +1,120 @@
+package se.fortnox.reactivewizard.db;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BatchedUpdateTest {
+
+    private final MockDb     mockDb = new MockDb();
+    private final BatchedDao dao    = new DbProxy(new DatabaseConfig(), mockDb.getConnectionProvider())
+        .create(BatchedDao.class);
+
+    @Test
+    public void shouldExecuteConcurrentCallsAsOneBatch() throws SQLException {
+        when(mockDb.getPreparedStatement().executeBatch()).thenReturn(new int[]{1, 2, 3});
+
+        StepVerifier.create(Flux.merge(dao.insert("a"), dao.insert("b"), dao.insert("c")).collectList())
+            .assertNext(counts -> assertThat(counts).containsExactlyInAnyOrder(1, 2, 3))
+            .verifyComplete();
+
+        verify(mockDb.getConnection(), times(1)).prepareStatement(anyString());
+        verify(mockDb.getPreparedStatement(), times(3)).addBatch();
+        verify(mockDb.getPreparedStatement()).executeBatch();
+        verify(mockDb.getPreparedStatement(), never()).executeUpdate();
+        verify(mockDb.getConnection()).commit();
+        mockDb.verifyConnectionsUsed(1);
+    }
+
+    @Test
+    public void shouldExecuteBatchWhenWindowHasPassed() throws SQLException {
+        mockDb.setUpdatedRows(1);
+
+        StepVerifier.create(dao.insertWithShortWindow("a"))
+            .expectNext(1)
+            .verifyComplete();
+
+        mockDb.verifyUpdate("insert into table values (?)", "a");
+        verify(mockDb.getPreparedStatement(), never()).executeBatch();
+    }
+
+    @Test
+    public void shouldExecuteStatementsSeparatelyWhenBatchFails() throws SQLException {
+        when(mockDb.getPreparedStatement().executeBatch()).thenThrow(new SQLException("batch failed"));
+        when(mockDb.getPreparedStatement().executeUpdate())
+            .thenReturn(1)
+            .thenThrow(new SQLException("row failed"))
+            .thenReturn(1);
+
+        StepVerifier.create(Flux.merge(outcome(dao.insert("a")), outcome(dao.insert("b")), outcome(dao.insert("c")))
+                .collectList())
+            .assertNext(outcomes -> assertThat(outcomes).containsExactlyInAnyOrder("1", "1", "row failed"))
+            .verifyComplete();
+
+        verify(mockDb.getConnection()).rollback();
+        verify(mockDb.getPreparedStatement(), times(3)).executeUpdate();
+    }
+
+    @Test
+    public void shouldFailOnlyCallerWithTooFewAffectedRows() throws SQLException {
+        when(mockDb.getPreparedStatement().executeBatch()).thenReturn(new int[]{1, 0, 1});
+
+        StepVerifier.create(Flux.merge(outcome(dao.update("a")), outcome(dao.update("b")), outcome(dao.update("c")))
+                .collectList())
+            .assertNext(outcomes -> assertThat(outcomes)
+                .hasSize(3)
+                .contains("1")
+                .anyMatch(outcome -> outcome.startsWith("Minimum affected rows not reached")))
+            .verifyComplete();
+    }
+
+    @Test
+    public void shouldNotFailWhenDriverDoesNotCountAffectedRows() throws SQLException {
+        when(mockDb.getPreparedStatement().executeBatch())
+            .thenReturn(new int[]{Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO});
+
+        StepVerifier.create(Flux.merge(dao.update("a"), dao.update("b"), dao.update("c")).collectList())
+            .assertNext(counts -> assertThat(counts).containsOnly(Statement.SUCCESS_NO_INFO).hasSize(3))
+            .verifyComplete();
+
+        verify(mockDb.getPreparedStatement(), never()).executeUpdate();
+    }
+
+    @Test
+    public void shouldNotAllowBatchingOfUpdatesReturningGeneratedKeys() {
+        assertThatExceptionOfType(RuntimeException.class)
+            .isThrownBy(() -> dao.insertReturningKey("a"))
+            .withMessage("Batching is not supported for Update returning GeneratedKey");
+    }
+
+    private static Flux<String> outcome(Flux<Integer> update) {
+        return update.map(String::valueOf).onErrorResume(e -> Mono.just(e.getMessage()));
+    }
+
+    interface BatchedDao {
+        @Update(value = "insert into table values (:value)", batchSize = 3, batchWindowMillis = 10000)
+        Flux<Integer> insert(String value);
+
+        @Update(value = "insert into table values (:value)", batchSize = 3, batchWindowMillis = 1)
+        Flux<Integer> insertWithShortWindow(String value);
+
+        @Update(value = "update table set value = :value", batchSize = 3, batchWindowMillis = 10000)
+        Flux<Integer> update(String value);
+
+        @Update(value = "insert into table values (:value)", batchSize = 3)
+        Mono<GeneratedKey<Long>> insertReturningKey(String value);
+    }
+}
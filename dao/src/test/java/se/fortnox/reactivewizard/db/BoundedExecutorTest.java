@@ -0,0 +1,81 @@
+package se.fortnox.reactivewizard.db;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class BoundedExecutorTest {
+
+    @Test
+    public void shouldNotRunMoreTasksThanMaxConcurrency() throws InterruptedException {
+        ExecutorService delegate = Executors.newCachedThreadPool();
+        AtomicInteger   delegated = new AtomicInteger();
+        BoundedExecutor executor = new BoundedExecutor(task -> {
+            delegated.incrementAndGet();
+            delegate.execute(task);
+        }, 3);
+
+        AtomicInteger  running    = new AtomicInteger();
+        AtomicInteger  maxRunning = new AtomicInteger();
+        CountDownLatch started    = new CountDownLatch(3);
+        CountDownLatch release    = new CountDownLatch(1);
+        CountDownLatch done       = new CountDownLatch(100);
+        for (int i = 0; i < 100; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        // queued tasks are not handed to the delegate until a permit is free
+        assertThat(delegated.get()).isEqualTo(3);
+
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(3);
+        assertThat(delegated.get()).isEqualTo(100);
+        delegate.shutdown();
+    }
+
+    @Test
+    public void shouldReleasePermitWhenTaskFails() throws InterruptedException {
+        BoundedExecutor executor = new BoundedExecutor(Runnable::run, 1);
+        CountDownLatch  done     = new CountDownLatch(1);
+
+        assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> executor.execute(() -> {
+            throw new IllegalStateException();
+        }));
+        executor.execute(done::countDown);
+
+        assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void shouldRejectMaxConcurrencyBelowOne() {
+        assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> new BoundedExecutor(Runnable::run, 0));
+    }
+
+    @Test
+    public void shouldCreateVirtualThreadExecutor() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+
+        DbProxy.virtualThreadExecutor().execute(done::countDown);
+
+        assertThat(done.await(1, TimeUnit.SECONDS)).isTrue();
+    }
+}
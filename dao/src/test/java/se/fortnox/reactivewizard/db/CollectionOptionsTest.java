@@ -1,16 +1,20 @@
 package se.fortnox.reactivewizard.db;
 
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import rx.Observable;
 import se.fortnox.reactivewizard.CollectionOptions;
 import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+import se.fortnox.reactivewizard.db.paging.InvalidCursorException;
 
 import java.sql.SQLException;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -25,7 +29,7 @@ public class CollectionOptionsTest {
         mockDb.addRows(4);
         final CollectionOptions collectionOptions = new CollectionOptions(3, null);
         assertThat(collectionOptionsDao.selectWithPaging(collectionOptions).toList().toBlocking().single()).hasSize(3);
-        mockDb.verifySelect("select * from table LIMIT 4");
+        mockDb.verifySelect("select * from table LIMIT ?", 4);
         assertThat(collectionOptions.isLastRecord()).isFalse();
     }
 
@@ -34,7 +38,7 @@ public class CollectionOptionsTest {
         mockDb.addRows(3);
         final CollectionOptions collectionOptions = new CollectionOptions(null, 3);
         assertThat(collectionOptionsDao.selectWithPaging(collectionOptions).toList().toBlocking().single()).hasSize(3);
-        mockDb.verifySelect("select * from table LIMIT 101 OFFSET 3");
+        mockDb.verifySelect("select * from table LIMIT ? OFFSET ?", 101, 3);
         assertThat(collectionOptions.isLastRecord()).isTrue();
     }
 
@@ -43,7 +47,7 @@ public class CollectionOptionsTest {
         mockDb.addRows(4);
         final CollectionOptions collectionOptions = new CollectionOptions(3, 3);
         assertThat(collectionOptionsDao.selectWithPaging(collectionOptions).toList().toBlocking().single()).hasSize(3);
-        mockDb.verifySelect("select * from table LIMIT 4 OFFSET 3");
+        mockDb.verifySelect("select * from table LIMIT ? OFFSET ?", 4, 3);
         assertThat(collectionOptions.isLastRecord()).isFalse();
     }
 
@@ -51,7 +55,7 @@ public class CollectionOptionsTest {
     public void shouldNotSetOffsetIfNegative() throws SQLException {
         final CollectionOptions collectionOptions = new CollectionOptions(2, -1);
         collectionOptionsDao.selectWithPaging(collectionOptions).toList().toBlocking().single();
-        mockDb.verifySelect("select * from table LIMIT 3");
+        mockDb.verifySelect("select * from table LIMIT ?", 3);
         assertThat(collectionOptions.isLastRecord()).isTrue();
     }
 
@@ -59,7 +63,7 @@ public class CollectionOptionsTest {
     public void shouldNotSetLimitIfNegative() throws SQLException {
         final CollectionOptions collectionOptions = new CollectionOptions(-1, 2);
         collectionOptionsDao.selectWithPaging(collectionOptions).toList().toBlocking().single();
-        mockDb.verifySelect("select * from table LIMIT 101 OFFSET 2");
+        mockDb.verifySelect("select * from table LIMIT ? OFFSET ?", 101, 2);
         assertThat(collectionOptions.isLastRecord()).isTrue();
     }
 
@@ -67,7 +71,7 @@ public class CollectionOptionsTest {
     public void shouldNotSetLimitAboveMaxLimit() throws SQLException {
         final CollectionOptions collectionOptions = new CollectionOptions(5, 2);
         collectionOptionsDao.selectWithMaxLimit3(collectionOptions).toList().toBlocking().single();
-        mockDb.verifySelect("select * from table LIMIT 4 OFFSET 2");
+        mockDb.verifySelect("select * from table LIMIT ? OFFSET ?", 4, 2);
         assertThat(collectionOptions.isLastRecord()).isTrue();
     }
 
@@ -75,7 +79,7 @@ public class CollectionOptionsTest {
     public void shouldUseConfiguredDefaultLimit() throws SQLException {
         final CollectionOptions collectionOptions = new CollectionOptions();
         collectionOptionsDao.selectWithDefaultLimit10(collectionOptions).toList().toBlocking().single();
-        mockDb.verifySelect("select * from table LIMIT 11");
+        mockDb.verifySelect("select * from table LIMIT ?", 11);
         assertThat(collectionOptions.isLastRecord()).isTrue();
     }
 
@@ -84,7 +88,7 @@ public class CollectionOptionsTest {
         mockDb.addRows(4);
         CollectionOptions collectionOptions = new CollectionOptions(3, 3);
         assertThat(collectionOptionsDao.selectWithPaging(collectionOptions).toList().toBlocking().single()).hasSize(3);
-        mockDb.verifySelect("select * from table LIMIT 4 OFFSET 3");
+        mockDb.verifySelect("select * from table LIMIT ? OFFSET ?", 4, 3);
         assertThat(collectionOptions.isLastRecord()).isFalse();
     }
 
@@ -93,7 +97,7 @@ public class CollectionOptionsTest {
         mockDb.addRows(3);
         CollectionOptions collectionOptions = new CollectionOptions(3, 3);
         assertThat(collectionOptionsDao.selectWithPaging(collectionOptions).toList().toBlocking().single()).hasSize(3);
-        mockDb.verifySelect("select * from table LIMIT 4 OFFSET 3");
+        mockDb.verifySelect("select * from table LIMIT ? OFFSET ?", 4, 3);
         assertThat(collectionOptions.isLastRecord()).isTrue();
     }
 
@@ -101,78 +105,151 @@ public class CollectionOptionsTest {
     public void shouldNotAddCollectionOptionsAsParameter() throws SQLException {
         mockDb.addRows(4);
         assertThat(collectionOptionsDao.selectWithPaging(new CollectionOptions(3, null)).toList().toBlocking().single()).hasSize(3);
-        mockDb.verifySelect("select * from table LIMIT 4");
-        verify(mockDb.getPreparedStatement(), never()).setObject(anyInt(), any());
+        mockDb.verifySelect("select * from table LIMIT ?", 4);
+        verify(mockDb.getPreparedStatement(), never()).setObject(anyInt(), any(CollectionOptions.class));
     }
 
     @Test
     public void shouldAddOrderByAsc() throws SQLException {
         CollectionOptions collectionOptions = new CollectionOptions("name", CollectionOptions.SortOrder.ASC);
         collectionOptionsDao.selectWithSorting(collectionOptions).toBlocking().singleOrDefault(null);
-        mockDb.verifySelect("select * from table ORDER BY name ASC LIMIT 101");
+        mockDb.verifySelect("select * from table ORDER BY name ASC LIMIT ?", 101);
     }
 
     @Test
     public void shouldAddOrderByDesc() throws SQLException {
         CollectionOptions collectionOptions = new CollectionOptions("name", CollectionOptions.SortOrder.DESC);
         collectionOptionsDao.selectWithSorting(collectionOptions).toBlocking().singleOrDefault(null);
-        mockDb.verifySelect("select * from table ORDER BY name DESC LIMIT 101");
+        mockDb.verifySelect("select * from table ORDER BY name DESC LIMIT ?", 101);
     }
 
     @Test
     public void shouldNotAddOrderBy() throws SQLException {
         CollectionOptions collectionOptions = new CollectionOptions("badcolumn", CollectionOptions.SortOrder.ASC);
         collectionOptionsDao.selectWithSorting(collectionOptions).toBlocking().singleOrDefault(null);
-        mockDb.verifySelect("select * from table LIMIT 101");
+        mockDb.verifySelect("select * from table LIMIT ?", 101);
     }
 
     @Test
     public void shouldAddOrderByAndLimit() throws SQLException {
         CollectionOptions collectionOptions = new CollectionOptions(1, null, "name", CollectionOptions.SortOrder.ASC);
         collectionOptionsDao.selectWithSorting(collectionOptions).toBlocking().singleOrDefault(null);
-        mockDb.verifySelect("select * from table ORDER BY name ASC LIMIT 2");
+        mockDb.verifySelect("select * from table ORDER BY name ASC LIMIT ?", 2);
     }
 
     @Test
     public void shouldConvertCamelCaseToSnakeCase() throws SQLException {
         CollectionOptions collectionOptions = new CollectionOptions("userName", CollectionOptions.SortOrder.DESC);
         collectionOptionsDao.selectWithSortingCamelCase(collectionOptions).toBlocking().singleOrDefault(null);
-        mockDb.verifySelect("select * from table ORDER BY user_name DESC LIMIT 101");
+        mockDb.verifySelect("select * from table ORDER BY user_name DESC LIMIT ?", 101);
     }
 
     @Test
     public void shouldAddOptionsOrderByBeforeQueryOrderBy() throws SQLException {
         CollectionOptions collectionOptions = new CollectionOptions("name", CollectionOptions.SortOrder.ASC);
         collectionOptionsDao.selectWithDefaultSorting(collectionOptions).toBlocking().singleOrDefault(null);
-        mockDb.verifySelect("select * from table order by name ASC, id LIMIT 101");
+        mockDb.verifySelect("select * from table order by name ASC, id LIMIT ?", 101);
     }
 
     @Test
     public void shouldAddDefaultSortBeforeQueryOrderBy() throws SQLException {
         CollectionOptions collectionOptions = new CollectionOptions();
         collectionOptionsDao.selectWithDefaultSortingInQueryAndOptions(collectionOptions).toBlocking().singleOrDefault(null);
-        mockDb.verifySelect("select * from table order by text desc, id LIMIT 101");
+        mockDb.verifySelect("select * from table order by text desc, id LIMIT ?", 101);
     }
 
     @Test
     public void shouldAddOrderByBeforeQueryOrderByWithoutDefaultSort() throws Exception {
         CollectionOptions collectionOptions = new CollectionOptions("name", CollectionOptions.SortOrder.ASC);
         collectionOptionsDao.selectWithDefaultSortingInQueryAndOptions(collectionOptions).toBlocking().singleOrDefault(null);
-        mockDb.verifySelect("select * from table order by name ASC, id LIMIT 101");
+        mockDb.verifySelect("select * from table order by name ASC, id LIMIT ?", 101);
     }
 
     @Test
     public void shouldInjectSortBeforeQueriesLastOrderBy() throws SQLException {
         CollectionOptions collectionOptions = new CollectionOptions("name", CollectionOptions.SortOrder.ASC);
         collectionOptionsDao.selectWithMultipleOrderBy(collectionOptions).toBlocking().singleOrDefault(null);
-        mockDb.verifySelect("select name, lastname from customers where name = ANY(select first_name from persons order by first_name) order by name ASC, lastname LIMIT 101");
+        mockDb.verifySelect("select name, lastname from customers where name = ANY(select first_name from persons order by first_name) order by name ASC, lastname LIMIT ?", 101);
     }
 
     @Test
     public void shouldFindOrderByWithoutSpaceBefore() throws SQLException {
         CollectionOptions collectionOptions = new CollectionOptions("name", CollectionOptions.SortOrder.ASC);
         collectionOptionsDao.selectWithoutSpaceBeforeOrderBy(collectionOptions).toBlocking().singleOrDefault(null);
-        mockDb.verifySelect("select * from table\norder by name ASC, id LIMIT 101");
+        mockDb.verifySelect("select * from table\norder by name ASC, id LIMIT ?", 101);
+    }
+
+    @Test
+    public void shouldUseSameSqlForDifferentPages() throws SQLException {
+        collectionOptionsDao.selectWithSorting(new CollectionOptions(3, 3, "name", CollectionOptions.SortOrder.ASC)).toBlocking().subscribe();
+        collectionOptionsDao.selectWithSorting(new CollectionOptions(5, 10, "name", CollectionOptions.SortOrder.ASC)).toBlocking().subscribe();
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(mockDb.getConnection(), times(2)).prepareStatement(sql.capture());
+        assertThat(sql.getAllValues().get(0))
+            .isEqualTo("select * from table ORDER BY name ASC LIMIT ? OFFSET ?")
+            .isSameAs(sql.getAllValues().get(1));
+        verify(mockDb.getPreparedStatement()).setObject(1, 4);
+        verify(mockDb.getPreparedStatement()).setObject(2, 3);
+        verify(mockDb.getPreparedStatement()).setObject(1, 6);
+        verify(mockDb.getPreparedStatement()).setObject(2, 10);
+    }
+
+    @Test
+    public void shouldPageByKeyset() throws SQLException {
+        mockDb.addRows(4);
+        CollectionOptions firstPage = new CollectionOptions(3, 5);
+        firstPage.setSortBy("name");
+        assertThat(collectionOptionsDao.selectWithKeyset(firstPage).toList().toBlocking().single()).hasSize(3);
+        mockDb.verifySelect("SELECT * FROM (select * from table) AS keyset ORDER BY col1 LIMIT ?", 4);
+        assertThat(firstPage.isLastRecord()).isFalse();
+        assertThat(firstPage.getNextCursor()).isNotNull();
+
+        CollectionOptions nextPage = new CollectionOptions(3, null);
+        nextPage.setCursor(firstPage.getNextCursor());
+        collectionOptionsDao.selectWithKeyset(nextPage).toList().toBlocking().single();
+        verify(mockDb.getConnection()).prepareStatement("SELECT * FROM (select * from table) AS keyset WHERE (col1) > (?) ORDER BY col1 LIMIT ?");
+        verify(mockDb.getPreparedStatement()).setObject(1, "test");
+        verify(mockDb.getPreparedStatement()).setObject(2, 4);
+    }
+
+    @Test
+    public void shouldPageByKeysetInDescendingOrder() throws SQLException {
+        mockDb.addRows(1);
+        CollectionOptions collectionOptions = new CollectionOptions(3, null, null, CollectionOptions.SortOrder.DESC);
+        collectionOptions.setCursor("WyJ0ZXN0Il0");
+        assertThat(collectionOptionsDao.selectWithKeyset(collectionOptions).toList().toBlocking().single()).hasSize(1);
+        mockDb.verifySelect("SELECT * FROM (select * from table) AS keyset WHERE (col1) < (?) ORDER BY col1 DESC LIMIT ?", "test", 4);
+        assertThat(collectionOptions.isLastRecord()).isTrue();
+        assertThat(collectionOptions.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void shouldFailOnInvalidKeysetCursor() {
+        CollectionOptions collectionOptions = new CollectionOptions(3, null);
+        collectionOptions.setCursor("not a cursor");
+        assertThatThrownBy(() -> collectionOptionsDao.selectWithKeyset(collectionOptions).toBlocking().subscribe())
+            .isInstanceOf(InvalidCursorException.class)
+            .hasMessage("Invalid cursor: not a cursor");
+    }
+
+    @Test
+    public void shouldFailOnKeysetCursorOfOtherKeyset() {
+        CollectionOptions collectionOptions = new CollectionOptions(3, null);
+        collectionOptions.setCursor("WyJ0ZXN0IiwxXQ");
+        assertThatThrownBy(() -> collectionOptionsDao.selectWithKeyset(collectionOptions).toBlocking().subscribe())
+            .isInstanceOf(InvalidCursorException.class)
+            .hasMessage("Invalid cursor: WyJ0ZXN0IiwxXQ");
+    }
+
+    @Test
+    public void shouldFailOnKeysetColumnWithoutProperty() {
+        assertThatThrownBy(() -> collectionOptionsDao.selectWithUnknownKeyset(new CollectionOptions()))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessage("Keyset column id has no matching property named id in KeysetRow");
+    }
+
+    record KeysetRow(String col1) {
     }
 
     interface CollectionOptionsDao {
@@ -202,5 +279,11 @@ public class CollectionOptionsTest {
 
         @Query(value = "select * from table\norder by id", allowedSortColumns = {"name"})
         Observable<String> selectWithoutSpaceBeforeOrderBy(CollectionOptions collectionOptions);
+
+        @Query(value = "select * from table", keyset = "col1")
+        Observable<KeysetRow> selectWithKeyset(CollectionOptions collectionOptions);
+
+        @Query(value = "select * from table", keyset = "id")
+        Observable<KeysetRow> selectWithUnknownKeyset(CollectionOptions collectionOptions);
     }
 }
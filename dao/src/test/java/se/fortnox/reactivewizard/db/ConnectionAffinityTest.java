@@ -0,0 +1,155 @@
+package se.fortnox.reactivewizard.db;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+import se.fortnox.reactivewizard.db.statement.DbStatementFactoryFactory;
+import se.fortnox.reactivewizard.db.transactions.DaoTransactionsFlux;
+import se.fortnox.reactivewizard.db.transactions.DaoTransactionsFluxImpl;
+import se.fortnox.reactivewizard.json.JsonSerializerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConnectionAffinityTest {
+
+    private final MockDb db = new MockDb();
+
+    @Test
+    public void shouldKeepConnectionBetweenStatements() throws SQLException {
+        TestDao dao = createDao(config(1, 300000));
+
+        dao.update().block();
+        dao.update().block();
+        dao.update().block();
+
+        db.verifyConnectionsUsed(1);
+        verify(db.getConnection(), never()).close();
+    }
+
+    @Test
+    public void shouldKeepConnectionAfterTransaction() throws SQLException {
+        TestDao             dao                 = createDao(config(1, 300000));
+        DaoTransactionsFlux daoTransactionsFlux = new DaoTransactionsFluxImpl();
+        when(db.getPreparedStatement().executeBatch()).thenReturn(new int[]{1, 1});
+
+        daoTransactionsFlux.executeTransaction(dao.update(), dao.update()).block();
+        dao.update().block();
+
+        db.verifyConnectionsUsed(1);
+        verify(db.getConnection()).commit();
+        verify(db.getConnection(), never()).close();
+    }
+
+    @Test
+    public void shouldReturnConnectionToPoolWhenKeptLongEnough() throws SQLException {
+        TestDao dao = createDao(config(1, 0));
+
+        dao.update().block();
+        dao.update().block();
+
+        db.verifyConnectionsUsed(2);
+        verify(db.getConnection(), timeout(1000).times(2)).close();
+    }
+
+    @Test
+    public void shouldReplaceClosedConnection() throws SQLException {
+        TestDao dao = createDao(config(1, 300000));
+        when(db.getConnection().isClosed()).thenReturn(true);
+
+        dao.update().block();
+        dao.update().block();
+
+        db.verifyConnectionsUsed(2);
+    }
+
+    @Test
+    public void shouldReturnConnectionOfIdleThreadToPool() throws SQLException {
+        DatabaseConfig config = config(1, 300000);
+        config.setIdleTimeout(50);
+        TestDao dao = createDao(config);
+
+        dao.update().block();
+
+        verify(db.getConnection(), timeout(1000)).close();
+    }
+
+    @Test
+    public void shouldValidateConnectionThatHasBeenIdle() throws SQLException, InterruptedException {
+        TestDao dao = createDao(config(1, 300000));
+
+        dao.update().block();
+        Thread.sleep(ConnectionAffinity.VALIDATE_AFTER_IDLE_MILLIS + 100);
+        when(db.getConnection().isValid(anyInt())).thenReturn(false);
+        dao.update().block();
+
+        db.verifyConnectionsUsed(2);
+        verify(db.getConnection()).close();
+    }
+
+    @Test
+    public void shouldNotValidateConnectionThatWasJustUsed() throws SQLException {
+        TestDao dao = createDao(config(1, 300000));
+
+        dao.update().block();
+        dao.update().block();
+
+        verify(db.getConnection(), never()).isValid(anyInt());
+    }
+
+    @Test
+    public void shouldNotAllowUseOfConnectionAfterClose() throws SQLException {
+        ConnectionAffinity connectionAffinity = new ConnectionAffinity(db.getConnectionProvider(), 1, 300000, 0);
+        Connection         connection         = Mono.fromCallable(connectionAffinity::get)
+            .subscribeOn(connectionAffinity.scheduler())
+            .block();
+
+        connection.close();
+
+        assertThat(connection.isClosed()).isTrue();
+        assertThatThrownBy(() -> connection.prepareStatement("select 1"))
+            .isInstanceOf(SQLException.class)
+            .hasMessage("Connection is closed");
+        verify(db.getConnection(), never()).prepareStatement(any());
+    }
+
+    @Test
+    public void shouldRequireFewerThreadsThanConnections() {
+        DatabaseConfig config = config(5, 300000);
+
+        assertThatThrownBy(() -> new DbProxy(config, db.getConnectionProvider(), new DbStatementFactoryFactory(),
+            new JsonSerializerFactory()))
+            .hasMessage("connectionAffinityThreads must be less than poolSize");
+    }
+
+    private TestDao createDao(DatabaseConfig config) throws SQLException {
+        db.setUpdatedRows(1);
+        when(db.getConnection().getAutoCommit()).thenReturn(true);
+        when(db.getConnection().isValid(anyInt())).thenReturn(true);
+        DbProxy dbProxy = new DbProxy(config, db.getConnectionProvider(), new DbStatementFactoryFactory(),
+            new JsonSerializerFactory());
+        return dbProxy.create(TestDao.class);
+    }
+
+    private static DatabaseConfig config(int affinityThreads, long maxLifetime) {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setPoolSize(5);
+        config.setConnectionAffinityThreads(affinityThreads);
+        config.setMaxLifetime(maxLifetime);
+        return config;
+    }
+
+    interface TestDao {
+        @Update("update foo set key=val")
+        Mono<Integer> update();
+    }
+}
@@ -3,6 +3,10 @@ package se.fortnox.reactivewizard.db;
 import org.junit.Test;
 import se.fortnox.reactivewizard.db.config.DatabaseConfig;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class ConnectionProviderTest {
@@ -18,4 +22,38 @@ public class ConnectionProviderTest {
             connectionProvider.close();
         }
     }
+
+    @Test
+    public void shouldUseReplicasInTurn() throws SQLException {
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setUrl("jdbc:h2:mem:primary");
+        databaseConfig.setReplicaUrls(List.of("jdbc:h2:mem:replica1", "jdbc:h2:mem:replica2"));
+        ConnectionProviderImpl connectionProvider = new ConnectionProviderImpl(databaseConfig);
+        try {
+            assertThat(urlOf(connectionProvider.get())).isEqualTo("jdbc:h2:mem:primary");
+            assertThat(urlOf(connectionProvider.getReplica())).isEqualTo("jdbc:h2:mem:replica1");
+            assertThat(urlOf(connectionProvider.getReplica())).isEqualTo("jdbc:h2:mem:replica2");
+            assertThat(urlOf(connectionProvider.getReplica())).isEqualTo("jdbc:h2:mem:replica1");
+        } finally {
+            connectionProvider.close();
+        }
+    }
+
+    @Test
+    public void shouldUsePrimaryWithoutReplicas() throws SQLException {
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setUrl("jdbc:h2:mem:primary");
+        ConnectionProviderImpl connectionProvider = new ConnectionProviderImpl(databaseConfig);
+        try {
+            assertThat(urlOf(connectionProvider.getReplica())).isEqualTo("jdbc:h2:mem:primary");
+        } finally {
+            connectionProvider.close();
+        }
+    }
+
+    private static String urlOf(Connection connection) throws SQLException {
+        try (connection) {
+            return connection.getMetaData().getURL();
+        }
+    }
 }
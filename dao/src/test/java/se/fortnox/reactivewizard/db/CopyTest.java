@@ -0,0 +1,146 @@
+package se.fortnox.reactivewizard.db;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CopyTest {
+
+    private ConnectionProviderImpl connectionProvider;
+    private CopyDao                dao;
+
+    @Before
+    public void setUp() throws SQLException {
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setUrl("jdbc:h2:mem:copy");
+        connectionProvider = new ConnectionProviderImpl(databaseConfig);
+        try (Connection connection = connectionProvider.get()) {
+            connection.createStatement().execute("CREATE TABLE event (id INT PRIMARY KEY, event_type VARCHAR(20))");
+        }
+        dao = new DbProxy(databaseConfig, connectionProvider).create(CopyDao.class);
+    }
+
+    @After
+    public void tearDown() {
+        connectionProvider.close();
+    }
+
+    @Test
+    public void shouldInsertListOfRows() {
+        List<Event> events = IntStream.range(0, 5).mapToObj(id -> new Event(id, "type" + id)).toList();
+
+        assertThat(dao.insert(events).block()).isEqualTo(5);
+
+        assertThat(dao.findAll().collectList().block()).isEqualTo(events);
+    }
+
+    @Test
+    public void shouldInsertFluxOfRows() {
+        dao.insertAll(Flux.range(0, 3).map(id -> new Event(id, null))).block();
+
+        assertThat(dao.findAll().collectList().block())
+            .containsExactly(new Event(0, null), new Event(1, null), new Event(2, null));
+    }
+
+    @Test
+    public void shouldProduceRowsOfPublisherOffTheConnectionThread() {
+        Scheduler               dbScheduler  = Schedulers.newBoundedElastic(1, Integer.MAX_VALUE, "copy-db");
+        CopyDao                 singleThread = new DbProxy(new DatabaseConfig(), connectionProvider)
+            .usingConnectionProvider(connectionProvider, dbScheduler)
+            .create(CopyDao.class);
+        AtomicReference<String> producer     = new AtomicReference<>();
+
+        try {
+            singleThread.insertAll(Flux.defer(() -> {
+                producer.set(Thread.currentThread().getName());
+                return Flux.range(0, 3).map(id -> new Event(id, "type"));
+            })).block();
+        } finally {
+            dbScheduler.dispose();
+        }
+
+        assertThat(producer.get()).doesNotStartWith("copy-db");
+        assertThat(dao.findAll().collectList().block()).hasSize(3);
+    }
+
+    @Test
+    public void shouldInsertNothingIfAnyRowFails() {
+        List<Event> events = List.of(new Event(1, "a"), new Event(2, "b"), new Event(1, "c"));
+
+        assertThatThrownBy(() -> dao.insert(events).block()).isInstanceOf(RuntimeException.class);
+
+        assertThat(dao.findAll().collectList().block()).isEmpty();
+    }
+
+    @Test
+    public void shouldCancelPublisherWhenRowsCannotBeInserted() throws InterruptedException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        Flux<Event>    events    = Flux.just(new Event(1, "a"), new Event(1, "b"))
+            .concatWith(Flux.never())
+            .doOnCancel(cancelled::countDown);
+
+        assertThatThrownBy(() -> dao.insertInBatches(events).block()).isInstanceOf(RuntimeException.class);
+
+        assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    public void shouldInsertInBatchesWithoutCopySupport() throws SQLException {
+        MockDb  mockDb  = new MockDb();
+        CopyDao mockDao = new DbProxy(new DatabaseConfig(), mockDb.getConnectionProvider()).create(CopyDao.class);
+        when(mockDb.getConnection().getAutoCommit()).thenReturn(true);
+
+        mockDao.insert(IntStream.range(0, 5).mapToObj(id -> new Event(id, "type")).toList()).block();
+
+        verify(mockDb.getConnection()).prepareStatement("INSERT INTO event (id, event_type) VALUES (?, ?)");
+        verify(mockDb.getPreparedStatement(), times(5)).addBatch();
+        verify(mockDb.getPreparedStatement(), times(3)).executeBatch();
+        verify(mockDb.getConnection()).commit();
+    }
+
+    @Test
+    public void shouldFailOnColumnWithoutProperty() {
+        assertThatThrownBy(() -> dao.insertUnknownColumn(List.of()))
+            .isInstanceOf(RuntimeException.class)
+            .hasMessageContaining("unknownColumn");
+    }
+
+    record Event(Integer id, String eventType) {
+    }
+
+    interface CopyDao {
+        @Copy(table = "event", columns = {"id", "event_type"}, batchSize = 2)
+        Mono<Long> insert(List<Event> events);
+
+        @Copy(table = "event", columns = {"id", "event_type"})
+        Mono<Void> insertAll(Flux<Event> events);
+
+        @Copy(table = "event", columns = {"id", "event_type"}, batchSize = 2)
+        Mono<Long> insertInBatches(Flux<Event> events);
+
+        @Copy(table = "event", columns = {"id", "unknown_column"})
+        Mono<Long> insertUnknownColumn(List<Event> events);
+
+        @Query("SELECT id, event_type FROM event ORDER BY id")
+        Flux<Event> findAll();
+    }
+}
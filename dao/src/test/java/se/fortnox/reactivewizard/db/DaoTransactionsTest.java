@@ -5,6 +5,7 @@ import org.junit.Test;
 import org.mockito.InOrder;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.scheduler.VirtualTimeScheduler;
 import rx.Observable;
@@ -310,6 +311,91 @@ public class DaoTransactionsTest {
         verify(conn).close();
     }
 
+    @Test
+    public void shouldBatchWhenSameQueryInSequenceInStreamingTransaction() throws SQLException {
+        when(db.getPreparedStatement().executeBatch())
+                .thenReturn(new int[]{1, 1});
+        when(db.getPreparedStatement().getUpdateCount())
+                .thenReturn(1);
+
+        daoTransactionsFlux.executeStreamingTransaction(Flux.just(
+                dao.updateSuccessFlux(),
+                dao.updateSuccessFlux(),
+                dao.updateOtherSuccessFlux()
+        )).block();
+
+        verify(db.getPreparedStatement(), times(2)).addBatch();
+        verify(db.getPreparedStatement()).executeBatch();
+        verify(db.getPreparedStatement()).executeUpdate();
+
+        db.verifyConnectionsUsed(1);
+        Connection conn = db.getConnection();
+        verify(conn).setAutoCommit(false);
+        verify(conn).commit();
+        verify(conn).close();
+    }
+
+    @Test
+    public void shouldExecuteStatementsOfStreamingTransactionAsTheyArrive() throws SQLException {
+        Sinks.Many<Mono<?>> daoCalls = Sinks.many().unicast().onBackpressureBuffer();
+        Mono<Void> transaction = daoTransactionsFlux.executeStreamingTransaction(daoCalls.asFlux()).cache();
+        transaction.subscribe();
+
+        daoCalls.tryEmitNext(dao.updateSuccessFlux());
+        daoCalls.tryEmitNext(dao.updateOtherSuccessFlux());
+
+        verify(db.getPreparedStatement(), timeout(1000).times(2)).executeUpdate();
+        verify(db.getConnection(), never()).commit();
+
+        daoCalls.tryEmitComplete();
+        transaction.block();
+
+        verify(db.getConnection()).commit();
+        verify(db.getConnection()).close();
+    }
+
+    @Test
+    public void shouldExecuteSingleStatementOfStreamingTransactionBeforeNextArrives() throws SQLException {
+        Sinks.Many<Mono<?>> daoCalls = Sinks.many().unicast().onBackpressureBuffer();
+        Mono<Void> transaction = daoTransactionsFlux.executeStreamingTransaction(daoCalls.asFlux()).cache();
+        transaction.subscribe();
+
+        daoCalls.tryEmitNext(dao.updateSuccessFlux());
+
+        verify(db.getPreparedStatement(), timeout(1000)).executeUpdate();
+        verify(db.getConnection(), never()).commit();
+
+        daoCalls.tryEmitComplete();
+        transaction.block();
+
+        verify(db.getConnection()).commit();
+        verify(db.getConnection()).close();
+    }
+
+    @Test
+    public void shouldRollbackStreamingTransactionOnFailure() throws SQLException {
+        db.setUpdatedRows(0);
+
+        assertThatExceptionOfType(RuntimeException.class)
+                .isThrownBy(() -> daoTransactionsFlux.executeStreamingTransaction(Flux.just(
+                        dao.updateSuccessFlux(),
+                        dao.updateFailFlux()
+                )).block())
+                .withCauseInstanceOf(MinimumAffectedRowsException.class);
+
+        Connection conn = db.getConnection();
+        verify(conn).rollback();
+        verify(conn, never()).commit();
+        verify(conn).close();
+    }
+
+    @Test
+    public void shouldNotUseConnectionForEmptyStreamingTransaction() throws SQLException {
+        daoTransactionsFlux.executeStreamingTransaction(Flux.<Mono<?>>empty()).block();
+
+        db.verifyConnectionsUsed(0);
+    }
+
     @Test
     public void shouldNotFailIfQueryIsSubscribedTwice() throws SQLException {
         db.setUpdatedRows(1);
@@ -512,6 +598,9 @@ public class DaoTransactionsTest {
 
         @Update(value = "update foo set key=val", minimumAffected = 0)
         Mono<Integer> updateSuccessFlux();
+
+        @Update(value = "update foo set key=val2", minimumAffected = 0)
+        Mono<Integer> updateOtherSuccessFlux();
     }
 
 }
@@ -0,0 +1,78 @@
+package se.fortnox.reactivewizard.db;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+import se.fortnox.reactivewizard.db.transactions.DaoTransactionsFluxImpl;
+
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+
+public class DbEngineTest {
+
+    private final MockDb        db         = new MockDb();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final DbProxy       dbProxy    = new DbProxy(new DatabaseConfig(), db.getConnectionProvider());
+    private final DbEngine      engine     = (statementContext, statementFactory) -> {
+        executions.incrementAndGet();
+        return Flux.just("from engine");
+    };
+
+    @Test
+    public void shouldExecuteStatementsWithEngine() throws SQLException {
+        EngineDao dao = dbProxy.usingEngine(engine).create(EngineDao.class);
+
+        assertThat(dao.select().collectList().block()).containsExactly("from engine");
+
+        assertThat(executions).hasValue(1);
+        db.verifyConnectionsUsed(0);
+    }
+
+    @Test
+    public void shouldExecuteStatementsWithJdbcByDefault() throws SQLException {
+        db.addRows(1);
+        db.addRowColumn(1, 1, "name", String.class, "from jdbc");
+        EngineDao dao = dbProxy.create(EngineDao.class);
+
+        assertThat(dao.select().collectList().block()).containsExactly("from jdbc");
+
+        db.verifyConnectionsUsed(1);
+    }
+
+    @Test
+    public void shouldExecuteTransactionsWithJdbc() throws SQLException {
+        db.setUpdatedRows(1);
+        EngineDao dao = dbProxy.usingEngine(engine).create(EngineDao.class);
+
+        new DaoTransactionsFluxImpl().executeTransaction(dao.update()).block();
+
+        assertThat(executions).hasValue(0);
+        db.verifyConnectionsUsed(1);
+        verify(db.getConnection()).commit();
+    }
+
+    @Test
+    public void shouldKeepEngineWhenChangingConnectionProvider() throws SQLException {
+        MockDb    otherDb = new MockDb();
+        EngineDao dao     = dbProxy.usingEngine(engine)
+            .usingConnectionProvider(otherDb.getConnectionProvider())
+            .create(EngineDao.class);
+
+        dao.select().blockLast();
+
+        assertThat(executions).hasValue(1);
+        otherDb.verifyConnectionsUsed(0);
+    }
+
+    interface EngineDao {
+        @Query("select name from foo")
+        Flux<String> select();
+
+        @Update("update foo set name='bar'")
+        Mono<Integer> update();
+    }
+}
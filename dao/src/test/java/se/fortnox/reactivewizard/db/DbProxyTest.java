@@ -12,6 +12,7 @@ import rx.Observable;
 import rx.observers.TestSubscriber;
 import se.fortnox.reactivewizard.config.TestInjector;
 import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+import se.fortnox.reactivewizard.db.statement.DbStatementFactoryFactory;
 import se.fortnox.reactivewizard.json.JsonSerializerFactory;
 import se.fortnox.reactivewizard.util.DebugUtil;
 
@@ -118,6 +119,21 @@ public class DbProxyTest {
         verify(mockDb.getConnection()).close();
     }
 
+    @Test
+    public void shouldRunQueriesOnVirtualThreadsWhenConfigured() throws SQLException {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setPoolSize(2);
+        config.setVirtualThreads(true);
+        mockDb = new MockDb();
+        mockDb.addRowColumn(1, 1, "sql_val", String.class, "myname");
+        DbProxyTestDao dao = new DbProxy(config, mockDb.getConnectionProvider(), new DbStatementFactoryFactory(), new JsonSerializerFactory())
+            .create(DbProxyTestDao.class);
+
+        assertThat(dao.selectFlux("mykey").single().block().getSqlVal()).isEqualTo("myname");
+        mockDb.verifySelect("select * from table where key=?", "mykey");
+        verify(mockDb.getConnection()).close();
+    }
+
     @Test
     public void shouldUpdateDbWithInputAndReturnAffectedRows() throws SQLException {
         mockDb.setUpdatedRows(1);
@@ -196,7 +212,7 @@ public class DbProxyTest {
             dbProxyTestDao.methodMissingAnnotation().toBlocking().singleOrDefault(null);
             fail("expected exception");
         } catch (Exception e) {
-            assertThat(e.getMessage()).isEqualTo("Missing annotation @Query or @Update required");
+            assertThat(e.getMessage()).isEqualTo("Missing annotation @Query, @Update or @Copy required");
             return;
         }
         fail("expected exception");
@@ -295,7 +311,7 @@ public class DbProxyTest {
         when(newConnectionProvider.get()).thenReturn(mockDb.getConnection());
 
         Scheduler newScheduler = mock(Scheduler.class);
-        when(newScheduler.createWorker()).thenReturn(Schedulers.boundedElastic().createWorker());
+        when(newScheduler.schedule(any())).then(invocation -> Schedulers.boundedElastic().schedule(invocation.getArgument(0)));
 
         // when
         DbProxy oldDbProxy = new DbProxy(config, mock(ConnectionProvider.class));
@@ -305,7 +321,7 @@ public class DbProxyTest {
 
         // then
         assertThat(oldDbProxy).isNotSameAs(newDbProxy);
-        verify(newScheduler).createWorker();
+        verify(newScheduler).schedule(any());
         verify(newConnectionProvider).get();
     }
 
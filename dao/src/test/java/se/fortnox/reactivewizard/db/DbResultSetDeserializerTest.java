@@ -1,5 +1,6 @@
 package se.fortnox.reactivewizard.db;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.assertj.core.api.Assertions;
 import org.assertj.core.api.ObjectAssert;
 import org.junit.After;
@@ -87,6 +88,17 @@ public class DbResultSetDeserializerTest {
         thenDeserialized(Integer.class).isNull();
     }
 
+    @Test
+    public void shouldDeserializeNullFloatingPoint() throws SQLException {
+        when(rs.getDouble(1)).thenReturn(0d);
+        when(rs.getFloat(1)).thenReturn(0f);
+        when(rs.wasNull()).thenReturn(true);
+        thenDeserialized(double.class).isEqualTo(0d);
+        thenDeserialized(Double.class).isNull();
+        thenDeserialized(float.class).isEqualTo(0f);
+        thenDeserialized(Float.class).isNull();
+    }
+
     @Test
     public void shouldDeserializeLong() throws SQLException {
         when(rs.getLong(1)).thenReturn(567888L);
@@ -589,6 +601,49 @@ public class DbResultSetDeserializerTest {
         assertThat(myTestObj.getBytes()).isEqualTo("hello".getBytes());
     }
 
+    @Test
+    public void shouldDeserializeRecordWithPrimitivesAndMissingColumns() throws SQLException {
+        DbResultSetDeserializer des = new DbResultSetDeserializer(PrimitiveRecord.class);
+        when(meta.getColumnCount()).thenReturn(2);
+        when(meta.getColumnLabel(1)).thenReturn("count");
+        when(meta.getColumnLabel(2)).thenReturn("child.name");
+        when(rs.getLong(1)).thenReturn(5L);
+        when(rs.getString(2)).thenReturn("MyChildValue");
+        when(rs.getMetaData()).thenReturn(meta);
+
+        PrimitiveRecord first = (PrimitiveRecord)des.deserialize(rs);
+        assertThat(first).isEqualTo(new PrimitiveRecord(5L, false, null, new PrimitiveRecord.Child("MyChildValue", 0)));
+
+        when(rs.getLong(1)).thenReturn(6L);
+        when(rs.getString(2)).thenReturn(null);
+        PrimitiveRecord second = (PrimitiveRecord)des.deserialize(rs);
+        assertThat(second).isEqualTo(new PrimitiveRecord(6L, false, null, new PrimitiveRecord.Child(null, 0)));
+    }
+
+    @Test
+    public void shouldDeserializeRecordWithJacksonAnnotations() throws SQLException {
+        DbResultSetDeserializer des = new DbResultSetDeserializer(AnnotatedRecord.class);
+        when(meta.getColumnCount()).thenReturn(1);
+        when(meta.getColumnLabel(1)).thenReturn("name");
+        when(rs.getString(1)).thenReturn("MyValue");
+        when(rs.getMetaData()).thenReturn(meta);
+
+        AnnotatedRecord record = (AnnotatedRecord)des.deserialize(rs);
+        assertThat(record.name()).isEqualTo("MyValue");
+    }
+
+    @Test
+    public void shouldDeserializeRecordWithNestedImmutableObject() throws SQLException {
+        DbResultSetDeserializer des = new DbResultSetDeserializer(RecordWithImmutableChild.class);
+        when(meta.getColumnCount()).thenReturn(1);
+        when(meta.getColumnLabel(1)).thenReturn("child.sql_val");
+        when(rs.getString(1)).thenReturn("MyChildValue");
+        when(rs.getMetaData()).thenReturn(meta);
+
+        RecordWithImmutableChild record = (RecordWithImmutableChild)des.deserialize(rs);
+        assertThat(record.child().getSqlVal()).isEqualTo("MyChildValue");
+    }
+
     private ObjectAssert<?> thenDeserialized(Class<?> cls) throws SQLException {
         DbResultSetDeserializer des = new DbResultSetDeserializer(cls);
         when(meta.getColumnCount()).thenReturn(1);
@@ -600,4 +655,15 @@ public class DbResultSetDeserializerTest {
     enum TestEnum {
         T1, T2, T3
     }
+
+    record PrimitiveRecord(long count, boolean flag, String text, Child child) {
+        record Child(String name, int number) {
+        }
+    }
+
+    record AnnotatedRecord(@JsonProperty("name") String name) {
+    }
+
+    record RecordWithImmutableChild(ImmutableDbTestObj child) {
+    }
 }
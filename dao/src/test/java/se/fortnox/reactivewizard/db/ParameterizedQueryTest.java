@@ -2,6 +2,7 @@ package se.fortnox.reactivewizard.db;
 
 import com.google.common.collect.Lists;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import rx.Observable;
 import se.fortnox.reactivewizard.db.config.DatabaseConfig;
 
@@ -30,6 +31,16 @@ public class ParameterizedQueryTest {
         verify(db.getPreparedStatement()).setObject(2, "myname");
     }
 
+    @Test
+    public void shouldBuildSqlOfStaticQueryOnce() throws SQLException {
+        dao.namedParameters("myid", "myname").toBlocking().singleOrDefault(null);
+        dao.namedParameters("otherid", "othername").toBlocking().singleOrDefault(null);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(db.getConnection(), times(2)).prepareStatement(sql.capture());
+        assertThat(sql.getAllValues().get(0)).isSameAs(sql.getAllValues().get(1));
+    }
+
     @Test
     public void shouldResolveNestedParametersFromQuery() throws SQLException {
         dao.nestedParameters("myid", new MyTestParam()).toBlocking().singleOrDefault(null);
@@ -254,11 +265,88 @@ public class ParameterizedQueryTest {
         verify(db.getConnection()).createArrayOf("uuid", new Object[]{uuid1, uuid2});
     }
 
+    @Test
+    public void shouldExpandListIntoRowsOfValues() throws SQLException {
+        db.setUpdatedRows(2);
+
+        dao.insertRows(List.of(new MyTestParamRecord("a"), new MyTestParamRecord("b")), "tenant").toBlocking().single();
+
+        verify(db.getConnection()).prepareStatement("INSERT INTO a (name, tenant) VALUES (?, ?), (?, ?) ON CONFLICT DO NOTHING");
+        verify(db.getPreparedStatement()).setObject(1, "a");
+        verify(db.getPreparedStatement()).setObject(2, "tenant");
+        verify(db.getPreparedStatement()).setObject(3, "b");
+        verify(db.getPreparedStatement()).setObject(4, "tenant");
+    }
+
+    @Test
+    public void shouldSplitRowsOfValuesExceedingParameterLimit() throws SQLException {
+        db.setUpdatedRows(10);
+        when(db.getConnection().getAutoCommit()).thenReturn(true);
+        List<MyTestParamRecord> rows = Collections.nCopies(40000, new MyTestParamRecord("a"));
+
+        assertThat(dao.insertSingleColumnRows(rows).toBlocking().single()).isEqualTo(20);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        verify(db.getConnection(), times(2)).prepareStatement(sql.capture());
+        assertThat(sql.getAllValues().get(0).chars().filter(c -> c == '?')).hasSize(32765);
+        assertThat(sql.getAllValues().get(1).chars().filter(c -> c == '?')).hasSize(40000 - 32765);
+        verify(db.getPreparedStatement(), times(40000)).setObject(anyInt(), eq("a"));
+        verify(db.getConnection()).commit();
+    }
+
+    @Test
+    public void shouldNotExecuteEmptyListOfValues() throws SQLException {
+        assertThat(dao.insertSingleColumnRows(List.of()).toBlocking().single()).isZero();
+
+        verify(db.getConnection(), never()).prepareStatement(any());
+    }
+
+    @Test
+    public void shouldNotExecuteNullListOfValues() throws SQLException {
+        assertThat(dao.insertSingleColumnRows(null).toBlocking().single()).isZero();
+
+        verify(db.getConnection(), never()).prepareStatement(any());
+    }
+
+    @Test
+    public void shouldNotAllowListOfValuesInQuery() {
+        for (List<MyTestParamRecord> rows : Arrays.asList(List.of(new MyTestParamRecord("a")), List.<MyTestParamRecord>of(), null)) {
+            try {
+                dao.selectValuesOfRows(rows).toBlocking().single();
+                fail("Expected exception");
+            } catch (RuntimeException e) {
+                assertThat(e.getMessage()).isEqualTo("A list of VALUES is only supported for Update");
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotAllowBatchingOfListOfValues() {
+        try {
+            dao.insertRowsInBatches(List.of(new MyTestParamRecord("a"))).toBlocking().single();
+            fail("Expected exception");
+        } catch (RuntimeException e) {
+            assertThat(e.getMessage()).isEqualTo("Batching is not supported for Update with a list of VALUES");
+        }
+    }
+
     enum TestEnum {
         T1, T2, T3
     }
 
     interface TestDao {
+        @Update(value = "INSERT INTO a (name, tenant) VALUES (:rows.name, :tenant) ON CONFLICT DO NOTHING", minimumAffected = 0)
+        Observable<Integer> insertRows(List<MyTestParamRecord> rows, String tenant);
+
+        @Update(value = "INSERT INTO a (name) VALUES (:rows.name)", minimumAffected = 0)
+        Observable<Integer> insertSingleColumnRows(List<MyTestParamRecord> rows);
+
+        @Update(value = "INSERT INTO a (name) VALUES (:rows.name)", batchSize = 10)
+        Observable<Integer> insertRowsInBatches(List<MyTestParamRecord> rows);
+
+        @Query("SELECT * FROM (VALUES (:rows.name)) AS v (name)")
+        Observable<String> selectValuesOfRows(List<MyTestParamRecord> rows);
+
         @Query("SELECT * FROM foo WHERE id=:id AND name=:name")
         Observable<String> namedParameters(String id, String name);
 
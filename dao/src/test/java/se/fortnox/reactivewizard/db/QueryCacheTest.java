@@ -0,0 +1,146 @@
+package se.fortnox.reactivewizard.db;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import se.fortnox.reactivewizard.CollectionOptions;
+import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+import se.fortnox.reactivewizard.db.transactions.DaoTransactionsFluxImpl;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueryCacheTest {
+
+    private final MockDb   mockDb = new MockDb();
+    private final CacheDao dao    = new DbProxy(new DatabaseConfig(), mockDb.getConnectionProvider()).create(CacheDao.class);
+
+    @Test
+    public void shouldReturnCachedResultForSameArguments() throws SQLException {
+        mockDb.addRows(2);
+
+        StepVerifier.create(dao.find("a")).expectNext("test", "test").verifyComplete();
+        StepVerifier.create(dao.find("a")).expectNext("test", "test").verifyComplete();
+        verifyQueriesExecuted(1);
+
+        StepVerifier.create(dao.find("b")).expectNext("test", "test").verifyComplete();
+        verifyQueriesExecuted(2);
+    }
+
+    @Test
+    public void shouldShareExecutionBetweenConcurrentCalls() throws SQLException {
+        mockDb.addRows(1);
+
+        StepVerifier.create(Flux.merge(dao.find("a"), dao.find("a"), dao.find("a")))
+            .expectNextCount(3)
+            .verifyComplete();
+
+        verifyQueriesExecuted(1);
+    }
+
+    @Test
+    public void shouldExecuteQueryAgainWhenCachedResultHasExpired() throws Exception {
+        mockDb.addRows(1);
+
+        dao.findWithShortTtl("a").blockLast();
+        Thread.sleep(100);
+        dao.findWithShortTtl("a").blockLast();
+
+        verifyQueriesExecuted(2);
+    }
+
+    @Test
+    public void shouldEvictResultsAboveMaxEntries() throws SQLException {
+        mockDb.addRows(1);
+
+        dao.findWithOneEntry("a").blockLast();
+        dao.findWithOneEntry("b").blockLast();
+        dao.findWithOneEntry("a").blockLast();
+
+        verifyQueriesExecuted(3);
+    }
+
+    @Test
+    public void shouldNotCacheErrors() throws SQLException {
+        mockDb.addRows(1);
+        when(mockDb.getPreparedStatement().executeQuery())
+            .thenThrow(new SQLException("failed"))
+            .thenReturn(mockDb.getResultSet());
+
+        StepVerifier.create(dao.find("a")).verifyErrorMessage("failed");
+        StepVerifier.create(dao.find("a")).expectNext("test").verifyComplete();
+        StepVerifier.create(dao.find("a")).expectNext("test").verifyComplete();
+
+        verifyQueriesExecuted(2);
+    }
+
+    @Test
+    public void shouldInvalidateCacheWhenUpdateHasExecuted() throws SQLException {
+        mockDb.addRows(1);
+        mockDb.setUpdatedRows(1);
+
+        dao.find("a").blockLast();
+        dao.update().block();
+        dao.find("a").blockLast();
+
+        verifyQueriesExecuted(2);
+    }
+
+    @Test
+    public void shouldInvalidateCacheWhenUpdateHasExecutedInTransaction() throws SQLException {
+        mockDb.addRows(1);
+        when(mockDb.getPreparedStatement().executeBatch()).thenReturn(new int[]{1, 1});
+
+        dao.find("a").blockLast();
+        new DaoTransactionsFluxImpl().executeTransaction(dao.update(), dao.update()).block();
+        dao.find("a").blockLast();
+
+        verifyQueriesExecuted(2);
+    }
+
+    @Test
+    public void shouldFailWhenInvalidatedQueryIsNotCached() {
+        assertThatExceptionOfType(RuntimeException.class)
+            .isThrownBy(() -> dao.updateInvalidatingUnknownQuery())
+            .withMessageStartingWith("No cached @Query method named findUncached found in");
+    }
+
+    @Test
+    public void shouldNotAllowCachingOfQueriesWithCollectionOptions() {
+        assertThatExceptionOfType(RuntimeException.class)
+            .isThrownBy(() -> dao.findPage(new CollectionOptions()))
+            .withMessageStartingWith("Caching is not supported for queries with CollectionOptions");
+    }
+
+    private void verifyQueriesExecuted(int count) throws SQLException {
+        verify(mockDb.getPreparedStatement(), times(count)).executeQuery();
+    }
+
+    interface CacheDao {
+        @Query(value = "select * from test where a = :a", cacheTtlMillis = 60000)
+        Flux<String> find(String a);
+
+        @Query(value = "select * from test where a = :a", cacheTtlMillis = 10)
+        Flux<String> findWithShortTtl(String a);
+
+        @Query(value = "select * from test where a = :a", cacheTtlMillis = 60000, cacheMaxEntries = 1)
+        Flux<String> findWithOneEntry(String a);
+
+        @Query("select * from test")
+        Flux<String> findUncached();
+
+        @Query(value = "select * from test", cacheTtlMillis = 60000)
+        Flux<String> findPage(CollectionOptions collectionOptions);
+
+        @Update(value = "update test set a = 1", invalidates = "find")
+        Mono<Void> update();
+
+        @Update(value = "update test set a = 1", invalidates = "findUncached")
+        Mono<Void> updateInvalidatingUnknownQuery();
+    }
+}
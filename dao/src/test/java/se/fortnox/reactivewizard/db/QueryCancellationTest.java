@@ -0,0 +1,108 @@
+package se.fortnox.reactivewizard.db;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class QueryCancellationTest {
+
+    private final MockDb        mockDb = new MockDb();
+    private final CancellingDao dao    = new DbProxy(new DatabaseConfig(), mockDb.getConnectionProvider())
+        .create(CancellingDao.class);
+
+    @Test
+    public void shouldSetQueryTimeout() throws SQLException {
+        dao.selectWithTimeout().blockLast();
+
+        verify(mockDb.getPreparedStatement()).setQueryTimeout(5);
+    }
+
+    @Test
+    public void shouldNotSetQueryTimeoutByDefault() throws SQLException {
+        dao.select().blockLast();
+
+        verify(mockDb.getPreparedStatement(), never()).setQueryTimeout(anyInt());
+    }
+
+    @Test
+    public void shouldCancelExecutingStatementWhenSubscriberCancels() throws Exception {
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(mockDb.getPreparedStatement().executeQuery()).thenAnswer(invocation -> {
+            executing.countDown();
+            cancelled.await(5, TimeUnit.SECONDS);
+            throw new SQLException("canceling statement due to user request");
+        });
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(mockDb.getPreparedStatement()).cancel();
+
+        Disposable subscription = dao.select().subscribe();
+        assertThat(executing.await(5, TimeUnit.SECONDS)).isTrue();
+        subscription.dispose();
+
+        verify(mockDb.getPreparedStatement(), timeout(1000)).cancel();
+        verify(mockDb.getConnection(), timeout(1000)).close();
+    }
+
+    @Test
+    public void shouldCancelStreamingStatementWhenSubscriberCancels() throws Exception {
+        CountDownLatch executing = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        when(mockDb.getPreparedStatement().executeQuery()).thenAnswer(invocation -> {
+            executing.countDown();
+            cancelled.await(5, TimeUnit.SECONDS);
+            throw new SQLException("canceling statement due to user request");
+        });
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(mockDb.getPreparedStatement()).cancel();
+
+        Disposable subscription = dao.selectStreaming().subscribe();
+        assertThat(executing.await(5, TimeUnit.SECONDS)).isTrue();
+        subscription.dispose();
+
+        verify(mockDb.getPreparedStatement(), timeout(1000)).cancel();
+        verify(mockDb.getConnection(), timeout(1000)).close();
+    }
+
+    @Test
+    public void shouldNotCancelStatementThatHasReturnedItsResult() throws SQLException {
+        mockDb.addRows(3);
+
+        dao.selectOne().block();
+
+        verify(mockDb.getConnection(), timeout(1000)).close();
+        verify(mockDb.getPreparedStatement(), never()).cancel();
+    }
+
+    interface CancellingDao {
+        @Query("select name from foo")
+        Flux<String> select();
+
+        @Query("select name from foo")
+        Mono<String> selectOne();
+
+        @Query(value = "select name from foo", fetchSize = 10)
+        Flux<String> selectStreaming();
+
+        @Query(value = "select name from foo", queryTimeoutSeconds = 5)
+        Flux<String> selectWithTimeout();
+    }
+}
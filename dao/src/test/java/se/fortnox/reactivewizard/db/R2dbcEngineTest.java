@@ -0,0 +1,186 @@
+package se.fortnox.reactivewizard.db;
+
+import io.r2dbc.h2.CloseableConnectionFactory;
+import io.r2dbc.h2.H2ConnectionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+import se.fortnox.reactivewizard.db.statement.MinimumAffectedRowsException;
+import se.fortnox.reactivewizard.db.transactions.DaoTransactionsFluxImpl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class R2dbcEngineTest {
+
+    private ConnectionProviderImpl     connectionProvider;
+    private CloseableConnectionFactory connectionFactory;
+    private UnicornDao                 dao;
+    private UnicornDao                 jdbcDao;
+
+    @Before
+    public void setUp() throws SQLException {
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setUrl("jdbc:h2:mem:r2dbc");
+        databaseConfig.setUser("sa");
+        databaseConfig.setPassword("");
+        connectionProvider = new ConnectionProviderImpl(databaseConfig);
+        try (Connection connection = connectionProvider.get()) {
+            connection.createStatement().execute("CREATE TABLE unicorn ("
+                + "id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(20), age INT, born DATE, seen TIMESTAMP, magic BOOLEAN)");
+        }
+        connectionFactory = H2ConnectionFactory.inMemory("r2dbc", "sa", "");
+        DbProxy dbProxy = new DbProxy(databaseConfig, connectionProvider);
+        jdbcDao = dbProxy.create(UnicornDao.class);
+        dao = dbProxy.usingEngine(new R2dbcEngine(connectionFactory)).create(UnicornDao.class);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Connection connection = connectionProvider.get()) {
+            connection.createStatement().execute("DROP ALL OBJECTS");
+        }
+        connectionFactory.close();
+        connectionProvider.close();
+    }
+
+    @Test
+    public void shouldBindParametersAndDeserializeRows() {
+        Unicorn unicorn = new Unicorn(1, "Sparkle", 7, LocalDate.of(2015, 3, 1), LocalDateTime.of(2022, 10, 1, 12, 30), true);
+        jdbcDao.insert(unicorn).block();
+
+        assertThat(dao.findByName("Sparkle").collectList().block()).containsExactly(unicorn);
+        assertThat(dao.findBornAfter(LocalDate.of(2015, 1, 1)).collectList().block()).containsExactly(unicorn);
+        assertThat(dao.findBornAfter(LocalDate.of(2016, 1, 1)).collectList().block()).isEmpty();
+    }
+
+    @Test
+    public void shouldDeserializeSingleColumns() {
+        jdbcDao.insert(new Unicorn(1, "Sparkle", 7, null, null, false)).block();
+        jdbcDao.insert(new Unicorn(2, "Glitter", 9, null, null, true)).block();
+
+        assertThat(dao.findNames().collectList().block()).containsExactly("Glitter", "Sparkle");
+        assertThat(dao.sumOfAges().block()).isEqualTo(16L);
+    }
+
+    @Test
+    public void shouldBindAndDeserializeNulls() {
+        Unicorn unicorn = new Unicorn(1, null, null, null, null, null);
+
+        dao.insert(unicorn).block();
+
+        assertThat(jdbcDao.findAll().collectList().block()).containsExactly(unicorn);
+        assertThat(dao.findAll().collectList().block()).containsExactly(unicorn);
+    }
+
+    @Test
+    public void shouldReturnUpdateCount() {
+        jdbcDao.insert(new Unicorn(1, "Sparkle", 7, null, null, false)).block();
+        jdbcDao.insert(new Unicorn(2, "Glitter", 9, null, null, false)).block();
+
+        assertThat(dao.setAges(10).block()).isEqualTo(2);
+
+        assertThat(jdbcDao.sumOfAges().block()).isEqualTo(20L);
+    }
+
+    @Test
+    public void shouldFailWhenMinimumAffectedIsNotReached() {
+        assertThatThrownBy(() -> dao.rename(1, "Sparkle").block())
+            .hasCauseInstanceOf(MinimumAffectedRowsException.class);
+    }
+
+    @Test
+    public void shouldReturnGeneratedKeys() {
+        GeneratedKey<Integer> key = dao.insertName("Sparkle").block();
+
+        assertThat(key.getKey()).isNotNull();
+        assertThat(jdbcDao.findByName("Sparkle").single().block().id()).isEqualTo(key.getKey());
+    }
+
+    @Test
+    public void shouldInsertListOfValues() {
+        assertThat(dao.insertNames(List.of(new Unicorn(null, "Sparkle", null, null, null, null),
+            new Unicorn(null, "Glitter", null, null, null, null)), 3).block()).isEqualTo(2);
+        assertThat(dao.insertNames(List.of(), 3).block()).isZero();
+
+        assertThat(jdbcDao.findNames().collectList().block()).containsExactly("Glitter", "Sparkle");
+        assertThat(jdbcDao.sumOfAges().block()).isEqualTo(6L);
+    }
+
+    @Test
+    public void shouldStreamRowsAsTheyAreRequested() {
+        for (int i = 0; i < 10; i++) {
+            jdbcDao.insert(new Unicorn(i, "unicorn" + i, i, null, null, null)).block();
+        }
+
+        assertThat(dao.findAllStreaming().take(3).map(Unicorn::id).collectList().block()).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    public void shouldExecuteTransactionsWithJdbc() {
+        new DaoTransactionsFluxImpl().executeTransaction(
+            dao.insert(new Unicorn(1, "Sparkle", null, null, null, null)),
+            dao.insert(new Unicorn(2, "Glitter", null, null, null, null))).block();
+
+        assertThat(dao.findNames().collectList().block()).containsExactly("Glitter", "Sparkle");
+    }
+
+    @Test
+    public void shouldNotBlockTheSubscribingThread() {
+        jdbcDao.insert(new Unicorn(1, "Sparkle", null, null, null, null)).block();
+        AtomicReference<String> thread = new AtomicReference<>();
+
+        dao.findNames().doOnNext(name -> thread.set(Thread.currentThread().getName())).blockLast();
+
+        assertThat(thread.get()).doesNotStartWith("DbProxy");
+    }
+
+    record Unicorn(Integer id, String name, Integer age, LocalDate born, LocalDateTime seen, Boolean magic) {
+    }
+
+    interface UnicornDao {
+        @Query("SELECT id, name, age, born, seen, magic FROM unicorn WHERE name = :name")
+        Flux<Unicorn> findByName(String name);
+
+        @Query("SELECT id, name, age, born, seen, magic FROM unicorn WHERE born > :born")
+        Flux<Unicorn> findBornAfter(LocalDate born);
+
+        @Query("SELECT id, name, age, born, seen, magic FROM unicorn ORDER BY id")
+        Flux<Unicorn> findAll();
+
+        @Query(value = "SELECT id, name, age, born, seen, magic FROM unicorn ORDER BY id", fetchSize = 2)
+        Flux<Unicorn> findAllStreaming();
+
+        @Query("SELECT name FROM unicorn ORDER BY name")
+        Flux<String> findNames();
+
+        @Query("SELECT SUM(age) FROM unicorn")
+        Mono<Long> sumOfAges();
+
+        @Update("INSERT INTO unicorn (id, name, age, born, seen, magic) "
+            + "VALUES (:unicorn.id, :unicorn.name, :unicorn.age, :unicorn.born, :unicorn.seen, :unicorn.magic)")
+        Mono<Void> insert(Unicorn unicorn);
+
+        @Update("INSERT INTO unicorn (name) VALUES (:name)")
+        Mono<GeneratedKey<Integer>> insertName(String name);
+
+        @Update(value = "INSERT INTO unicorn (name, age) VALUES (:unicorns.name, :age)", minimumAffected = 0)
+        Mono<Integer> insertNames(List<Unicorn> unicorns, int age);
+
+        @Update(value = "UPDATE unicorn SET age = :age", minimumAffected = 0)
+        Mono<Integer> setAges(int age);
+
+        @Update("UPDATE unicorn SET name = :name WHERE id = :id")
+        Mono<Void> rename(int id, String name);
+    }
+}
@@ -21,6 +21,7 @@ import java.sql.PreparedStatement;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -39,17 +40,13 @@ public class ReactiveStatementFactoryTest {
     @Mock
     private Scheduler scheduler;
 
-    @Mock
-    private Scheduler.Worker worker;
-
     private ReactiveStatementFactory statementFactory;
 
     @Before
     public void setUp() {
         when(pagingOutput.apply(any(), any())).then(invocationOnMock -> invocationOnMock.getArgument(0,
                 Flux.class));
-        when(scheduler.createWorker()).thenReturn(worker);
-        when(worker.schedule(any())).then(invocationOnMock -> {
+        when(scheduler.schedule(any())).then(invocationOnMock -> {
             invocationOnMock.getArgument(0, Runnable.class).run();
             return mock(Disposable.class);
         });
@@ -87,7 +84,7 @@ public class ReactiveStatementFactoryTest {
             }
 
             @Override
-            public void setFluxSink(FluxSink<?> fluxSink) {
+            public void setFluxSink(FluxSink<Object> fluxSink) {
                 this.fluxSink = fluxSink;
             }
 
@@ -96,10 +93,10 @@ public class ReactiveStatementFactoryTest {
     }
 
     @Test
-    public void shouldReleaseSchedulerWorkers() {
+    public void shouldScheduleStatementsWithoutCreatingWorkers() {
         Flux<Object> stmt = (Flux<Object>) statementFactory.create(new Object[0], new ConnectionScheduler(() -> mock(Connection.class), scheduler));
         stmt.blockFirst();
-        verify(scheduler, times(1)).createWorker();
-        verify(worker).dispose();
+        verify(scheduler, times(1)).schedule(any());
+        verify(scheduler, never()).createWorker();
     }
 }
@@ -0,0 +1,97 @@
+package se.fortnox.reactivewizard.db;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+import se.fortnox.reactivewizard.db.transactions.DaoTransactionsFlux;
+import se.fortnox.reactivewizard.db.transactions.DaoTransactionsFluxImpl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+public class ReplicaRoutingTest {
+
+    private final MockDb             primary            = new MockDb();
+    private final MockDb             replica            = new MockDb();
+    private final ConnectionProvider primaryProvider    = primary.getConnectionProvider();
+    private final ConnectionProvider replicaProvider    = replica.getConnectionProvider();
+    private final ConnectionProvider connectionProvider = new ConnectionProvider() {
+        @Override
+        public Connection get() {
+            return primaryProvider.get();
+        }
+
+        @Override
+        public Connection getReplica() {
+            return replicaProvider.get();
+        }
+    };
+    private final ReplicaDao          dao                 = new DbProxy(configWithReplica(), connectionProvider)
+        .create(ReplicaDao.class);
+    private final DaoTransactionsFlux daoTransactionsFlux = new DaoTransactionsFluxImpl();
+
+    @Test
+    public void shouldRunQueriesOnReplica() throws SQLException {
+        dao.find().collectList().block();
+
+        replica.verifySelect("select * from test");
+        replica.verifyConnectionsUsed(1);
+        primary.verifyConnectionsUsed(0);
+    }
+
+    @Test
+    public void shouldRunQueriesRequiringPrimaryOnPrimary() throws SQLException {
+        dao.findOnPrimary().collectList().block();
+
+        primary.verifySelect("select * from test");
+        primary.verifyConnectionsUsed(1);
+        replica.verifyConnectionsUsed(0);
+    }
+
+    @Test
+    public void shouldRunUpdatesOnPrimary() throws SQLException {
+        primary.setUpdatedRows(1);
+
+        dao.update().block();
+
+        primary.verifyUpdate("update test set a = 1");
+        replica.verifyConnectionsUsed(0);
+    }
+
+    @Test
+    public void shouldRunQueriesInTransactionOnPrimary() throws SQLException {
+        daoTransactionsFlux.executeTransaction(dao.find(), dao.find()).block();
+
+        primary.verifyConnectionsUsed(1);
+        replica.verifyConnectionsUsed(0);
+    }
+
+    @Test
+    public void shouldRunQueriesOnPrimaryWithoutConfiguredReplicas() throws SQLException {
+        MockDb     db                = new MockDb();
+        ReplicaDao daoWithoutReplica = new DbProxy(new DatabaseConfig(), db.getConnectionProvider()).create(ReplicaDao.class);
+
+        daoWithoutReplica.find().collectList().block();
+
+        db.verifySelect("select * from test");
+    }
+
+    private static DatabaseConfig configWithReplica() {
+        DatabaseConfig databaseConfig = new DatabaseConfig();
+        databaseConfig.setReplicaUrls(List.of("jdbc:replica"));
+        return databaseConfig;
+    }
+
+    interface ReplicaDao {
+        @Query("select * from test")
+        Flux<String> find();
+
+        @Query(value = "select * from test", requirePrimary = true)
+        Flux<String> findOnPrimary();
+
+        @Update("update test set a = 1")
+        Mono<Void> update();
+    }
+}
@@ -0,0 +1,84 @@
+package se.fortnox.reactivewizard.db;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+import se.fortnox.reactivewizard.metrics.Metrics;
+
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+public class StatementMetricsTest {
+
+    private static final String         PREFIX   = "DAO_type:{0}_method:" + MetricsDao.class.getName() + ".{1}_0";
+    private final        MockDb         mockDb   = new MockDb();
+    private final        MetricsDao     dao      = new DbProxy(new DatabaseConfig(), mockDb.getConnectionProvider())
+        .create(MetricsDao.class);
+    private final        MetricRegistry registry = Metrics.registry();
+
+    @Test
+    public void shouldRecordPhasesAndRowsOfQuery() throws SQLException {
+        mockDb.addRows(3);
+
+        assertThat(dao.select().collectList().block()).hasSize(3);
+
+        String name = name("query", "select");
+        assertThat(registry.timer(name + "_phase:queue").getCount()).isEqualTo(1);
+        assertThat(registry.timer(name + "_phase:connection").getCount()).isEqualTo(1);
+        assertThat(registry.timer(name + "_phase:execute").getCount()).isEqualTo(1);
+        assertThat(registry.timer(name + "_phase:lastRow").getCount()).isEqualTo(1);
+        assertThat(registry.histogram(name + "_rows").getSnapshot().getValues()).containsExactly(3);
+    }
+
+    @Test
+    public void shouldRecordRowsWhenSubscriberCancelsAfterFirstRow() throws SQLException {
+        mockDb.addRows(3);
+
+        dao.selectOne().block();
+
+        String name = name("query", "selectOne");
+        assertThat(registry.timer(name + "_phase:execute").getCount()).isEqualTo(1);
+        assertThat(registry.histogram(name + "_rows").getSnapshot().getValues()).containsExactly(1);
+    }
+
+    @Test
+    public void shouldRecordExecuteOfStatementWithoutRows() {
+        assertThat(dao.selectNothing().collectList().block()).isEmpty();
+
+        String name = name("query", "selectNothing");
+        assertThat(registry.timer(name + "_phase:execute").getCount()).isEqualTo(1);
+        assertThat(registry.histogram(name + "_rows").getSnapshot().getValues()).containsExactly(0);
+    }
+
+    @Test
+    public void shouldRecordBatchSizes() throws SQLException {
+        when(mockDb.getPreparedStatement().executeBatch()).thenReturn(new int[]{1, 1});
+
+        Flux.merge(dao.insert(), dao.insert()).blockLast();
+
+        assertThat(registry.histogram(name("update", "insert") + "_batchSize").getSnapshot().getValues())
+            .containsExactly(2);
+    }
+
+    private static String name(String type, String method) {
+        return PREFIX.replace("{0}", type).replace("{1}", method);
+    }
+
+    interface MetricsDao {
+        @Query("select name from foo")
+        Flux<String> select();
+
+        @Query("select name from foo")
+        Mono<String> selectOne();
+
+        @Query("select name from foo")
+        Flux<String> selectNothing();
+
+        @Update(value = "insert into foo values (1)", batchSize = 10, batchWindowMillis = 200)
+        Mono<Integer> insert();
+    }
+}
@@ -0,0 +1,113 @@
+package se.fortnox.reactivewizard.db;
+
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import se.fortnox.reactivewizard.db.config.DatabaseConfig;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StreamingQueryTest {
+
+    @Test
+    public void shouldReadAllRowsInCursor() throws SQLException {
+        MockDb       mockDb = new MockDb();
+        StreamingDao dao    = createDao(mockDb);
+        mockDb.addRows(3);
+        when(mockDb.getConnection().getAutoCommit()).thenReturn(true);
+
+        StepVerifier.create(dao.selectStreaming())
+            .expectNextCount(3)
+            .verifyComplete();
+
+        verify(mockDb.getPreparedStatement()).setFetchSize(10);
+        verify(mockDb.getConnection()).setAutoCommit(false);
+        verify(mockDb.getConnection()).commit();
+        verify(mockDb.getConnection()).close();
+    }
+
+    @Test
+    public void shouldNotChangeAutoCommitWhenAlreadyInTransaction() throws SQLException {
+        MockDb       mockDb = new MockDb();
+        StreamingDao dao    = createDao(mockDb);
+        mockDb.addRows(2);
+
+        StepVerifier.create(dao.selectStreaming())
+            .expectNextCount(2)
+            .verifyComplete();
+
+        verify(mockDb.getConnection(), never()).setAutoCommit(false);
+        verify(mockDb.getConnection(), never()).commit();
+    }
+
+    @Test
+    public void shouldOnlyReadRequestedRows() throws SQLException {
+        MockDb       mockDb = new MockDb();
+        StreamingDao dao    = createDao(mockDb);
+        mockDb.addRows(1000);
+        when(mockDb.getConnection().getAutoCommit()).thenReturn(true);
+
+        StepVerifier.create(dao.selectStreaming(), 0)
+            .thenRequest(2)
+            .expectNextCount(2)
+            .thenRequest(3)
+            .expectNextCount(3)
+            .thenCancel()
+            .verify();
+
+        verify(mockDb.getConnection(), timeout(1000)).close();
+        verify(mockDb.getResultSet(), atMost(6)).next();
+        verify(mockDb.getConnection()).commit();
+    }
+
+    @Test
+    public void shouldStopReadingInfiniteResultWhenCancelled() throws SQLException {
+        MockDb       mockDb = new MockDb();
+        StreamingDao dao    = createDao(mockDb);
+        mockDb.setRowCount(MockDb.INFINITE);
+        mockDb.addRowColumn(MockDb.INFINITE, 1, "name", String.class, "row");
+
+        StepVerifier.create(dao.selectStreaming().take(5))
+            .expectNext("row", "row", "row", "row", "row")
+            .verifyComplete();
+
+        verify(mockDb.getConnection(), timeout(1000)).close();
+    }
+
+    @Test
+    public void shouldReleaseCursorWhenRowsAreNotRequested() throws SQLException {
+        MockDb       mockDb = new MockDb();
+        StreamingDao dao    = createDao(mockDb);
+        mockDb.addRows(10);
+        when(mockDb.getConnection().getAutoCommit()).thenReturn(true);
+
+        StepVerifier.create(dao.selectStreamingWithIdleTimeout(), 0)
+            .thenRequest(1)
+            .expectNextCount(1)
+            .expectErrorMessage("No rows were requested from the cursor within 1 seconds")
+            .verify(Duration.ofSeconds(5));
+
+        verify(mockDb.getConnection()).rollback();
+        verify(mockDb.getConnection(), never()).commit();
+        verify(mockDb.getConnection(), timeout(1000)).close();
+    }
+
+    private static StreamingDao createDao(MockDb mockDb) {
+        return new DbProxy(new DatabaseConfig(), mockDb.getConnectionProvider()).create(StreamingDao.class);
+    }
+
+    interface StreamingDao {
+        @Query(value = "select name from table", fetchSize = 10)
+        Flux<String> selectStreaming();
+
+        @Query(value = "select name from table", fetchSize = 10, fetchIdleTimeoutSeconds = 1)
+        Flux<String> selectStreamingWithIdleTimeout();
+    }
+}
@@ -20,6 +20,8 @@ public class DatabaseConfigTest {
         config.setSocketTimeout(7);
         config.setUrl("url");
         config.setUser("user");
+        config.setVirtualThreads(true);
+        config.setConnectionAffinityThreads(8);
 
         assertThat(config.getConnectionTimeout()).isEqualTo(1);
         assertThat(config.getIdleTimeout()).isEqualTo(2);
@@ -32,5 +34,7 @@ public class DatabaseConfigTest {
         assertThat(config.getSocketTimeout()).isEqualTo(7);
         assertThat(config.getUrl()).isEqualTo("url");
         assertThat(config.getUser()).isEqualTo("user");
+        assertThat(config.isVirtualThreads()).isTrue();
+        assertThat(config.getConnectionAffinityThreads()).isEqualTo(8);
     }
 }
@@ -36,6 +36,21 @@ public class PagingOperatorTest {
         assertThat(collectionOptions.isLastRecord()).isTrue();
     }
 
+    @Test
+    public void shouldRequestExtraRecordWhenLimitIsRequested() {
+        CollectionOptions collectionOptions = new CollectionOptions();
+        collectionOptions.setLimit(PAGE_SIZE);
+
+        PagingOperator pagingOperator = new PagingOperator<>(collectionOptions);
+
+        StepVerifier.create(range(1, PAGE_SIZE + 1).transformDeferred(liftPublisher(pagingOperator)), 0)
+                .thenRequest(1)
+                .expectNext(1)
+                .thenRequest(PAGE_SIZE - 1)
+                .expectNext(2, 3)
+                .verifyComplete();
+        assertThat(collectionOptions.isLastRecord()).isFalse();
+    }
 
     private void shouldBeLastRecord(CollectionOptions collectionOptions) {
         assertThat(collectionOptions.isLastRecord()).isTrue();
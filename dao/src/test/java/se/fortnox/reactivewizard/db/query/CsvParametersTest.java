@@ -0,0 +1,52 @@
+package se.fortnox.reactivewizard.db.query;
+
+import org.junit.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CsvParametersTest {
+
+    @Test
+    public void shouldQuoteValuesAndLeaveNullsEmpty() {
+        CsvParameters csv = new CsvParameters();
+        csv.addNull();
+        csv.addObject("say \"hi\", bye");
+        csv.addObject(12);
+        csv.addDate(Date.valueOf(LocalDate.of(2020, 1, 2)));
+        csv.addObject(null);
+
+        assertThat(csv.nextLine()).isEqualTo(",\"say \"\"hi\"\", bye\",\"12\",\"2020-01-02\",\n");
+    }
+
+    @Test
+    public void shouldStartNewLine() {
+        CsvParameters csv = new CsvParameters();
+        csv.addObject("a");
+        csv.nextLine();
+        csv.addObject("b");
+
+        assertThat(csv.nextLine()).isEqualTo("\"b\"\n");
+    }
+
+    @Test
+    public void shouldWriteArraysAndBytes() {
+        CsvParameters csv = new CsvParameters();
+        csv.addArray("varchar", Arrays.asList("a\"b", null));
+        csv.addObject(new byte[]{1, (byte)0xff});
+
+        assertThat(csv.nextLine()).isEqualTo("\"{\"\"a\\\"\"b\"\",NULL}\",\"\\x01ff\"\n");
+    }
+
+    @Test
+    public void shouldWriteEmptyArray() {
+        CsvParameters csv = new CsvParameters();
+        csv.addArray("integer", List.of());
+
+        assertThat(csv.nextLine()).isEqualTo("\"{}\"\n");
+    }
+}
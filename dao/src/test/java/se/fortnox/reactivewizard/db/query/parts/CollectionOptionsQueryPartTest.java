@@ -0,0 +1,49 @@
+package se.fortnox.reactivewizard.db.query.parts;
+
+import org.junit.Test;
+import se.fortnox.reactivewizard.CollectionOptions;
+import se.fortnox.reactivewizard.db.Query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CollectionOptionsQueryPartTest {
+
+    @Test
+    public void shouldAddOrderingAndPagingToPrecedingSql() throws NoSuchMethodException {
+        CollectionOptionsQueryPart part = new CollectionOptionsQueryPart(Dao.class.getMethod("select", String.class, CollectionOptions.class));
+        StringBuilder sql = new StringBuilder("select * from table where name=? order by id");
+
+        part.visit(sql, new Object[]{"name", new CollectionOptions(10, 20, "name", CollectionOptions.SortOrder.DESC)});
+
+        assertThat(sql.toString()).isEqualTo("select * from table where name=? order by name DESC, id LIMIT ? OFFSET ?");
+    }
+
+    @Test
+    public void shouldCacheSqlPerShape() throws NoSuchMethodException {
+        CollectionOptionsQueryPart part = new CollectionOptionsQueryPart(Dao.class.getMethod("select", String.class, CollectionOptions.class));
+        String precedingSql = "select * from table where name=?";
+
+        String first  = part.sql(precedingSql, new Object[]{"name", new CollectionOptions(10, 20)});
+        String second = part.sql(precedingSql, new Object[]{"name", new CollectionOptions(5, 40)});
+        String sorted = part.sql(precedingSql, new Object[]{"name", new CollectionOptions(5, null, "name", null)});
+
+        assertThat(first).isEqualTo("select * from table where name=? LIMIT ? OFFSET ?").isSameAs(second);
+        assertThat(sorted).isEqualTo("select * from table where name=? ORDER BY name LIMIT ?");
+    }
+
+    @Test
+    public void shouldReturnPrecedingSqlWithoutCollectionOptions() throws NoSuchMethodException {
+        CollectionOptionsQueryPart part = new CollectionOptionsQueryPart(Dao.class.getMethod("selectAll"));
+        String precedingSql = "select * from table";
+
+        assertThat(part.sql(precedingSql, new Object[0])).isSameAs(precedingSql);
+    }
+
+    interface Dao {
+        @Query(value = "select * from table where name=:name", allowedSortColumns = "name")
+        void select(String name, CollectionOptions collectionOptions);
+
+        @Query("select * from table")
+        void selectAll();
+    }
+}
@@ -1,7 +1,10 @@
 package se.fortnox.reactivewizard.jaxrs;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.util.ReferenceCounted;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -15,14 +18,29 @@ import java.nio.charset.Charset;
 
 public class ByteBufCollector {
 
-    private final int maxReqSize;
+    private final int     maxReqSize;
+    private final boolean retainBuffers;
 
     public ByteBufCollector() {
-        this.maxReqSize = 10 * 1024 * 1024;
+        this(10 * 1024 * 1024);
     }
 
     public ByteBufCollector(int maxReqSize) {
+        this(maxReqSize, false);
+    }
+
+    /**
+     * Create a collector.
+     * @param maxReqSize the max number of bytes to collect
+     * @param retainBuffers whether request bodies should be kept as the received buffers rather than copied to a byte[]
+     */
+    public ByteBufCollector(int maxReqSize, boolean retainBuffers) {
         this.maxReqSize = maxReqSize;
+        this.retainBuffers = retainBuffers;
+    }
+
+    public boolean isRetainingBuffers() {
+        return retainBuffers;
     }
 
     /**
@@ -77,4 +95,24 @@ public class ByteBufCollector {
         return input.collect(ByteArrayOutputStream::new, this::collectChunks)
             .map(ByteArrayOutputStream::toByteArray);
     }
+
+    /**
+     * Collect buffers from content, without copying them. The buffers are retained and kept as components of a
+     * composite buffer, which must be released by the subscriber. Collected buffers are released if the content fails
+     * or the subscription is cancelled.
+     * @param content the content
+     * @return the composite buffer
+     */
+    public Mono<CompositeByteBuf> collectByteBuf(Flux<ByteBuf> content) {
+        return content
+            .collect(() -> ByteBufAllocator.DEFAULT.compositeBuffer(Integer.MAX_VALUE), this::collectComponents)
+            .doOnDiscard(CompositeByteBuf.class, ReferenceCounted::release);
+    }
+
+    private void collectComponents(CompositeByteBuf buf, ByteBuf bytes) {
+        if (buf.readableBytes() + bytes.readableBytes() > maxReqSize) {
+            throw new WebException(HttpResponseStatus.BAD_REQUEST, "too.large.input");
+        }
+        buf.addComponent(true, bytes.retain());
+    }
 }
@@ -1,17 +1,18 @@
 package se.fortnox.reactivewizard.jaxrs;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
-import io.netty.handler.codec.http.QueryStringDecoder;
 import io.netty.handler.codec.http.cookie.Cookie;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.netty.channel.AbortedException;
 import reactor.netty.http.server.HttpServerRequest;
 
-import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -28,12 +29,14 @@ public class JaxRsRequest {
     private static final Logger LOG = LoggerFactory.getLogger(JaxRsRequest.class);
 
     private final HttpServerRequest   req;
-    private final byte[]              body;
+    private       byte[]              body;
+    private       ByteBuf             bodyBuffer;
     private final String              path;
     private final String              uri;
     private       Matcher             matcher;
     private final ByteBufCollector    collector;
-    private Map<String, List<String>> queryParameters;
+    private UrlEncodedParameters      queryParameters;
+    private UrlEncodedParameters      formParameters;
 
     protected JaxRsRequest(HttpServerRequest req, Matcher matcher, byte[] body, ByteBufCollector collector) {
         this.req       = req;
@@ -64,10 +67,37 @@ public class JaxRsRequest {
         return req.method().equals(httpMethod);
     }
 
+    /**
+     * Return the body. If the body was collected as a buffer it is copied to a byte[] on the first call.
+     *
+     * @return the body
+     */
     public byte[] getBody() {
+        if (body == null && bodyBuffer != null) {
+            body = ByteBufUtil.getBytes(bodyBuffer);
+        }
         return body;
     }
 
+    /**
+     * Return the body as a buffer, if the body was collected by a {@link ByteBufCollector} retaining buffers.
+     *
+     * @return the body buffer, or null if the body was not collected as a buffer or has been released
+     */
+    public ByteBuf getBodyBuffer() {
+        return bodyBuffer;
+    }
+
+    /**
+     * Release the body buffer, if any. Called once the arguments of the resource have been resolved.
+     */
+    public void releaseBody() {
+        if (bodyBuffer != null) {
+            bodyBuffer.release();
+            bodyBuffer = null;
+        }
+    }
+
     /**
      * Load the body.
      *
@@ -76,20 +106,49 @@ public class JaxRsRequest {
     public Mono<JaxRsRequest> loadBody() {
         HttpMethod httpMethod = req.method();
         if (POST.equals(httpMethod) || PUT.equals(httpMethod) || PATCH.equals(httpMethod) || DELETE.equals(httpMethod)) {
-            return collector.collectBytes(req.receive()
-                    .doOnError(e -> {
-                        if (e instanceof AbortedException) {
-                            LOG.debug("Error reading data for request " + httpMethod + " " + req.uri(), e);
-                        } else {
-                            LOG.error("Error reading data for request " + httpMethod + " " + req.uri(), e);
-                        }
-                    }))
+            if (collector.isRetainingBuffers()) {
+                return collector.collectByteBuf(receiveContent(httpMethod))
+                    .map(this::createWithBodyBuffer);
+            }
+            return collector.collectBytes(receiveContent(httpMethod))
                 .defaultIfEmpty(new byte[0])
                 .map(reqBody -> create(req, matcher, reqBody, collector));
         }
         return Mono.just(this);
     }
 
+    /**
+     * Receive the body as it arrives, without collecting it. Can only be used instead of {@link #loadBody()}.
+     *
+     * @return the chunks of the body
+     */
+    public Flux<byte[]> receiveBody() {
+        return receiveContent(req.method())
+            .map(ByteBufUtil::getBytes);
+    }
+
+    private Flux<ByteBuf> receiveContent(HttpMethod httpMethod) {
+        return req.receive()
+            .doOnError(e -> {
+                if (e instanceof AbortedException) {
+                    LOG.debug("Error reading data for request " + httpMethod + " " + req.uri(), e);
+                } else {
+                    LOG.error("Error reading data for request " + httpMethod + " " + req.uri(), e);
+                }
+            });
+    }
+
+    private JaxRsRequest createWithBodyBuffer(ByteBuf reqBody) {
+        try {
+            JaxRsRequest request = create(req, matcher, null, collector);
+            request.bodyBuffer = reqBody;
+            return request;
+        } catch (RuntimeException e) {
+            reqBody.release();
+            throw e;
+        }
+    }
+
     /**
      * Return the query param.
      * @param key the param key
@@ -107,20 +166,14 @@ public class JaxRsRequest {
      */
     public String getQueryParam(String key, String defaultValue) {
         if (queryParameters == null) {
-            QueryStringDecoder queryStringDecoder = new QueryStringDecoder(req.uri());
             try {
-                queryParameters = queryStringDecoder.parameters();
+                queryParameters = UrlEncodedParameters.fromUri(req.uri());
             } catch (IllegalArgumentException e) {
                 LOG.info("Failed to decode HTTP query params for request {} {}", req.method().name(), req.uri(), e);
                 throw new WebException(HttpResponseStatus.BAD_REQUEST);
             }
         }
-
-        List<String> list = queryParameters.get(key);
-        if (list != null && !list.isEmpty()) {
-            return list.get(0);
-        }
-        return defaultValue;
+        return queryParameters.get(key, defaultValue);
     }
 
     /**
@@ -157,15 +210,27 @@ public class JaxRsRequest {
         return getFormParam(key, null);
     }
 
+    /**
+     * Return the form param or default value, if non-existent. The form is decoded once, on the first call.
+     * @param key the param key
+     * @param defaultValue the default value
+     * @return the param or default value
+     */
     public String getFormParam(String key, String defaultValue) {
-        return parseUrlEncodedBody(body, key, defaultValue);
+        if (formParameters == null) {
+            try {
+                formParameters = UrlEncodedParameters.fromForm(bodyBuffer != null ? bodyBuffer : wrapBody());
+            } catch (IllegalArgumentException e) {
+                LOG.info("Failed to decode HTTP form params for request {} {}", req.method().name(), req.uri(), e);
+                throw new WebException(HttpResponseStatus.BAD_REQUEST);
+            }
+        }
+        return formParameters.get(key, defaultValue);
     }
 
-    private String parseUrlEncodedBody(byte[] body, String key, String defaultValue) {
-        QueryStringDecoder        decoder    = new QueryStringDecoder(new String(body), false);
-        Map<String, List<String>> parameters = decoder.parameters();
-        List<String>              list       = parameters.get(key);
-        return list == null || list.isEmpty() ? defaultValue : list.get(0);
+    private ByteBuf wrapBody() {
+        byte[] bytes = getBody();
+        return bytes == null ? Unpooled.EMPTY_BUFFER : Unpooled.wrappedBuffer(bytes);
     }
 
     public Set<Cookie> getCookie(String key) {
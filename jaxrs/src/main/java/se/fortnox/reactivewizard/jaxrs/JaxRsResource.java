@@ -7,17 +7,18 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.netty.http.server.HttpServerRequest;
 import reactor.netty.http.server.HttpServerResponse;
+import se.fortnox.reactivewizard.jaxrs.params.BodyStreamParamResolver;
 import se.fortnox.reactivewizard.jaxrs.params.ParamResolver;
 import se.fortnox.reactivewizard.jaxrs.params.ParamResolverFactories;
 import se.fortnox.reactivewizard.jaxrs.response.JaxRsResult;
 import se.fortnox.reactivewizard.jaxrs.response.JaxRsResultFactory;
 import se.fortnox.reactivewizard.jaxrs.response.JaxRsResultFactoryFactory;
 import se.fortnox.reactivewizard.util.FluxRxConverter;
+import se.fortnox.reactivewizard.util.MethodInvoker;
 import se.fortnox.reactivewizard.util.ReflectionUtil;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.core.MediaType;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.function.Function;
@@ -43,6 +44,8 @@ public class JaxRsResource<T> implements Comparable<JaxRsResource> {
     private final JaxRsMeta                         meta;
     private final RequestLogger                     requestLogger;
     private final Function<Object[], Flux<T>> methodCaller;
+    private final boolean                     streamsBody;
+    private final boolean                     synchronousArgs;
 
     public JaxRsResource(Method method,
                          Object resourceInstance,
@@ -59,6 +62,8 @@ public class JaxRsResource<T> implements Comparable<JaxRsResource> {
         instanceMethod = ReflectionUtil.getInstanceMethod(method, resourceInstance);
 
         this.argumentExtractors = paramResolverFactories.createParamResolvers(instanceMethod, getConsumes());
+        this.streamsBody = streamsBody(argumentExtractors);
+        this.synchronousArgs = argumentExtractors.stream().allMatch(ParamResolver::isSynchronous);
         this.resultFactory = jaxRsResultFactoryFactory.createResultFactory(this);
         this.methodCaller = createMethodCaller(method, resourceInstance);
     }
@@ -89,9 +94,23 @@ public class JaxRsResource<T> implements Comparable<JaxRsResource> {
         return true;
     }
 
+    private boolean streamsBody(List<ParamResolver> argumentExtractors) {
+        long bodyStreams = argumentExtractors.stream()
+            .filter(BodyStreamParamResolver.class::isInstance)
+            .count();
+        if (bodyStreams > 1) {
+            throw new IllegalArgumentException(format("Only one parameter can stream the body. %s had %d", method, bodyStreams));
+        }
+        return bodyStreams == 1;
+    }
+
     protected Mono<JaxRsResult<T>> call(JaxRsRequest request) {
+        if (streamsBody) {
+            return resolveArgs(request)
+                .map(this::call);
+        }
         return request.loadBody()
-            .flatMap(this::resolveArgs)
+            .flatMap(this::resolveArgsAndReleaseBody)
             .map(this::call);
     }
 
@@ -110,22 +129,33 @@ public class JaxRsResource<T> implements Comparable<JaxRsResource> {
                     method, method.getReturnType()));
         }
 
+        MethodInvoker invoker = MethodInvoker.create(method, resourceInstance);
         return args -> {
             try {
-                Object result = method.invoke(resourceInstance, args);
+                Object result = invoker.invoke(args);
                 return fluxConverter.apply(result);
-            } catch (InvocationTargetException e) {
-                return Flux.error(e.getTargetException());
             } catch (Throwable e) {
                 return Flux.error(e);
             }
         };
     }
 
+    private Mono<Object[]> resolveArgsAndReleaseBody(JaxRsRequest request) {
+        if (request.getBodyBuffer() == null) {
+            return resolveArgs(request);
+        }
+        return resolveArgs(request)
+            .doFinally(signal -> request.releaseBody());
+    }
+
     @SuppressWarnings("unchecked")
     private Mono<Object[]> resolveArgs(JaxRsRequest request) {
-        if (argumentExtractors.isEmpty()) {
-            return Mono.just(new Object[0]);
+        if (synchronousArgs) {
+            try {
+                return Mono.just(resolveArgsSync(request));
+            } catch (RuntimeException e) {
+                return Mono.error(e);
+            }
         }
 
         Mono<?>[] obsArgs = new Mono[argumentExtractors.size()];
@@ -143,6 +173,14 @@ public class JaxRsResource<T> implements Comparable<JaxRsResource> {
         });
     }
 
+    private Object[] resolveArgsSync(JaxRsRequest request) {
+        Object[] args = new Object[argumentExtractors.size()];
+        for (int i = 0; i < args.length; i++) {
+            args[i] = argumentExtractors.get(i).resolveSync(request);
+        }
+        return args;
+    }
+
     @Override
     public int compareTo(JaxRsResource jaxRsResource) {
         int pathCompare = this.meta.getFullPath().compareTo(jaxRsResource.meta.getFullPath());
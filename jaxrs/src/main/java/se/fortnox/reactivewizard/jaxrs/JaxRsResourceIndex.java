@@ -0,0 +1,137 @@
+package se.fortnox.reactivewizard.jaxrs;
+
+import io.netty.handler.codec.http.HttpMethod;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Lookup structure for resources, built once from the sorted resource list.
+ *
+ * <p>Resources are grouped by http method and placed in a trie keyed by the segments of their path. Literal segments
+ * and plain variables ({myvar}) are part of the trie, while the remainder of a path, starting at the first segment
+ * containing a custom regex ({myvar:myregex}) or other pattern characters, is left to the pattern of the resource.
+ * A request is only tried against the resources found when walking the trie, in the order of the sorted resource
+ * list, so the precedence given by {@link JaxRsResource#compareTo(JaxRsResource)} is kept.</p>
+ */
+class JaxRsResourceIndex {
+    private static final Pattern  PLAIN_VARIABLE  = Pattern.compile("\\{[^}:]+\\}");
+    private static final Pattern  LITERAL_SEGMENT = Pattern.compile("[^\\\\^$.|?*+()\\[\\]{}\\s]+");
+    private static final String[] NO_SEGMENTS     = new String[0];
+
+    private final List<JaxRsResource> resources;
+    private final Map<HttpMethod, Node> roots = new HashMap<>();
+
+    JaxRsResourceIndex(List<JaxRsResource> resources) {
+        this.resources = resources;
+        for (int i = 0; i < resources.size(); i++) {
+            JaxRsResource<?> resource = resources.get(i);
+            Node root = roots.computeIfAbsent(resource.getHttpMethod(), method -> new Node());
+            add(root, resource.getPath(), i);
+        }
+    }
+
+    private static void add(Node root, String path, int index) {
+        Node node = root;
+        for (String segment : split(path, path.length())) {
+            if (LITERAL_SEGMENT.matcher(segment).matches()) {
+                node = node.literals.computeIfAbsent(segment, s -> new Node());
+            } else if (PLAIN_VARIABLE.matcher(segment).matches()) {
+                if (node.variable == null) {
+                    node.variable = new Node();
+                }
+                node = node.variable;
+            } else {
+                node.tails.set(index);
+                return;
+            }
+        }
+        node.terminals.set(index);
+    }
+
+    private static String[] split(String path, int end) {
+        if (end == 0) {
+            return NO_SEGMENTS;
+        }
+        return path.substring(1, end).split("/", -1);
+    }
+
+    /**
+     * Find the first resource, in sorted order, that can handle the request.
+     *
+     * @param request the request
+     * @return the resource, or null if no resource matches
+     */
+    JaxRsResource<?> find(JaxRsRequest request) {
+        Node root = root(request);
+        if (root == null) {
+            return null;
+        }
+
+        String path = request.getPath();
+        int    end  = path.length();
+        while (end > 0 && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        // The resource patterns accept any trailing mix of slashes and whitespace, so such paths are left to a scan
+        if (end > 0 && (path.charAt(0) != '/' || Character.isWhitespace(path.charAt(end - 1)))) {
+            return scan(request);
+        }
+
+        BitSet candidates = new BitSet(resources.size());
+        collect(root, split(path, end), 0, candidates);
+
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            JaxRsResource<?> resource = resources.get(i);
+            if (resource.canHandleRequest(request)) {
+                return resource;
+            }
+        }
+        return null;
+    }
+
+    private Node root(JaxRsRequest request) {
+        for (Map.Entry<HttpMethod, Node> entry : roots.entrySet()) {
+            if (entry.getKey() != null && request.hasMethod(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static void collect(Node node, String[] segments, int position, BitSet candidates) {
+        candidates.or(node.tails);
+        if (position == segments.length) {
+            candidates.or(node.terminals);
+            return;
+        }
+
+        String segment = segments[position];
+        Node   literal = node.literals.get(segment);
+        if (literal != null) {
+            collect(literal, segments, position + 1, candidates);
+        }
+        if (node.variable != null && !segment.isEmpty()) {
+            collect(node.variable, segments, position + 1, candidates);
+        }
+    }
+
+    private JaxRsResource<?> scan(JaxRsRequest request) {
+        for (JaxRsResource<?> resource : resources) {
+            if (resource.canHandleRequest(request)) {
+                return resource;
+            }
+        }
+        return null;
+    }
+
+    private static class Node {
+        private final Map<String, Node> literals  = new HashMap<>();
+        private final BitSet            terminals = new BitSet();
+        private final BitSet            tails     = new BitSet();
+        private       Node              variable;
+    }
+}
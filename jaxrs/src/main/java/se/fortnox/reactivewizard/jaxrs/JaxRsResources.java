@@ -9,6 +9,7 @@ public class JaxRsResources {
     private static final Logger log = LoggerFactory.getLogger(JaxRsResources.class);
     private final Object[] services;
     private List<JaxRsResource> resources;
+    private JaxRsResourceIndex index;
     private boolean reloadClasses;
     private JaxRsResourceFactory jaxRsResourceFactory;
 
@@ -18,6 +19,7 @@ public class JaxRsResources {
         this.jaxRsResourceFactory = jaxRsResourceFactory;
 
         this.resources = jaxRsResourceFactory.createResources(services);
+        this.index = new JaxRsResourceIndex(resources);
 
         StringBuilder sb = new StringBuilder();
         for (JaxRsResource r : resources) {
@@ -36,13 +38,9 @@ public class JaxRsResources {
     public JaxRsResource<?> findResource(JaxRsRequest request) {
         if (reloadClasses) {
             resources = jaxRsResourceFactory.createResources(services);
+            index = new JaxRsResourceIndex(resources);
         }
 
-        for (JaxRsResource<?> r : resources) {
-            if (r.canHandleRequest(request)) {
-                return r;
-            }
-        }
-        return null;
+        return index.find(request);
     }
 }
@@ -0,0 +1,208 @@
+package se.fortnox.reactivewizard.jaxrs;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.QueryStringDecoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Parameters of a query string or an url encoded form, decoded in a single pass into a flat array of alternating names
+ * and values. Follows the rules of {@link QueryStringDecoder}: parameters are separated by '&amp;' or ';', decoding stops
+ * at '#', '+' is decoded as a space and at most {@value #MAX_PARAMS} parameters are decoded.
+ */
+final class UrlEncodedParameters {
+
+    static final int MAX_PARAMS = 1024;
+
+    private static final UrlEncodedParameters EMPTY = new UrlEncodedParameters(new String[0], 0);
+
+    private String[] namesAndValues;
+    private int      size;
+
+    private UrlEncodedParameters(String[] namesAndValues, int size) {
+        this.namesAndValues = namesAndValues;
+        this.size = size;
+    }
+
+    /**
+     * Return the first value of a parameter.
+     * @param name the name of the parameter
+     * @param defaultValue returned if there is no such parameter
+     * @return the value or default value
+     */
+    String get(String name, String defaultValue) {
+        for (int i = 0; i < size; i += 2) {
+            if (namesAndValues[i].equals(name)) {
+                return namesAndValues[i + 1];
+            }
+        }
+        return defaultValue;
+    }
+
+    int size() {
+        return size / 2;
+    }
+
+    /**
+     * Decode the query string of an uri.
+     * @param uri the uri, including the path
+     * @return the parameters
+     * @throws IllegalArgumentException if the query string contains an invalid escape sequence
+     */
+    static UrlEncodedParameters fromUri(String uri) {
+        return parse(new UriSource(uri), queryStart(uri), uri.length());
+    }
+
+    /**
+     * Decode an url encoded form. The bytes of the form are decoded as UTF-8.
+     * @param form the form
+     * @return the parameters
+     * @throws IllegalArgumentException if the form contains an invalid escape sequence
+     */
+    static UrlEncodedParameters fromForm(ByteBuf form) {
+        return parse(new FormSource(form), form.readerIndex(), form.writerIndex());
+    }
+
+    private static UrlEncodedParameters parse(Source source, int from, int to) {
+        if (from >= to) {
+            return EMPTY;
+        }
+        UrlEncodedParameters parameters = new UrlEncodedParameters(new String[8], 0);
+        int nameStart  = from;
+        int valueStart = -1;
+        int index;
+        loop:
+        for (index = from; index < to; index++) {
+            switch (source.charAt(index)) {
+                case '=':
+                    if (nameStart == index) {
+                        nameStart = index + 1;
+                    } else if (valueStart < nameStart) {
+                        valueStart = index + 1;
+                    }
+                    break;
+                case '&':
+                case ';':
+                    if (parameters.add(source, nameStart, valueStart, index) && parameters.size() == MAX_PARAMS) {
+                        return parameters;
+                    }
+                    nameStart = index + 1;
+                    break;
+                case '#':
+                    break loop;
+                default:
+                    break;
+            }
+        }
+        parameters.add(source, nameStart, valueStart, index);
+        return parameters;
+    }
+
+    private static int queryStart(String uri) {
+        for (int i = 0; i < uri.length(); i++) {
+            char character = uri.charAt(i);
+            if (character == '?') {
+                return i + 1;
+            }
+            if (character == '#') {
+                break;
+            }
+        }
+        return uri.length();
+    }
+
+    private boolean add(Source source, int nameStart, int valueStart, int valueEnd) {
+        if (nameStart >= valueEnd) {
+            return false;
+        }
+        if (valueStart <= nameStart) {
+            valueStart = valueEnd + 1;
+        }
+        append(source.decode(nameStart, valueStart - 1), source.decode(valueStart, valueEnd));
+        return true;
+    }
+
+    private void append(String name, String value) {
+        if (size + 2 > namesAndValues.length) {
+            namesAndValues = Arrays.copyOf(namesAndValues, namesAndValues.length * 2);
+        }
+        namesAndValues[size++] = name;
+        namesAndValues[size++] = value;
+    }
+
+    /**
+     * The characters of a query string or a form, and the decoding of its names and values.
+     */
+    private interface Source {
+        int charAt(int index);
+
+        String decode(int from, int to);
+    }
+
+    private record UriSource(String uri) implements Source {
+        @Override
+        public int charAt(int index) {
+            return uri.charAt(index);
+        }
+
+        @Override
+        public String decode(int from, int to) {
+            if (from >= to) {
+                return "";
+            }
+            return QueryStringDecoder.decodeComponent(uri.substring(from, to), StandardCharsets.UTF_8);
+        }
+    }
+
+    private record FormSource(ByteBuf form) implements Source {
+        @Override
+        public int charAt(int index) {
+            return form.getByte(index);
+        }
+
+        @Override
+        public String decode(int from, int to) {
+            if (from >= to) {
+                return "";
+            }
+            int firstEscaped = -1;
+            for (int i = from; i < to; i++) {
+                byte character = form.getByte(i);
+                if (character == '%' || character == '+') {
+                    firstEscaped = i;
+                    break;
+                }
+            }
+            if (firstEscaped == -1) {
+                return form.toString(from, to - from, StandardCharsets.UTF_8);
+            }
+
+            byte[] decoded = new byte[to - from];
+            int    length  = 0;
+            for (int i = from; i < to; i++) {
+                byte character = form.getByte(i);
+                if (character == '+') {
+                    decoded[length++] = ' ';
+                } else if (character == '%') {
+                    if (i + 2 >= to) {
+                        throw new IllegalArgumentException("unterminated escape sequence at index " + (i - from));
+                    }
+                    decoded[length++] = (byte)((hexValue(form.getByte(i + 1)) << 4) | hexValue(form.getByte(i + 2)));
+                    i += 2;
+                } else {
+                    decoded[length++] = character;
+                }
+            }
+            return new String(decoded, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int hexValue(byte character) {
+        int value = Character.digit(character, 16);
+        if (value == -1) {
+            throw new IllegalArgumentException("invalid hex byte '" + (char)character + "'");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,28 @@
+package se.fortnox.reactivewizard.jaxrs.params;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.jaxrs.JaxRsRequest;
+
+import java.util.function.Function;
+
+/**
+ * Resolves a Flux parameter from a request body which is deserialized as it arrives. Resources with such a parameter
+ * do not collect their body before the resource method is called, so the body is not limited by the max request
+ * size, and demand from the parameter is propagated to the connection.
+ *
+ * @param <T> the type of the parameter, a Flux of the elements of the body
+ */
+public class BodyStreamParamResolver<T> implements ParamResolver<T> {
+
+    private final Function<Flux<byte[]>, T> deserializer;
+
+    public BodyStreamParamResolver(Function<Flux<byte[]>, T> deserializer) {
+        this.deserializer = deserializer;
+    }
+
+    @Override
+    public Mono<T> resolve(JaxRsRequest request) {
+        return Mono.just(deserializer.apply(request.receiveBody()));
+    }
+}
@@ -11,4 +11,25 @@ import se.fortnox.reactivewizard.jaxrs.JaxRsRequest;
  */
 public interface ParamResolver<T> {
     Mono<T> resolve(JaxRsRequest request);
+
+    /**
+     * Whether this resolver can resolve its value without subscribing to anything, using
+     * {@link #resolveSync(JaxRsRequest)}. Resources whose parameters are all synchronous resolve their arguments
+     * without assembling a reactive chain per parameter.
+     *
+     * @return true if {@link #resolveSync(JaxRsRequest)} is supported
+     */
+    default boolean isSynchronous() {
+        return false;
+    }
+
+    /**
+     * Resolve the value directly. Only supported when {@link #isSynchronous()} returns true.
+     *
+     * @param request the request
+     * @return the value, or null if there is none
+     */
+    default T resolveSync(JaxRsRequest request) {
+        throw new UnsupportedOperationException(getClass().getName() + " is not synchronous");
+    }
 }
@@ -1,10 +1,13 @@
 package se.fortnox.reactivewizard.jaxrs.params;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.jaxrs.JaxRsRequest;
 import se.fortnox.reactivewizard.jaxrs.WebException;
 import se.fortnox.reactivewizard.jaxrs.params.annotated.AnnotatedParamResolverFactories;
 import se.fortnox.reactivewizard.jaxrs.params.annotated.AnnotatedParamResolverFactory;
@@ -21,7 +24,7 @@ import java.lang.reflect.Parameter;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
+import java.util.function.Function;
 
 
 /**
@@ -96,19 +99,16 @@ public class ParamResolverFactories {
             }
         }
 
+        if (Flux.class.equals(ReflectionUtil.getRawType(paramType.getType()))) {
+            Function<Flux<byte[]>, T> bodyStreamDeserializer = deserializerFactory.getBodyStreamDeserializer(paramType, consumesAnnotation);
+            if (bodyStreamDeserializer != null) {
+                return new BodyStreamParamResolver<>(bodyStreamDeserializer);
+            }
+        }
+
         BodyDeserializer<T> bodyDeserializer = deserializerFactory.getBodyDeserializer(paramType, consumesAnnotation);
         if (bodyDeserializer != null) {
-            return request -> {
-                T deserializedBody = deserializeBody(bodyDeserializer, request.getBody());
-
-                if (Objects.isNull(deserializedBody)) {
-                    String body = new String(request.getBody(), StandardCharsets.UTF_8);
-                    LOG.warn("Body deserializer returned null when deserializing body: '{}'", body);
-                    return Mono.error(new WebException(HttpResponseStatus.BAD_REQUEST));
-                }
-
-                return Mono.just(deserializedBody);
-            };
+            return new BodyParamResolver<>(bodyDeserializer);
         }
 
         throw new RuntimeException("Could not find any deserializer for param of type " + paramType.getType());
@@ -141,11 +141,54 @@ public class ParamResolverFactories {
         return null;
     }
 
-    private <T> T deserializeBody(BodyDeserializer<T> deserializer, byte[] value) {
-        try {
-            return deserializer.deserialize(value);
-        } catch (DeserializerException deserializerException) {
-            throw new WebException(HttpResponseStatus.BAD_REQUEST, deserializerException.getMessage());
+    /**
+     * Resolves a parameter from a request body which has been loaded before the resource method is called.
+     */
+    private static class BodyParamResolver<T> implements ParamResolver<T> {
+
+        private final BodyDeserializer<T> deserializer;
+
+        BodyParamResolver(BodyDeserializer<T> deserializer) {
+            this.deserializer = deserializer;
+        }
+
+        @Override
+        public Mono<T> resolve(JaxRsRequest request) {
+            try {
+                return Mono.just(resolveSync(request));
+            } catch (WebException e) {
+                return Mono.error(e);
+            }
+        }
+
+        @Override
+        public boolean isSynchronous() {
+            return true;
+        }
+
+        @Override
+        public T resolveSync(JaxRsRequest request) {
+            T deserializedBody = deserializeBody(request);
+
+            if (deserializedBody == null) {
+                String body = new String(request.getBody(), StandardCharsets.UTF_8);
+                LOG.warn("Body deserializer returned null when deserializing body: '{}'", body);
+                throw new WebException(HttpResponseStatus.BAD_REQUEST);
+            }
+
+            return deserializedBody;
+        }
+
+        private T deserializeBody(JaxRsRequest request) {
+            try {
+                ByteBuf bodyBuffer = request.getBodyBuffer();
+                if (bodyBuffer != null) {
+                    return deserializer.deserialize(bodyBuffer);
+                }
+                return deserializer.deserialize(request.getBody());
+            } catch (DeserializerException deserializerException) {
+                throw new WebException(HttpResponseStatus.BAD_REQUEST, deserializerException.getMessage());
+            }
         }
     }
 }
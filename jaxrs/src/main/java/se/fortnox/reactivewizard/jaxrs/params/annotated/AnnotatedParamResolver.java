@@ -29,8 +29,18 @@ abstract class AnnotatedParamResolver<T> implements ParamResolver<T> {
 
     @Override
     public Mono<T> resolve(JaxRsRequest request) {
+        return Mono.justOrEmpty(resolveSync(request));
+    }
+
+    @Override
+    public boolean isSynchronous() {
+        return true;
+    }
+
+    @Override
+    public T resolveSync(JaxRsRequest request) {
         try {
-            return Mono.justOrEmpty(deserializer.deserialize(getValue(request)));
+            return deserializer.deserialize(getValue(request));
         } catch (DeserializerException deserializerException) {
             throw new WebException(HttpResponseStatus.BAD_REQUEST, new FieldError(parameterName, deserializerException.getMessage()));
         }
@@ -10,6 +10,7 @@ import se.fortnox.reactivewizard.json.Types;
 import se.fortnox.reactivewizard.util.ReflectionUtil;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.List;
@@ -26,10 +27,21 @@ public class BeanParamResolver<T> extends AnnotatedParamResolver<T> {
     private static final Object NULL_VALUE = new Object();
 
     private final Function<JaxRsRequest, Mono<T>> resolver;
+    private final Function<JaxRsRequest, T>       syncResolver;
 
     public BeanParamResolver(Function<JaxRsRequest, Mono<T>> resolver) {
+        this(resolver, null);
+    }
+
+    /**
+     * Create a resolver of a bean param.
+     * @param resolver resolves the bean
+     * @param syncResolver resolves the bean directly, or null if any of its fields is resolved asynchronously
+     */
+    public BeanParamResolver(Function<JaxRsRequest, Mono<T>> resolver, Function<JaxRsRequest, T> syncResolver) {
         super(null, null, null);
         this.resolver = resolver;
+        this.syncResolver = syncResolver;
     }
 
     @Override
@@ -42,6 +54,19 @@ public class BeanParamResolver<T> extends AnnotatedParamResolver<T> {
         return resolver.apply(request);
     }
 
+    @Override
+    public boolean isSynchronous() {
+        return syncResolver != null;
+    }
+
+    @Override
+    public T resolveSync(JaxRsRequest request) {
+        if (syncResolver == null) {
+            return super.resolveSync(request);
+        }
+        return syncResolver.apply(request);
+    }
+
     public static class Factory implements AnnotatedParamResolverFactory {
 
         private final AnnotatedParamResolverFactories annotatedParamResolverFactories;
@@ -66,6 +91,8 @@ public class BeanParamResolver<T> extends AnnotatedParamResolver<T> {
             Supplier<T> instantiator = ReflectionUtil.instantiator(beanParamCls);
 
             List<BiFunction<T, JaxRsRequest, Mono<T>>> fieldSetters = new ArrayList<>();
+            List<BiConsumer<T, JaxRsRequest>> syncFieldSetters = new ArrayList<>();
+            boolean synchronous = true;
 
             for (Field field : getAllDeclaredFields(beanParamCls)) {
                 Annotation[] fieldAnnotations = field.getAnnotations();
@@ -88,6 +115,13 @@ public class BeanParamResolver<T> extends AnnotatedParamResolver<T> {
                                 return (T)instance;
                             });
                         });
+                        synchronous &= fieldResolver.isSynchronous();
+                        syncFieldSetters.add((instance, request) -> {
+                            Object value = fieldResolver.resolveSync(request);
+                            if (value != null) {
+                                setter.accept(instance, value);
+                            }
+                        });
                     }
                 }
             }
@@ -101,7 +135,19 @@ public class BeanParamResolver<T> extends AnnotatedParamResolver<T> {
                 return Flux.merge(runSetters).count().map(count -> instance);
             };
 
-            return new BeanParamResolver<>(resolver);
+            if (!synchronous) {
+                return new BeanParamResolver<>(resolver);
+            }
+
+            Function<JaxRsRequest, T> syncResolver = (JaxRsRequest request) -> {
+                T instance = instantiator.get();
+                for (var setter : syncFieldSetters) {
+                    setter.accept(instance, request);
+                }
+                return instance;
+            };
+
+            return new BeanParamResolver<>(resolver, syncResolver);
         }
 
         private <T> BeanParamResolver<T> createForRecord(Class<T> beanParamCls) {
@@ -153,17 +199,31 @@ public class BeanParamResolver<T> extends AnnotatedParamResolver<T> {
                         }
                         return acc;
                     })
-                    .map(args -> {
-                        try {
-                            //noinspection unchecked
-                            return (T)(constructor.newInstance(args.toArray()));
-                        } catch (Throwable e) {
-                            throw new RuntimeException(e);
-                        }
-                    });
+                    .map(args -> newInstance(constructor, args.toArray()));
             };
 
-            return new BeanParamResolver<>(resolver);
+            if (!constructorArgumentResolvers.stream().allMatch(ParamResolver::isSynchronous)) {
+                return new BeanParamResolver<>(resolver);
+            }
+
+            Function<JaxRsRequest, T> syncResolver = (JaxRsRequest request) -> {
+                Object[] args = new Object[constructorArgumentResolvers.size()];
+                for (int i = 0; i < args.length; i++) {
+                    args[i] = constructorArgumentResolvers.get(i).resolveSync(request);
+                }
+                return newInstance(constructor, args);
+            };
+
+            return new BeanParamResolver<>(resolver, syncResolver);
+        }
+
+        private static <T> T newInstance(Constructor<?> constructor, Object[] args) {
+            try {
+                //noinspection unchecked
+                return (T)(constructor.newInstance(args));
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
         }
 
         private static List<Field> getAllDeclaredFields(Class<?> type) {
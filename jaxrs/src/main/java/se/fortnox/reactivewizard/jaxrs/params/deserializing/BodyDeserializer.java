@@ -1,8 +1,23 @@
 package se.fortnox.reactivewizard.jaxrs.params.deserializing;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+
 /**
  * Parses an object out of a byte[].
  */
 public interface BodyDeserializer<T> {
     T deserialize(byte[] value) throws DeserializerException;
+
+    /**
+     * Parses an object out of a buffer, without changing its reader index. Override this to read directly from the
+     * buffer, the default implementation copies the readable bytes to a byte[].
+     *
+     * @param value the buffer
+     * @return the deserialized object
+     * @throws DeserializerException if the value could not be deserialized
+     */
+    default T deserialize(ByteBuf value) throws DeserializerException {
+        return deserialize(ByteBufUtil.getBytes(value));
+    }
 }
@@ -2,12 +2,19 @@ package se.fortnox.reactivewizard.jaxrs.params.deserializing;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.util.StdDateFormat;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import reactor.core.publisher.Flux;
 import se.fortnox.reactivewizard.json.JsonDeserializerFactory;
+import se.fortnox.reactivewizard.json.Types;
 import se.fortnox.reactivewizard.util.ReflectionUtil;
 
 import javax.inject.Inject;
 import javax.inject.Provider;
 import javax.ws.rs.core.MediaType;
+import java.io.InputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.text.DateFormat;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -104,8 +111,19 @@ public class DeserializerFactory {
         String consume = consumes[0];
 
         if (MediaType.APPLICATION_JSON.equals(consume)) {
-            Function<byte[], T> jsonDeserializer = jsonDeserializerFactory.createByteDeserializer(paramType);
-            return jsonDeserializer::apply;
+            Function<byte[], T>      jsonDeserializer       = jsonDeserializerFactory.createByteDeserializer(paramType);
+            Function<InputStream, T> jsonStreamDeserializer = jsonDeserializerFactory.createStreamDeserializer(paramType);
+            return new BodyDeserializer<T>() {
+                @Override
+                public T deserialize(byte[] value) {
+                    return jsonDeserializer.apply(value);
+                }
+
+                @Override
+                public T deserialize(ByteBuf value) {
+                    return jsonStreamDeserializer.apply(new ByteBufInputStream(value.duplicate()));
+                }
+            };
         } else if (MediaType.TEXT_PLAIN.equals(consume) || MediaType.APPLICATION_OCTET_STREAM.equals(consume)) {
             if (paramType.getType().equals(String.class)) {
                 return bytes -> (T)new String(bytes);
@@ -116,4 +134,30 @@ public class DeserializerFactory {
         }
         return null;
     }
+
+    /**
+     * Return a deserializer of a body that is streamed as it arrives.
+     * @param paramType the param type, a Flux of the elements of the body
+     * @param consumes the consumes requirements
+     * @param <T> type of deserializer
+     * @return the deserializer or null if the media type cannot be streamed
+     * @throws IllegalArgumentException if the param type does not declare the type of its elements
+     */
+    public <T> Function<Flux<byte[]>, T> getBodyStreamDeserializer(TypeReference<T> paramType, String[] consumes) {
+        if (!(paramType.getType() instanceof ParameterizedType parameterizedType)) {
+            throw new IllegalArgumentException("A Flux parameter streaming the body must declare the type of its elements, "
+                + "such as Flux<String>, but was " + paramType.getType().getTypeName());
+        }
+        // Only support a single consumes for now
+        if (MediaType.APPLICATION_JSON.equals(consumes[0])) {
+            Type elementType = parameterizedType.getActualTypeArguments()[0];
+            Function<Flux<byte[]>, Flux<Object>> jsonArrayStreamDeserializer =
+                jsonDeserializerFactory.createArrayStreamDeserializer(Types.toReference(elementType));
+            // T is the Flux of the element type, which the erased Flux<Object> cannot be checked against
+            @SuppressWarnings("unchecked")
+            Function<Flux<byte[]>, T> deserializer = body -> (T)jsonArrayStreamDeserializer.apply(body);
+            return deserializer;
+        }
+        return null;
+    }
 }
@@ -0,0 +1,123 @@
+package se.fortnox.reactivewizard.jaxrs.response;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.util.ReferenceCounted;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rx.functions.Func1;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Creates serializers writing the output of a resource straight into pooled buffers, instead of into byte arrays that
+ * are copied into buffers when sent.
+ *
+ * <p>Elements of array responses are written in chunks of {@link #getArrayChunkSize()} elements per buffer.</p>
+ */
+public class ByteBufSerializerFactory {
+    private static final int ARRAY_START = '[';
+    private static final int ARRAY_END   = ']';
+    private static final int SEPARATOR   = ',';
+
+    private final boolean          enabled;
+    private final int              arrayChunkSize;
+    private final ByteBufAllocator allocator;
+
+    /**
+     * Create a factory that is disabled, leaving serialization to byte arrays.
+     */
+    public ByteBufSerializerFactory() {
+        this(false, 1);
+    }
+
+    public ByteBufSerializerFactory(boolean enabled, int arrayChunkSize) {
+        this(enabled, arrayChunkSize, ByteBufAllocator.DEFAULT);
+    }
+
+    /**
+     * Create a factory.
+     * @param enabled whether results should be serialized into buffers
+     * @param arrayChunkSize the max number of array elements written to each buffer
+     * @param allocator the allocator of the buffers
+     */
+    public ByteBufSerializerFactory(boolean enabled, int arrayChunkSize, ByteBufAllocator allocator) {
+        if (arrayChunkSize < 1) {
+            throw new IllegalArgumentException("arrayChunkSize must be at least 1, was " + arrayChunkSize);
+        }
+        this.enabled = enabled;
+        this.arrayChunkSize = arrayChunkSize;
+        this.allocator = allocator;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getArrayChunkSize() {
+        return arrayChunkSize;
+    }
+
+    /**
+     * Create a serializer of single values.
+     * @param writer writes a value to a stream
+     * @param <T> the type of value
+     * @return the serializer
+     */
+    public <T> Func1<Flux<T>, Flux<ByteBuf>> createSerializer(BiConsumer<T, OutputStream> writer) {
+        return flux -> flux.map(item -> write(buffer -> writer.accept(item, buffer)))
+            .doOnDiscard(ByteBuf.class, ReferenceCounted::release);
+    }
+
+    /**
+     * Create a serializer writing the values as the elements of an array.
+     * @param writer writes a value to a stream
+     * @param chunkSize the max number of elements written to each buffer
+     * @param <T> the type of value
+     * @return the serializer
+     */
+    public <T> Func1<Flux<T>, Flux<ByteBuf>> createArraySerializer(BiConsumer<T, OutputStream> writer, int chunkSize) {
+        return flux -> Flux.defer(() -> {
+            boolean[] first = {true};
+            return flux.buffer(chunkSize)
+                .map(items -> write(buffer -> {
+                    writeElements(writer, items, first[0], buffer);
+                    first[0] = false;
+                }))
+                .concatWith(Mono.fromSupplier(() -> write(buffer -> {
+                    if (first[0]) {
+                        buffer.buffer().writeByte(ARRAY_START);
+                    }
+                    buffer.buffer().writeByte(ARRAY_END);
+                })));
+        }).doOnDiscard(ByteBuf.class, ReferenceCounted::release);
+    }
+
+    private static <T> void writeElements(BiConsumer<T, OutputStream> writer, List<T> items, boolean first, ByteBufOutputStream buffer) {
+        buffer.buffer().writeByte(first ? ARRAY_START : SEPARATOR);
+        for (int i = 0; i < items.size(); i++) {
+            if (i > 0) {
+                buffer.buffer().writeByte(SEPARATOR);
+            }
+            writer.accept(items.get(i), buffer);
+        }
+    }
+
+    private ByteBuf write(BufferWriter bufferWriter) {
+        ByteBuf buf = allocator.buffer();
+        try {
+            bufferWriter.write(new ByteBufOutputStream(buf));
+            return buf;
+        } catch (RuntimeException e) {
+            buf.release();
+            throw e;
+        }
+    }
+
+    private interface BufferWriter {
+        void write(ByteBufOutputStream buffer);
+    }
+}
@@ -1,7 +1,10 @@
 package se.fortnox.reactivewizard.jaxrs.response;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import io.netty.handler.codec.http.HttpStatusClass;
+import io.netty.util.AsciiString;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -9,11 +12,9 @@ import reactor.netty.http.server.HttpServerResponse;
 import rx.functions.Action1;
 import rx.functions.Func1;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicBoolean;
-
-import static javax.ws.rs.core.HttpHeaders.CONTENT_LENGTH;
 
 /**
  * Represents a result of a call to a JaxRs resource. Contains the output but also some meta data about the call.
@@ -22,24 +23,59 @@ import static javax.ws.rs.core.HttpHeaders.CONTENT_LENGTH;
 public class JaxRsResult<T> {
     protected static final byte[]       EMPTY_RESPONSE      = new byte[0];
     protected static final Mono<byte[]> EMPTY_RESPONSE_MONO = Mono.just(EMPTY_RESPONSE);
+    private static final   AsciiString  ZERO_LENGTH         = AsciiString.cached("0");
 
     protected final Func1<Flux<T>, Flux<byte[]>>    serializer;
-    protected final Map<String, String> headers = new HashMap<>();
+    protected final Func1<Flux<T>, Flux<ByteBuf>>   bufferSerializer;
+    protected final StaticHeaders       staticHeaders;
+    protected       Map<String, String> headers = Collections.emptyMap();
     protected       Flux<T>             output;
     protected       HttpResponseStatus  responseStatus;
+    private         boolean             headersWritten;
 
     public JaxRsResult(Flux<T> output, HttpResponseStatus responseStatus, Func1<Flux<T>, Flux<byte[]>> serializer, Map<String, String> headers) {
+        this(output, responseStatus, serializer, new StaticHeaders(headers));
+    }
+
+    public JaxRsResult(Flux<T> output, HttpResponseStatus responseStatus, Func1<Flux<T>, Flux<byte[]>> serializer, StaticHeaders staticHeaders) {
+        this(output, responseStatus, serializer, null, staticHeaders);
+    }
+
+    /**
+     * Create a result.
+     * @param output the output
+     * @param responseStatus the status of the response
+     * @param serializer the serializer of the output into byte arrays
+     * @param bufferSerializer the serializer of the output into buffers, used instead of the byte array serializer if set
+     * @param staticHeaders the headers of the resource
+     */
+    public JaxRsResult(Flux<T> output,
+        HttpResponseStatus responseStatus,
+        Func1<Flux<T>, Flux<byte[]>> serializer,
+        Func1<Flux<T>, Flux<ByteBuf>> bufferSerializer,
+        StaticHeaders staticHeaders
+    ) {
         this.output = output;
         this.responseStatus = responseStatus;
         this.serializer     = serializer;
-        this.headers.putAll(headers);
+        this.bufferSerializer = bufferSerializer;
+        this.staticHeaders  = staticHeaders;
     }
 
     public HttpResponseStatus getResponseStatus() {
         return responseStatus;
     }
 
+    /**
+     * Add a header to this result, replacing any static header of the resource with the same name.
+     * @param key the header name
+     * @param value the header value
+     * @return this result
+     */
     public JaxRsResult<T> addHeader(String key, String value) {
+        if (headers.isEmpty()) {
+            headers = new HashMap<>();
+        }
         headers.put(key, value);
         return this;
     }
@@ -68,24 +104,19 @@ public class JaxRsResult<T> {
      * @return empty publisher
      */
     public Publisher<Void> write(HttpServerResponse response) {
-        AtomicBoolean headersWritten = new AtomicBoolean();
+        if (bufferSerializer != null) {
+            return writeBuffers(response);
+        }
         return serializer.call(output)
-            .switchIfEmpty(Flux.defer(() -> {
-                if (responseStatus.codeClass() == HttpStatusClass.SUCCESS) {
-                    responseStatus = HttpResponseStatus.NO_CONTENT;
-                }
-                response.status(responseStatus);
-                headers.forEach(response::addHeader);
-                response.addHeader(CONTENT_LENGTH, "0");
-                return Flux.empty();
-            }))
+            .switchIfEmpty(writeEmpty(response))
             .flatMap(bytes -> {
                 int contentLength = getContentLength(bytes);
 
-                if (headersWritten.compareAndSet(false, true)) {
+                if (!headersWritten) {
+                    headersWritten = true;
                     response.status(responseStatus);
-                    headers.forEach(response::addHeader);
-                    response.addHeader(CONTENT_LENGTH, String.valueOf(contentLength));
+                    addHeaders(response);
+                    response.addHeader(HttpHeaderNames.CONTENT_LENGTH, contentLength > 0 ? String.valueOf(contentLength) : ZERO_LENGTH);
                 }
 
                 if (contentLength > 0) {
@@ -100,6 +131,49 @@ public class JaxRsResult<T> {
             });
     }
 
+    private Publisher<Void> writeBuffers(HttpServerResponse response) {
+        return bufferSerializer.call(output)
+            .switchIfEmpty(writeEmpty(response))
+            .flatMap(buffer -> {
+                int contentLength = buffer.readableBytes();
+
+                if (!headersWritten) {
+                    headersWritten = true;
+                    response.status(responseStatus);
+                    addHeaders(response);
+                    response.addHeader(HttpHeaderNames.CONTENT_LENGTH, contentLength > 0 ? String.valueOf(contentLength) : ZERO_LENGTH);
+                }
+
+                if (contentLength > 0) {
+                    return response.send(Mono.just(buffer));
+                }
+
+                buffer.release();
+                if (response.status().codeClass() == HttpStatusClass.SUCCESS) {
+                    response.status(HttpResponseStatus.NO_CONTENT);
+                }
+
+                return response.sendByteArray(EMPTY_RESPONSE_MONO);
+            });
+    }
+
+    private <R> Flux<R> writeEmpty(HttpServerResponse response) {
+        return Flux.defer(() -> {
+            if (responseStatus.codeClass() == HttpStatusClass.SUCCESS) {
+                responseStatus = HttpResponseStatus.NO_CONTENT;
+            }
+            response.status(responseStatus);
+            addHeaders(response);
+            response.addHeader(HttpHeaderNames.CONTENT_LENGTH, ZERO_LENGTH);
+            return Flux.empty();
+        });
+    }
+
+    protected void addHeaders(HttpServerResponse response) {
+        staticHeaders.addTo(response, headers);
+        headers.forEach(response::addHeader);
+    }
+
     private int getContentLength(byte[] bytes) {
         return bytes != null ? bytes.length : 0;
     }
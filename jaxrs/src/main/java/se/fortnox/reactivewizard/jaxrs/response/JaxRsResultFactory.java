@@ -1,22 +1,26 @@
 package se.fortnox.reactivewizard.jaxrs.response;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import reactor.core.publisher.Flux;
 import rx.functions.Func1;
 import se.fortnox.reactivewizard.jaxrs.Headers;
 import se.fortnox.reactivewizard.jaxrs.JaxRsResource;
+import se.fortnox.reactivewizard.jaxrs.Stream;
 import se.fortnox.reactivewizard.jaxrs.SuccessStatus;
 import se.fortnox.reactivewizard.json.JsonSerializerFactory;
 import se.fortnox.reactivewizard.util.FluxRxConverter;
 import se.fortnox.reactivewizard.util.ReflectionUtil;
 
 import javax.ws.rs.core.MediaType;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import static reactor.core.publisher.Flux.just;
@@ -25,18 +29,39 @@ public class JaxRsResultFactory<T> {
 
     private static final Charset charset        = Charset.forName("UTF-8");
     private static final Class   BYTEARRAY_TYPE = (new byte[0]).getClass();
+    private static final byte[]  ARRAY_START    = "[".getBytes(charset);
+    private static final byte[]  ARRAY_END      = "]".getBytes(charset);
+    private static final byte[]  SEPARATOR      = ",".getBytes(charset);
     protected final HttpResponseStatus responseStatus;
     protected final Class<T>           rawReturnType;
     protected final Func1<Flux<T>, Flux<byte[]>>   serializer;
+    protected final Func1<Flux<T>, Flux<ByteBuf>>  bufferSerializer;
     protected final Map<String, String> headers = new HashMap<>();
+    protected final StaticHeaders       staticHeaders;
     private final ResultTransformer<T> transformers;
 
     public JaxRsResultFactory(JaxRsResource<T> resource, ResultTransformerFactories resultTransformerFactories, JsonSerializerFactory jsonSerializerFactory) {
+        this(resource, resultTransformerFactories, jsonSerializerFactory, new ByteBufSerializerFactory());
+    }
+
+    /**
+     * Create a result factory.
+     * @param resource the resource
+     * @param resultTransformerFactories the transformers of results
+     * @param jsonSerializerFactory the serializers of JSON
+     * @param byteBufSerializerFactory the serializers writing into buffers, if enabled
+     */
+    public JaxRsResultFactory(JaxRsResource<T> resource,
+        ResultTransformerFactories resultTransformerFactories,
+        JsonSerializerFactory jsonSerializerFactory,
+        ByteBufSerializerFactory byteBufSerializerFactory
+    ) {
         Method method = resource.getResourceMethod();
         responseStatus = getSuccessStatus(resource);
         rawReturnType = getRawReturnType(method);
         boolean isSingleType = FluxRxConverter.isSingleType(method.getReturnType());
         serializer = createSerializer(resource.getProduces(), rawReturnType, isSingleType, jsonSerializerFactory);
+        bufferSerializer = createBufferSerializer(resource, isSingleType, jsonSerializerFactory, byteBufSerializerFactory);
 
         transformers = resultTransformerFactories.createTransformers(resource);
 
@@ -52,6 +77,7 @@ public class JaxRsResultFactory<T> {
                 }
             }
         }
+        staticHeaders = new StaticHeaders(headers);
     }
 
     /**
@@ -64,7 +90,8 @@ public class JaxRsResultFactory<T> {
         return new JaxRsResult<>(output,
             responseStatus,
             serializer,
-            headers
+            bufferSerializer,
+            staticHeaders
         );
     }
 
@@ -92,13 +119,13 @@ public class JaxRsResultFactory<T> {
                         if (first.getAndSet(false)) {
                             return just(byteSerializer.apply(item));
                         } else {
-                            return just(",".getBytes(), byteSerializer.apply(item));
+                            return just(SEPARATOR, byteSerializer.apply(item));
                         }
                     });
                     return Flux.concat(
-                        just("[".getBytes()),
+                        just(ARRAY_START),
                             items,
-                            just("]".getBytes()));
+                            just(ARRAY_END));
                 };
             }
         }
@@ -108,6 +135,23 @@ public class JaxRsResultFactory<T> {
         return flux -> flux.map(data -> data.toString().getBytes(charset));
     }
 
+    private Func1<Flux<T>, Flux<ByteBuf>> createBufferSerializer(JaxRsResource<T> resource,
+        boolean isSingleType,
+        JsonSerializerFactory jsonSerializerFactory,
+        ByteBufSerializerFactory byteBufSerializerFactory
+    ) {
+        if (!byteBufSerializerFactory.isEnabled() || !resource.getProduces().equals(MediaType.APPLICATION_JSON)) {
+            return null;
+        }
+        BiConsumer<T, OutputStream> writer = jsonSerializerFactory.createStreamSerializer(rawReturnType);
+        if (isSingleType) {
+            return byteBufSerializerFactory.createSerializer(writer);
+        }
+        // Streaming resources should send each element as soon as it is available
+        int chunkSize = resource.getInstanceMethod().isAnnotationPresent(Stream.class) ? 1 : byteBufSerializerFactory.getArrayChunkSize();
+        return byteBufSerializerFactory.createArraySerializer(writer, chunkSize);
+    }
+
     @SuppressWarnings("unchecked")
     private Class<T> getRawReturnType(Method method) {
         if (FluxRxConverter.isReactiveType(method.getReturnType())) {
@@ -11,15 +11,24 @@ public class JaxRsResultFactoryFactory {
 
     private final ResultTransformerFactories resultTransformerFactories;
     private final JsonSerializerFactory      jsonSerializerFactory;
+    private final ByteBufSerializerFactory   byteBufSerializerFactory;
 
     public JaxRsResultFactoryFactory() {
         this(new ResultTransformerFactories(new ResponseDecoratorTransformer(), new NoContentTransformer()), new JsonSerializerFactory());
     }
 
-    @Inject
     public JaxRsResultFactoryFactory(ResultTransformerFactories resultTransformerFactories, JsonSerializerFactory jsonSerializerFactory) {
+        this(resultTransformerFactories, jsonSerializerFactory, new ByteBufSerializerFactory());
+    }
+
+    @Inject
+    public JaxRsResultFactoryFactory(ResultTransformerFactories resultTransformerFactories,
+        JsonSerializerFactory jsonSerializerFactory,
+        ByteBufSerializerFactory byteBufSerializerFactory
+    ) {
         this.resultTransformerFactories = resultTransformerFactories;
         this.jsonSerializerFactory = jsonSerializerFactory;
+        this.byteBufSerializerFactory = byteBufSerializerFactory;
     }
 
     /**
@@ -32,9 +41,9 @@ public class JaxRsResultFactoryFactory {
 
         boolean isSingleType = FluxRxConverter.isSingleType(resource.getInstanceMethod().getReturnType());
         if (resource.getInstanceMethod().isAnnotationPresent(Stream.class) || !isSingleType) {
-            return new JaxRsStreamingResultFactory<>(resource, resultTransformerFactories, jsonSerializerFactory);
+            return new JaxRsStreamingResultFactory<>(resource, resultTransformerFactories, jsonSerializerFactory, byteBufSerializerFactory);
         }
 
-        return new JaxRsResultFactory<>(resource, resultTransformerFactories, jsonSerializerFactory);
+        return new JaxRsResultFactory<>(resource, resultTransformerFactories, jsonSerializerFactory, byteBufSerializerFactory);
     }
 }
@@ -1,5 +1,6 @@
 package se.fortnox.reactivewizard.jaxrs.response;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.HttpResponseStatus;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
@@ -13,6 +14,19 @@ public class JaxRsStreamingResult<T> extends JaxRsResult<T> {
         super(output, responseStatus, serializer, headers);
     }
 
+    public JaxRsStreamingResult(Flux<T> output, HttpResponseStatus responseStatus, Func1<Flux<T>, Flux<byte[]>> serializer, StaticHeaders staticHeaders) {
+        super(output, responseStatus, serializer, staticHeaders);
+    }
+
+    public JaxRsStreamingResult(Flux<T> output,
+        HttpResponseStatus responseStatus,
+        Func1<Flux<T>, Flux<byte[]>> serializer,
+        Func1<Flux<T>, Flux<ByteBuf>> bufferSerializer,
+        StaticHeaders staticHeaders
+    ) {
+        super(output, responseStatus, serializer, bufferSerializer, staticHeaders);
+    }
+
     @Override
     public Publisher<Void> write(HttpServerResponse response) {
         return output.switchOnFirst((signal, outputBuffered) -> {
@@ -20,7 +34,10 @@ public class JaxRsStreamingResult<T> extends JaxRsResult<T> {
                 return Flux.error(signal.getThrowable());
             }
             response.status(responseStatus);
-            headers.forEach(response::addHeader);
+            addHeaders(response);
+            if (bufferSerializer != null) {
+                return response.send(bufferSerializer.call(outputBuffered));
+            }
             return response.sendByteArray(serializer.call(outputBuffered));
         });
     }
@@ -12,12 +12,21 @@ public class JaxRsStreamingResultFactory<T> extends JaxRsResultFactory<T> {
         super(resource, resultTransformerFactories, jsonSerializerFactory);
     }
 
+    public JaxRsStreamingResultFactory(JaxRsResource<T> resource,
+        ResultTransformerFactories resultTransformerFactories,
+        JsonSerializerFactory jsonSerializerFactory,
+        ByteBufSerializerFactory byteBufSerializerFactory
+    ) {
+        super(resource, resultTransformerFactories, jsonSerializerFactory, byteBufSerializerFactory);
+    }
+
     @Override
     public JaxRsResult<T> createResult(Flux<T> output, Object[] args) {
         return new JaxRsStreamingResult<>(output,
             responseStatus,
             serializer,
-            headers
+            bufferSerializer,
+            staticHeaders
         );
     }
 }
@@ -0,0 +1,46 @@
+package se.fortnox.reactivewizard.jaxrs.response;
+
+import io.netty.util.AsciiString;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable response headers that are known when a resource is created. Names and values are encoded once, so they
+ * can be added to every response of the resource without copying or converting them.
+ */
+public class StaticHeaders {
+    public static final StaticHeaders EMPTY = new StaticHeaders(Collections.emptyMap());
+
+    private final String[]      keys;
+    private final AsciiString[] names;
+    private final AsciiString[] values;
+
+    public StaticHeaders(Map<String, String> headers) {
+        keys = new String[headers.size()];
+        names = new AsciiString[headers.size()];
+        values = new AsciiString[headers.size()];
+
+        int index = 0;
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            keys[index] = header.getKey();
+            names[index] = AsciiString.cached(header.getKey());
+            values[index] = AsciiString.cached(header.getValue());
+            index++;
+        }
+    }
+
+    /**
+     * Add the headers to a response, except the ones that have been overridden.
+     * @param response the response
+     * @param overrides headers that replace static headers with the same name
+     */
+    public void addTo(HttpServerResponse response, Map<String, String> overrides) {
+        for (int i = 0; i < names.length; i++) {
+            if (overrides.isEmpty() || !overrides.containsKey(keys[i])) {
+                response.addHeader(names[i], values[i]);
+            }
+        }
+    }
+}
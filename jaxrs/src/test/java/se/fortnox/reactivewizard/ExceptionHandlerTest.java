@@ -9,6 +9,7 @@ import reactor.netty.http.server.HttpServerRequest;
 import reactor.netty.http.server.HttpServerResponse;
 import rx.exceptions.CompositeException;
 import rx.exceptions.OnErrorThrowable;
+import se.fortnox.reactivewizard.db.paging.InvalidCursorException;
 import se.fortnox.reactivewizard.jaxrs.WebException;
 import se.fortnox.reactivewizard.mocks.MockHttpServerRequest;
 import se.fortnox.reactivewizard.mocks.MockHttpServerResponse;
@@ -160,6 +161,14 @@ public class ExceptionHandlerTest {
         }
     }
 
+    @Test
+    public void shouldRespondBadRequestToInvalidCursor() {
+        assertLog(new MockHttpServerRequest("/path"),
+            new InvalidCursorException("not a cursor", null),
+            Level.WARN,
+            "400 Bad Request\n\tCause: -\n\tResponse: {\"id\":\"*\",\"error\":\"invalidjson\",\"message\":\"Invalid cursor: not a cursor\"}\n\tRequest: GET /path headers: ");
+    }
+
     @Test
     public void shouldSetContentLengthZeroFromHEAD() {
         MockHttpServerRequest       request   = new MockHttpServerRequest("/path", HttpMethod.HEAD);
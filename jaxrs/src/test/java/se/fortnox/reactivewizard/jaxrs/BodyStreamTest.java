@@ -0,0 +1,117 @@
+package se.fortnox.reactivewizard.jaxrs;
+
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import se.fortnox.reactivewizard.ExceptionHandler;
+import se.fortnox.reactivewizard.mocks.MockHttpServerRequest;
+import se.fortnox.reactivewizard.mocks.MockHttpServerResponse;
+
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static se.fortnox.reactivewizard.utils.JaxRsTestUtil.body;
+import static se.fortnox.reactivewizard.utils.JaxRsTestUtil.post;
+import static se.fortnox.reactivewizard.utils.JaxRsTestUtil.processRequest;
+import static se.fortnox.reactivewizard.utils.JaxRsTestUtil.processRequestWithHandler;
+
+class BodyStreamTest {
+
+    private final BodyStreamResource resource = new BodyStreamResource();
+
+    @Test
+    void shouldDeserializeArrayElementsFromChunkedBody() {
+        MockHttpServerResponse response = processRequest(resource, request("/stream/names",
+            "[{\"name\":\"fi", "rst\"},{\"na", "me\":\"second\"}", ",{\"name\":\"third\"}]"));
+
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.CREATED);
+        assertThat(body(response)).isEqualTo("\"first,second,third\"");
+    }
+
+    @Test
+    void shouldDeserializeEmptyArray() {
+        assertThat(body(post(resource, "/stream/names", "[]"))).isEqualTo("\"\"");
+    }
+
+    @Test
+    void shouldDeserializeSimpleTypes() {
+        assertThat(body(post(resource, "/stream/sum", "[1,2,3,4]"))).isEqualTo("10");
+    }
+
+    @Test
+    void shouldReturnBadRequestForInvalidJson() {
+        assertThat(post(resource, "/stream/names", "[{\"name\":").status()).isEqualTo(HttpResponseStatus.BAD_REQUEST);
+        assertThat(post(resource, "/stream/names", "[{\"name\" \"x\"}]").status()).isEqualTo(HttpResponseStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldNotLimitStreamedBodyToMaxRequestSize() {
+        JaxRsRequestHandler handler = new JaxRsRequestHandler(new Object[]{resource},
+            new JaxRsResourceFactory(),
+            new ExceptionHandler(),
+            new ByteBufCollector(10),
+            false);
+
+        MockHttpServerResponse response = processRequestWithHandler(handler, request("/stream/sum", "[1000,", "2000,", "3000]"));
+
+        assertThat(body(response)).isEqualTo("6000");
+    }
+
+    @Test
+    void shouldNotAllowMoreThanOneBodyStream() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> new JaxRsResourceFactory().createResources(new Object[]{new TwoBodyStreamsResource()}))
+            .withMessageContaining("Only one parameter can stream the body");
+    }
+
+    @Test
+    void shouldNotAllowBodyStreamWithoutElementType() {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> new JaxRsResourceFactory().createResources(new Object[]{new RawBodyStreamResource()}))
+            .withMessageContaining("must declare the type of its elements");
+    }
+
+    private static MockHttpServerRequest request(String uri, String... chunks) {
+        Flux<byte[]> content = Flux.just(chunks).map(String::getBytes);
+        return new MockHttpServerRequest(uri, HttpMethod.POST, ByteBufFlux.fromInbound(content));
+    }
+
+    @Path("/stream")
+    public static class BodyStreamResource {
+        @POST
+        @Path("names")
+        public Mono<String> names(Flux<ParamEntity> entities) {
+            return entities.map(ParamEntity::getName)
+                .collect(Collectors.joining(","));
+        }
+
+        @POST
+        @Path("sum")
+        public Mono<Integer> sum(Flux<Integer> numbers) {
+            return numbers.reduce(0, Integer::sum);
+        }
+    }
+
+    @Path("/rawstream")
+    public static class RawBodyStreamResource {
+        @POST
+        @SuppressWarnings("rawtypes")
+        public Mono<String> rawStream(Flux entities) {
+            return Mono.empty();
+        }
+    }
+
+    @Path("/twostreams")
+    public static class TwoBodyStreamsResource {
+        @POST
+        public Mono<String> twoStreams(Flux<ParamEntity> first, Flux<ParamEntity> second) {
+            return Mono.empty();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package se.fortnox.reactivewizard.jaxrs;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.HttpMethod;
 import org.junit.Assert;
 import org.junit.Rule;
@@ -9,10 +11,17 @@ import reactor.core.publisher.Mono;
 import reactor.netty.ByteBufFlux;
 import reactor.netty.channel.AbortedException;
 import reactor.netty.http.server.HttpServerRequest;
+import se.fortnox.reactivewizard.ExceptionHandler;
 import se.fortnox.reactivewizard.mocks.MockHttpServerRequest;
+import se.fortnox.reactivewizard.mocks.MockHttpServerResponse;
 import se.fortnox.reactivewizard.test.LoggingVerifier;
+import se.fortnox.reactivewizard.utils.JaxRsTestUtil;
+
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
 
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -74,6 +83,56 @@ public class JaxRsRequestTest {
         }
     }
 
+    @Test
+    public void shouldKeepBodyAsBufferWhenRetainingBuffers() {
+        ByteBuf first  = Unpooled.copiedBuffer("{\"name\":", StandardCharsets.UTF_8);
+        ByteBuf second = Unpooled.copiedBuffer("\"ö\"}", StandardCharsets.UTF_8);
+        HttpServerRequest serverReq = new MockHttpServerRequest("/", HttpMethod.POST, ByteBufFlux.fromInbound(Flux.just(first, second)));
+        JaxRsRequest req = new JaxRsRequest(serverReq, new ByteBufCollector(1024, true)).loadBody().block();
+
+        assertThat(req.getBodyBuffer().toString(StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"ö\"}");
+        assertThat(new String(req.getBody(), StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"ö\"}");
+        assertThat(first.refCnt()).isEqualTo(2);
+
+        req.releaseBody();
+
+        assertThat(req.getBodyBuffer()).isNull();
+        assertThat(first.refCnt()).isEqualTo(1);
+        assertThat(second.refCnt()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReleaseRetainedBuffersWhenBodyIsTooLarge() {
+        ByteBuf first  = Unpooled.copiedBuffer(new byte[600]);
+        ByteBuf second = Unpooled.copiedBuffer(new byte[600]);
+        HttpServerRequest serverReq = new MockHttpServerRequest("/", HttpMethod.POST, ByteBufFlux.fromInbound(Flux.just(first, second)));
+        JaxRsRequest req = new JaxRsRequest(serverReq, new ByteBufCollector(1024, true));
+        try {
+            req.loadBody().block();
+            Assert.fail("Should throw exception");
+        } catch (WebException e) {
+            assertThat(e.getError()).isEqualTo("too.large.input");
+        }
+        assertThat(first.refCnt()).isEqualTo(1);
+        assertThat(second.refCnt()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDeserializeRetainedBodyAndReleaseItAfterCall() {
+        ByteBuf content = Unpooled.copiedBuffer("{\"name\":\"test\"}", StandardCharsets.UTF_8);
+        HttpServerRequest serverReq = new MockHttpServerRequest("/retained", HttpMethod.POST, ByteBufFlux.fromInbound(Flux.just(content)));
+        JaxRsRequestHandler handler = new JaxRsRequestHandler(new Object[]{new RetainedBodyResource()},
+            new JaxRsResourceFactory(),
+            new ExceptionHandler(),
+            new ByteBufCollector(1024, true),
+            false);
+
+        MockHttpServerResponse response = JaxRsTestUtil.processRequestWithHandler(handler, serverReq);
+
+        assertThat(response.getOutp()).isEqualTo("\"test\"");
+        assertThat(content.refCnt()).isEqualTo(1);
+    }
+
     @Test
     public void testParams() throws Exception {
         MockHttpServerRequest serverReq = new MockHttpServerRequest("/");
@@ -126,4 +185,11 @@ public class JaxRsRequestTest {
         return "\"" + largeString + "\"";
     }
 
+    @Path("/retained")
+    public static class RetainedBodyResource {
+        @POST
+        public Mono<String> post(ParamEntity entity) {
+            return Mono.just(entity.getName());
+        }
+    }
 }
@@ -0,0 +1,177 @@
+package se.fortnox.reactivewizard.jaxrs;
+
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.mocks.MockHttpServerRequest;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JaxRsResourceIndexTest {
+
+    private final List<JaxRsResource> resources = new JaxRsResourceFactory().createResources(new Object[]{new RoutedResource()});
+    private final JaxRsResourceIndex  index     = new JaxRsResourceIndex(resources);
+
+    @Test
+    void shouldFindSameResourceAsLinearScan() {
+        List<String> paths = asList(
+            "",
+            "/",
+            "/routed",
+            "/routed/",
+            "/routed//",
+            "/routed/list",
+            "/routed/list/",
+            "/routed/special",
+            "/routed/123",
+            "/routed/123/",
+            "/routed/123/items",
+            "/routed/123/items/456",
+            "/routed/123/items/special",
+            "/routed/123/other",
+            "/routed//items",
+            "/routed/files/a/b/c.txt",
+            "/routed/files/",
+            "/routed/files",
+            "/routed/numbers/42",
+            "/routed/numbers/abc",
+            "/routed/numbers/42/",
+            "/routed/with.dot",
+            "/routed/withXdot",
+            "/routed/123%20",
+            "/routed/123/%20/",
+            "/routed/%20/",
+            "/routed/a%20b",
+            "/unknown",
+            "/routedlist",
+            "routed/list"
+        );
+
+        for (HttpMethod method : asList(HttpMethod.GET, HttpMethod.POST, HttpMethod.PUT)) {
+            for (String path : paths) {
+                JaxRsRequest request = new JaxRsRequest(new MockHttpServerRequest(path, method));
+                assertThat(index.find(request))
+                    .describedAs("%s %s", method, path)
+                    .isSameAs(scan(request));
+            }
+        }
+    }
+
+    @Test
+    void shouldRespectResourceOrderBetweenLiteralAndVariableSegments() {
+        assertThat(find(HttpMethod.GET, "/routed/special").getResourceMethod().getName()).isEqualTo("special");
+        assertThat(find(HttpMethod.GET, "/routed/123").getResourceMethod().getName()).isEqualTo("byId");
+        assertThat(find(HttpMethod.GET, "/routed/123/items/special").getResourceMethod().getName()).isEqualTo("specialItem");
+        assertThat(find(HttpMethod.GET, "/routed/123/items/456").getResourceMethod().getName()).isEqualTo("itemById");
+    }
+
+    @Test
+    void shouldFallBackToPatternForCustomRegexSegments() {
+        assertThat(find(HttpMethod.GET, "/routed/files/a/b/c.txt").getResourceMethod().getName()).isEqualTo("file");
+        assertThat(find(HttpMethod.GET, "/routed/numbers/42").getResourceMethod().getName()).isEqualTo("number");
+        assertThat(find(HttpMethod.GET, "/routed/numbers/abc").getResourceMethod().getName()).isEqualTo("byIdAndOther");
+    }
+
+    @Test
+    void shouldBindPathParamsOfMatchedResource() {
+        JaxRsRequest request = new JaxRsRequest(new MockHttpServerRequest("/routed/123/items/456"));
+        assertThat(index.find(request).getResourceMethod().getName()).isEqualTo("itemById");
+        assertThat(request.getPathParam("id")).isEqualTo("123");
+        assertThat(request.getPathParam("itemId")).isEqualTo("456");
+    }
+
+    @Test
+    void shouldSeparateResourcesByHttpMethod() {
+        assertThat(find(HttpMethod.POST, "/routed/list").getResourceMethod().getName()).isEqualTo("create");
+        assertThat(find(HttpMethod.GET, "/routed/list").getResourceMethod().getName()).isEqualTo("list");
+        assertThat(find(HttpMethod.DELETE, "/routed/list")).isNull();
+    }
+
+    private JaxRsResource<?> find(HttpMethod method, String path) {
+        return index.find(new JaxRsRequest(new MockHttpServerRequest(path, method)));
+    }
+
+    private JaxRsResource<?> scan(JaxRsRequest request) {
+        for (JaxRsResource<?> resource : resources) {
+            if (resource.canHandleRequest(request)) {
+                return resource;
+            }
+        }
+        return null;
+    }
+
+    @Path("/routed")
+    public static class RoutedResource {
+        @GET
+        public Mono<String> root() {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("list")
+        public Mono<String> list() {
+            return Mono.empty();
+        }
+
+        @POST
+        @Path("list")
+        public Mono<String> create() {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("special")
+        public Mono<String> special() {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("{id}")
+        public Mono<String> byId(@PathParam("id") String id) {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("{id}/items/{itemId}")
+        public Mono<String> itemById(@PathParam("id") String id, @PathParam("itemId") String itemId) {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("{id}/items/special")
+        public Mono<String> specialItem(@PathParam("id") String id) {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("{id}/{other}")
+        public Mono<String> byIdAndOther(@PathParam("id") String id, @PathParam("other") String other) {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("files/{file:.*}")
+        public Mono<String> file(@PathParam("file") String file) {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("numbers/{number:\\d+}")
+        public Mono<String> number(@PathParam("number") String number) {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("with.dot")
+        public Mono<String> withDot() {
+            return Mono.empty();
+        }
+    }
+}
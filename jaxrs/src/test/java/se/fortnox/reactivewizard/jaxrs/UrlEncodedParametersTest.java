@@ -0,0 +1,125 @@
+package se.fortnox.reactivewizard.jaxrs;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import se.fortnox.reactivewizard.mocks.MockHttpServerRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class UrlEncodedParametersTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "/path",
+        "/path?",
+        "/path?a=1",
+        "/path?a=1&b=2&a=3",
+        "/path?a=1;b=2",
+        "/path?a&b=&=c&d==e",
+        "/path?a=1#b=2",
+        "/path#?a=1",
+        "/path?a=%C3%B6+%26&%C3%A4=x+y",
+        "/path?a=ö",
+        "?a=1&&b=2&",
+    })
+    void shouldDecodeQueryLikeQueryStringDecoder(String uri) {
+        assertSameParameters(UrlEncodedParameters.fromUri(uri), new QueryStringDecoder(uri).parameters());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "",
+        "a=1",
+        "a=1&b=2&a=3",
+        "a=1;b=2",
+        "a&b=&=c&d==e",
+        "a=1#b=2",
+        "a=%C3%B6+%26&%C3%A4=x+y",
+        "a=ö&b=å",
+    })
+    void shouldDecodeFormLikeQueryStringDecoder(String form) {
+        ByteBuf buffer = Unpooled.wrappedBuffer(form.getBytes(StandardCharsets.UTF_8));
+        assertSameParameters(UrlEncodedParameters.fromForm(buffer), new QueryStringDecoder(form, false).parameters());
+    }
+
+    @Test
+    void shouldDecodeFormFromReaderIndex() {
+        ByteBuf buffer = Unpooled.copiedBuffer("ignored&a=1", StandardCharsets.UTF_8);
+        buffer.skipBytes("ignored&".length());
+
+        UrlEncodedParameters parameters = UrlEncodedParameters.fromForm(buffer);
+
+        assertThat(parameters.size()).isEqualTo(1);
+        assertThat(parameters.get("a", null)).isEqualTo("1");
+        assertThat(parameters.get("ignored", "default")).isEqualTo("default");
+    }
+
+    @Test
+    void shouldLimitNumberOfParameters() {
+        String query = IntStream.range(0, UrlEncodedParameters.MAX_PARAMS + 10)
+            .mapToObj(i -> "p" + i + "=" + i)
+            .collect(Collectors.joining("&"));
+
+        assertThat(UrlEncodedParameters.fromUri("/?" + query).size()).isEqualTo(UrlEncodedParameters.MAX_PARAMS);
+        assertThat(UrlEncodedParameters.fromForm(Unpooled.copiedBuffer(query, StandardCharsets.UTF_8)).size())
+            .isEqualTo(UrlEncodedParameters.MAX_PARAMS);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"a=%A", "%A", "a=%GG", "a=1&b=%"})
+    void shouldRejectInvalidEscapes(String encoded) {
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> UrlEncodedParameters.fromUri("/?" + encoded));
+        assertThatExceptionOfType(IllegalArgumentException.class)
+            .isThrownBy(() -> UrlEncodedParameters.fromForm(Unpooled.copiedBuffer(encoded, StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void shouldDecodeFormOfRequestOnce() {
+        JaxRsRequest request = new JaxRsRequest(new MockHttpServerRequest("/", HttpMethod.POST, "a=1&b=%C3%B6"))
+            .loadBody()
+            .block();
+
+        assertThat(request.getFormParam("a")).isEqualTo("1");
+        assertThat(request.getFormParam("b")).isEqualTo("ö");
+        assertThat(request.getFormParam("c", "default")).isEqualTo("default");
+    }
+
+    @Test
+    void shouldDecodeFormOfRequestWithRetainedBodyBuffer() {
+        JaxRsRequest request = new JaxRsRequest(new MockHttpServerRequest("/", HttpMethod.POST, "a=1&b=%C3%B6"),
+            new ByteBufCollector(1024, true))
+            .loadBody()
+            .block();
+        try {
+            assertThat(request.getBodyBuffer()).isNotNull();
+            assertThat(request.getFormParam("b")).isEqualTo("ö");
+        } finally {
+            request.releaseBody();
+        }
+    }
+
+    @Test
+    void shouldReturnDefaultValueOfFormParamWithoutBody() {
+        JaxRsRequest request = new JaxRsRequest(new MockHttpServerRequest("/"));
+
+        assertThat(request.getFormParam("a", "default")).isEqualTo("default");
+    }
+
+    private static void assertSameParameters(UrlEncodedParameters parameters, Map<String, List<String>> expected) {
+        assertThat(parameters.size()).isEqualTo(expected.values().stream().mapToInt(List::size).sum());
+        expected.forEach((name, values) -> assertThat(parameters.get(name, null)).isEqualTo(values.get(0)));
+    }
+}
@@ -0,0 +1,130 @@
+package se.fortnox.reactivewizard.jaxrs.params;
+
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import se.fortnox.reactivewizard.jaxrs.JaxRsRequest;
+import se.fortnox.reactivewizard.jaxrs.ParamEntity;
+import se.fortnox.reactivewizard.jaxrs.ParamEntityRecord;
+import se.fortnox.reactivewizard.jaxrs.WebException;
+import se.fortnox.reactivewizard.jaxrs.params.annotated.AnnotatedParamResolverFactories;
+import se.fortnox.reactivewizard.jaxrs.params.deserializing.DeserializerFactory;
+import se.fortnox.reactivewizard.mocks.MockHttpServerRequest;
+
+import javax.ws.rs.BeanParam;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.QueryParam;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class ParamResolverFactoriesTest {
+
+    private static final String[] JSON = {"application/json"};
+
+    private final ParamResolverFactories paramResolverFactories = new ParamResolverFactories(
+        new DeserializerFactory(),
+        new ParamResolvers(new CustomResolver()),
+        new AnnotatedParamResolverFactories(),
+        new WrapSupportingParamTypeResolver());
+
+    @Test
+    void shouldResolveAnnotatedParamsSynchronously() {
+        List<ParamResolver> resolvers = createParamResolvers("annotated");
+        JaxRsRequest request = request("/test?name=foo&age=3&items=a,b");
+
+        assertThat(resolvers).allMatch(ParamResolver::isSynchronous);
+        assertThat(resolvers.get(0).resolveSync(request)).isEqualTo("foo");
+        assertThat(resolvers.get(1).resolveSync(request)).isNull();
+
+        ParamEntity paramEntity = (ParamEntity)resolvers.get(2).resolveSync(request);
+        assertThat(paramEntity.getName()).isEqualTo("foo");
+        assertThat(paramEntity.getAge()).isEqualTo(3);
+        assertThat(paramEntity.getItems()).containsExactly("a", "b");
+
+        assertThat(resolvers.get(3).resolveSync(request)).isEqualTo(new ParamEntityRecord("foo", 3, List.of("a", "b")));
+    }
+
+    @Test
+    void shouldResolveSameValuesSynchronouslyAndReactively() {
+        List<ParamResolver> resolvers = createParamResolvers("annotated");
+        JaxRsRequest request = request("/test?name=foo&items=a");
+
+        for (ParamResolver resolver : resolvers) {
+            assertThat(resolver.resolve(request).blockOptional().orElse(null))
+                .usingRecursiveComparison()
+                .isEqualTo(resolver.resolveSync(request));
+        }
+    }
+
+    @Test
+    void shouldResolveBodySynchronously() {
+        ParamResolver resolver = createParamResolvers("body").get(0);
+        JaxRsRequest request = request("/test", "{\"name\":\"foo\"}");
+
+        assertThat(resolver.isSynchronous()).isTrue();
+        assertThat(((ParamEntity)resolver.resolveSync(request)).getName()).isEqualTo("foo");
+    }
+
+    @Test
+    void shouldThrowBadRequestWhenBodyIsNull() {
+        ParamResolver resolver = createParamResolvers("body").get(0);
+        JaxRsRequest request = request("/test", "null");
+
+        assertThatExceptionOfType(WebException.class)
+            .isThrownBy(() -> resolver.resolveSync(request))
+            .satisfies(e -> assertThat(e.getStatus().code()).isEqualTo(400));
+        assertThatExceptionOfType(WebException.class)
+            .isThrownBy(() -> resolver.resolve(request).block());
+    }
+
+    @Test
+    void shouldNotResolveCustomOrStreamedParamsSynchronously() {
+        List<ParamResolver> resolvers = createParamResolvers("custom");
+
+        assertThat(resolvers).noneMatch(ParamResolver::isSynchronous);
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+            .isThrownBy(() -> resolvers.get(0).resolveSync(request("/test")));
+    }
+
+    private List<ParamResolver> createParamResolvers(String methodName) {
+        for (Method method : TestResource.class.getMethods()) {
+            if (method.getName().equals(methodName)) {
+                return paramResolverFactories.createParamResolvers(method, JSON);
+            }
+        }
+        throw new IllegalArgumentException(methodName);
+    }
+
+    private static JaxRsRequest request(String uri) {
+        return new JaxRsRequest(new MockHttpServerRequest(uri));
+    }
+
+    private static JaxRsRequest request(String uri, String body) {
+        return new JaxRsRequest(new MockHttpServerRequest(uri, HttpMethod.POST, body)).loadBody().block();
+    }
+
+    public static class Custom {
+    }
+
+    public static class CustomResolver implements ParamResolver<Custom> {
+        @Override
+        public Mono<Custom> resolve(JaxRsRequest request) {
+            return Mono.just(new Custom());
+        }
+    }
+
+    public interface TestResource {
+        Mono<String> annotated(@QueryParam("name") String name,
+            @HeaderParam("missing") String missing,
+            @BeanParam ParamEntity paramEntity,
+            @BeanParam ParamEntityRecord paramEntityRecord);
+
+        Mono<String> body(ParamEntity body);
+
+        Mono<String> custom(Custom custom, Flux<ParamEntity> stream);
+    }
+}
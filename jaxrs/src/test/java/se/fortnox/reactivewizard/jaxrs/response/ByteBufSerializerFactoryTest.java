@@ -0,0 +1,205 @@
+package se.fortnox.reactivewizard.jaxrs.response;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import se.fortnox.reactivewizard.ExceptionHandler;
+import se.fortnox.reactivewizard.jaxrs.JaxRsRequestHandler;
+import se.fortnox.reactivewizard.jaxrs.JaxRsResourceFactory;
+import se.fortnox.reactivewizard.jaxrs.RequestLogger;
+import se.fortnox.reactivewizard.jaxrs.Stream;
+import se.fortnox.reactivewizard.jaxrs.params.ParamResolverFactories;
+import se.fortnox.reactivewizard.json.InvalidJsonException;
+import se.fortnox.reactivewizard.json.JsonSerializerFactory;
+import se.fortnox.reactivewizard.mocks.MockHttpServerRequest;
+import se.fortnox.reactivewizard.mocks.MockHttpServerResponse;
+import se.fortnox.reactivewizard.utils.JaxRsTestUtil;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ByteBufSerializerFactoryTest {
+
+    private final BiConsumer<Integer, OutputStream> writer = new JsonSerializerFactory().createStreamSerializer(Integer.class);
+
+    @Test
+    void shouldWriteArrayElementsInChunks() {
+        ByteBufSerializerFactory factory = new ByteBufSerializerFactory(true, 2);
+
+        List<String> chunks = toStrings(factory.createArraySerializer(writer, 2).call(Flux.just(1, 2, 3, 4, 5)));
+
+        assertThat(chunks).containsExactly("[1,2", ",3,4", ",5", "]");
+    }
+
+    @Test
+    void shouldWriteEmptyArray() {
+        ByteBufSerializerFactory factory = new ByteBufSerializerFactory(true, 2);
+
+        List<String> chunks = toStrings(factory.createArraySerializer(writer, 2).call(Flux.empty()));
+
+        assertThat(chunks).containsExactly("[]");
+    }
+
+    @Test
+    void shouldWriteSingleValue() {
+        ByteBufSerializerFactory factory = new ByteBufSerializerFactory(true, 2);
+
+        List<String> chunks = toStrings(factory.createSerializer(writer).call(Flux.just(42)));
+
+        assertThat(chunks).containsExactly("42");
+    }
+
+    @Test
+    void shouldBeDisabledByDefault() {
+        assertThat(new ByteBufSerializerFactory().isEnabled()).isFalse();
+    }
+
+    @Test
+    void shouldRejectChunkSizeBelowOne() {
+        assertThatThrownBy(() -> new ByteBufSerializerFactory(true, 0))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldPropagateSerializationErrors() {
+        ByteBufSerializerFactory factory = new ByteBufSerializerFactory(true, 2);
+        BiConsumer<Integer, OutputStream> failingWriter = (value, stream) -> {
+            throw new InvalidJsonException(new RuntimeException("fail"));
+        };
+
+        assertThatThrownBy(() -> factory.createArraySerializer(failingWriter, 2).call(Flux.just(1)).blockLast())
+            .isInstanceOf(InvalidJsonException.class);
+    }
+
+    @Test
+    void shouldSerializeResponsesIntoBuffers() {
+        DisposableServer server = HttpServer.create().handle(handler()).bindNow();
+        try {
+            HttpClient client = HttpClient.create().baseUrl("http://localhost:" + server.port());
+            assertThat(get(client, "/bytebuf/single/test")).isEqualTo("{\"name\":\"test\"}");
+            assertThat(get(client, "/bytebuf/list")).isEqualTo("[{\"name\":\"a\"},{\"name\":\"b\"},{\"name\":\"c\"}]");
+            assertThat(get(client, "/bytebuf/empty")).isEqualTo("[]");
+            assertThat(get(client, "/bytebuf/stream")).isEqualTo("[{\"name\":\"a\"},{\"name\":\"b\"}]");
+            assertThat(get(client, "/bytebuf/text")).isEqualTo("text");
+        } finally {
+            server.disposeNow();
+        }
+    }
+
+    @Test
+    void shouldSetContentLengthOfSingleResponse() {
+        MockHttpServerResponse response = get("/bytebuf/single/test");
+
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.OK);
+        assertThat(response.responseHeaders().get("Content-Length")).isEqualTo("15");
+        assertThat(response.responseHeaders().get("Content-Type")).isEqualTo("application/json");
+    }
+
+    @Test
+    void shouldRespondNoContentWhenSingleResponseIsEmpty() {
+        MockHttpServerResponse response = get("/bytebuf/nothing");
+
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.NO_CONTENT);
+        assertThat(response.getOutp()).isEmpty();
+    }
+
+    private static MockHttpServerResponse get(String uri) {
+        return JaxRsTestUtil.processRequestWithHandler(handler(), new MockHttpServerRequest(uri));
+    }
+
+    private static String get(HttpClient client, String uri) {
+        return client.get()
+            .uri(uri)
+            .responseContent()
+            .aggregate()
+            .asString(StandardCharsets.UTF_8)
+            .block();
+    }
+
+    private static JaxRsRequestHandler handler() {
+        JaxRsResultFactoryFactory resultFactoryFactory = new JaxRsResultFactoryFactory(
+            new ResultTransformerFactories(new ResponseDecoratorTransformer(), new NoContentTransformer()),
+            new JsonSerializerFactory(),
+            new ByteBufSerializerFactory(true, 2));
+        return new JaxRsRequestHandler(new Object[]{new ByteBufResource()},
+            new JaxRsResourceFactory(new ParamResolverFactories(), resultFactoryFactory, new RequestLogger()),
+            new ExceptionHandler(),
+            false);
+    }
+
+    private static List<String> toStrings(Flux<ByteBuf> buffers) {
+        return buffers.map(buf -> {
+            try {
+                return buf.toString(StandardCharsets.UTF_8);
+            } finally {
+                buf.release();
+            }
+        }).collectList().block();
+    }
+
+    @Path("/bytebuf")
+    public static class ByteBufResource {
+        @GET
+        @Path("single/{name}")
+        public Mono<Entity> single(@PathParam("name") String name) {
+            return Mono.just(new Entity(name));
+        }
+
+        @GET
+        @Path("nothing")
+        public Mono<Entity> nothing() {
+            return Mono.empty();
+        }
+
+        @GET
+        @Path("list")
+        public Flux<Entity> list() {
+            return Flux.just(new Entity("a"), new Entity("b"), new Entity("c"));
+        }
+
+        @GET
+        @Path("empty")
+        public Flux<Entity> empty() {
+            return Flux.empty();
+        }
+
+        @GET
+        @Path("stream")
+        @Stream
+        public Flux<Entity> stream() {
+            return Flux.just(new Entity("a"), new Entity("b"));
+        }
+
+        @GET
+        @Path("text")
+        @javax.ws.rs.Produces("text/plain")
+        public Mono<String> text() {
+            return Mono.just("text");
+        }
+    }
+
+    public static class Entity {
+        private final String name;
+
+        public Entity(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
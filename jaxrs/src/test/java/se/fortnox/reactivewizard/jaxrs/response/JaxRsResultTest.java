@@ -7,6 +7,8 @@ import se.fortnox.reactivewizard.mocks.MockHttpServerResponse;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -43,4 +45,36 @@ public class JaxRsResultTest {
 
         assertThat(written.get()).isFalse();
     }
+
+    @Test
+    public void shouldWriteStaticHeadersAndLetAddedHeadersReplaceThem() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Content-Type", "application/json");
+        headers.put("X-Static", "static");
+        JaxRsResult<byte[]> jaxRsResult = new JaxRsResult<>(Flux.just("{}".getBytes(StandardCharsets.UTF_8)), HttpResponseStatus.OK, flux -> flux,
+            new StaticHeaders(headers));
+        jaxRsResult.addHeader("X-Static", "dynamic");
+        jaxRsResult.addHeader("X-Dynamic", "added");
+
+        MockHttpServerResponse response = new MockHttpServerResponse();
+        Flux.from(jaxRsResult.write(response)).ignoreElements().block();
+
+        assertThat(response.responseHeaders().get("Content-Type")).isEqualTo("application/json");
+        assertThat(response.responseHeaders().getAll("X-Static")).containsExactly("dynamic");
+        assertThat(response.responseHeaders().get("X-Dynamic")).isEqualTo("added");
+        assertThat(response.responseHeaders().get("Content-Length")).isEqualTo("2");
+    }
+
+    @Test
+    public void shouldNotShareAddedHeadersBetweenResults() {
+        StaticHeaders staticHeaders = new StaticHeaders(Collections.singletonMap("X-Static", "static"));
+        JaxRsResult<byte[]> first = new JaxRsResult<>(Flux.just("a".getBytes(StandardCharsets.UTF_8)), HttpResponseStatus.OK, flux -> flux, staticHeaders);
+        JaxRsResult<byte[]> second = new JaxRsResult<>(Flux.just("b".getBytes(StandardCharsets.UTF_8)), HttpResponseStatus.OK, flux -> flux, staticHeaders);
+        first.addHeader("X-Static", "replaced");
+
+        MockHttpServerResponse response = new MockHttpServerResponse();
+        Flux.from(second.write(response)).ignoreElements().block();
+
+        assertThat(response.responseHeaders().getAll("X-Static")).containsExactly("static");
+    }
 }
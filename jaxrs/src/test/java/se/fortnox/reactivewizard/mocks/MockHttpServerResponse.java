@@ -2,6 +2,7 @@ package se.fortnox.reactivewizard.mocks;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
@@ -87,7 +88,13 @@ public class MockHttpServerResponse implements HttpServerResponse {
 
     @Override
     public NettyOutbound send(Publisher<? extends ByteBuf> dataStream, Predicate<ByteBuf> predicate) {
-        return null;
+        return sendByteArray(Flux.from(dataStream).map(buf -> {
+            try {
+                return ByteBufUtil.getBytes(buf);
+            } finally {
+                buf.release();
+            }
+        }));
     }
 
     @Override
@@ -0,0 +1,110 @@
+package se.fortnox.reactivewizard.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deserializes the elements of a JSON array while chunks of the array arrive, using a non-blocking parser. Each
+ * element is emitted as soon as it is complete, so the whole array is never kept in memory.
+ *
+ * <p>An instance keeps the parser state between chunks and must only be used for a single array.</p>
+ *
+ * @param <T> the type of the elements
+ */
+public class JsonArrayStreamDeserializer<T> {
+    private final ObjectReader    reader;
+    private final JsonParser      parser;
+    private final ByteArrayFeeder inputFeeder;
+    private       TokenBuffer     tokenBuffer;
+    private       int             depth = -1;
+
+    public JsonArrayStreamDeserializer(ObjectMapper objectMapper, JavaType elementType) {
+        reader = objectMapper.readerFor(elementType);
+        try {
+            parser = objectMapper.getFactory().setCodec(objectMapper).createNonBlockingByteArrayParser();
+            inputFeeder = (ByteArrayFeeder)parser.getNonBlockingInputFeeder();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Performs deserialization of a chunk.
+     * @param buf the data
+     * @return publisher of the elements completed by the chunk
+     */
+    public Publisher<T> process(byte[] buf) {
+        try {
+            inputFeeder.feedInput(buf, 0, buf.length);
+            return readAvailableElements();
+        } catch (Exception e) {
+            return Flux.error(e);
+        }
+    }
+
+    /**
+     * Signals that there are no more chunks, failing if the array is incomplete.
+     * @return publisher of any elements completed by the end of input
+     */
+    public Publisher<T> complete() {
+        try {
+            inputFeeder.endOfInput();
+            return readAvailableElements();
+        } catch (Exception e) {
+            return Flux.error(e);
+        }
+    }
+
+    private Publisher<T> readAvailableElements() throws Exception {
+        List<T>   items = null;
+        T         item  = null;
+        JsonToken token;
+
+        while ((token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+            if (tokenBuffer == null) {
+                tokenBuffer = new TokenBuffer(parser);
+                if (token == JsonToken.START_ARRAY && depth == -1) {
+                    depth++;
+                    continue;
+                }
+            }
+            if (item != null && items == null) {
+                items = new ArrayList<>();
+                items.add(item);
+            }
+            tokenBuffer.copyCurrentEvent(parser);
+            if (token == JsonToken.START_ARRAY || token == JsonToken.START_OBJECT) {
+                depth++;
+            } else if (token == JsonToken.END_ARRAY || token == JsonToken.END_OBJECT) {
+                depth--;
+            }
+            if (depth == 0) {
+                item = reader.readValue(tokenBuffer.asParser());
+                if (item == null) {
+                    continue;
+                }
+                tokenBuffer = null;
+                if (items != null) {
+                    items.add(item);
+                }
+            }
+        }
+        if (items != null) {
+            return Flux.fromIterable(items);
+        } else if (item != null) {
+            return Flux.just(item);
+        } else {
+            return Flux.empty();
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package se.fortnox.reactivewizard.json;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.databind.util.StdDateFormat;
+import reactor.core.publisher.Flux;
 
 import javax.inject.Inject;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.function.Function;
 
@@ -76,4 +80,43 @@ public class JsonDeserializerFactory {
             }
         };
     }
+
+    public <T> Function<InputStream, T> createStreamDeserializer(TypeReference<T> typeReference) {
+        return createStreamDeserializer(mapper.readerFor(typeReference));
+    }
+
+    public <T> Function<InputStream, T> createStreamDeserializer(Class<T> paramType) {
+        return createStreamDeserializer(mapper.readerFor(paramType));
+    }
+
+    private <T> Function<InputStream, T> createStreamDeserializer(ObjectReader reader) {
+        return stream -> {
+            if (stream == null) {
+                return null;
+            }
+            try {
+                return reader.readValue(stream);
+            } catch (Exception e) {
+                throw new InvalidJsonException(e);
+            }
+        };
+    }
+
+    /**
+     * Create a deserializer of JSON arrays arriving in chunks. Each call of the returned function creates a new parser,
+     * and elements are emitted as soon as they have been parsed.
+     *
+     * @param elementType the type of the array elements
+     * @param <T> the type of the array elements
+     * @return a function from a stream of chunks to a stream of elements
+     */
+    public <T> Function<Flux<byte[]>, Flux<T>> createArrayStreamDeserializer(TypeReference<T> elementType) {
+        JavaType javaType = mapper.getTypeFactory().constructType(elementType);
+        return chunks -> Flux.defer(() -> {
+            JsonArrayStreamDeserializer<T> deserializer = new JsonArrayStreamDeserializer<>(mapper, javaType);
+            return chunks.concatMap(deserializer::process)
+                .concatWith(Flux.defer(deserializer::complete))
+                .onErrorMap(JsonProcessingException.class, InvalidJsonException::new);
+        });
+    }
 }
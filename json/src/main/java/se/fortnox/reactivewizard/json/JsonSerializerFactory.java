@@ -1,5 +1,6 @@
 package se.fortnox.reactivewizard.json;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,7 +11,9 @@ import com.fasterxml.jackson.databind.util.StdDateFormat;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 /**
@@ -81,4 +84,23 @@ public class JsonSerializerFactory {
         };
     }
 
+    public <T> BiConsumer<T, OutputStream> createStreamSerializer(TypeReference<T> paramType) {
+        return createStreamSerializer(mapper.writerFor(paramType));
+    }
+
+    public <T> BiConsumer<T, OutputStream> createStreamSerializer(Class<T> paramType) {
+        return createStreamSerializer(mapper.writerFor(paramType));
+    }
+
+    private <T> BiConsumer<T, OutputStream> createStreamSerializer(ObjectWriter writer) {
+        // The stream is left open so that several values can be written to it
+        ObjectWriter streamWriter = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return (object, stream) -> {
+            try {
+                streamWriter.writeValue(stream, object);
+            } catch (Exception e) {
+                throw new InvalidJsonException(e);
+            }
+        };
+    }
 }
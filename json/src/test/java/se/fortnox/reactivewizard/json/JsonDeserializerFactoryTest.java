@@ -3,7 +3,10 @@ package se.fortnox.reactivewizard.json;
 import com.fasterxml.jackson.core.type.TypeReference;
 import org.junit.Before;
 import org.junit.Test;
+import reactor.core.publisher.Flux;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.time.LocalDate;
@@ -126,6 +129,53 @@ public class JsonDeserializerFactoryTest {
         assertThat(result).isEqualTo(immutableEntity);
     }
 
+    @Test
+    public void shouldSerializeAndDeserializeToAndFromStreams() {
+        Function<ImmutableEntity, byte[]> serializer = serializerFactory.createByteSerializer(ImmutableEntity.class);
+        byte[] json = serializer.apply(immutableEntity);
+
+        Function<InputStream, ImmutableEntity> deserializer = deserializerFactory.createStreamDeserializer(ImmutableEntity.class);
+        ImmutableEntity result = deserializer.apply(new ByteArrayInputStream(json));
+
+        assertThat(result).isEqualTo(immutableEntity);
+    }
+
+    @Test
+    public void shouldThrowInvalidJsonExceptionUsingStreamDeserializer() {
+        Function<InputStream, ImmutableEntity> deserializer = deserializerFactory.createStreamDeserializer(immutableEntityTypeReference);
+
+        try {
+            deserializer.apply(new ByteArrayInputStream("not real json".getBytes()));
+            fail("Expected exception, but none was thrown");
+        } catch(Exception actualException) {
+            assertThat(actualException).isInstanceOf(InvalidJsonException.class);
+            assertThat(actualException.getMessage()).contains("Unrecognized token");
+        }
+    }
+
+    @Test
+    public void shouldDeserializeArrayElementsAsChunksArrive() {
+        Function<Flux<byte[]>, Flux<ImmutableEntity>> deserializer = deserializerFactory.createArrayStreamDeserializer(immutableEntityTypeReference);
+
+        Flux<byte[]> chunks = Flux.just("[{\"stringProperty\":\"fo", "o\",\"intProperty\":5},", "{\"stringProperty\":\"bar\",\"intProperty\":6}]")
+            .map(String::getBytes);
+        List<ImmutableEntity> result = deserializer.apply(chunks).collectList().block();
+
+        assertThat(result).containsExactly(immutableEntity, new ImmutableEntity("bar", 6));
+    }
+
+    @Test
+    public void shouldFailArrayStreamDeserializationOfIncompleteArray() {
+        Function<Flux<byte[]>, Flux<ImmutableEntity>> deserializer = deserializerFactory.createArrayStreamDeserializer(immutableEntityTypeReference);
+
+        try {
+            deserializer.apply(Flux.just("[{\"stringProperty\":\"foo\",\"intProperty\":5},".getBytes())).collectList().block();
+            fail("Expected exception, but none was thrown");
+        } catch(Exception actualException) {
+            assertThat(actualException).isInstanceOf(InvalidJsonException.class);
+        }
+    }
+
     @Test
     public void shouldSerializeAndDeserializeImmutableObjects() {
         Function<ImmutableEntity, String> serializer = serializerFactory.createStringSerializer(ImmutableEntity.class);
@@ -3,9 +3,12 @@ package se.fortnox.reactivewizard.json;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 import static java.util.Arrays.asList;
@@ -77,6 +80,27 @@ public class JsonSerializerFactoryTest {
 		assertThat(serializeList.apply(methodReturningListOfString())).isEqualTo("[\"a\",\"b\"]");
 	}
 
+	@Test
+	public void shouldWriteSeveralValuesToTheSameStream() {
+		BiConsumer<List, OutputStream> serializer = serializerFactory.createStreamSerializer(List.class);
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		serializer.accept(asList("a", "b"), stream);
+		stream.write(',');
+		serializer.accept(asList("c"), stream);
+		assertThat(stream.toString()).isEqualTo("[\"a\",\"b\"],[\"c\"]");
+	}
+
+	@Test
+	public void shouldThrowInvalidJsonExceptionWhenStreamSerializationFails() {
+		BiConsumer<EntityThrowingOnSerialize, OutputStream> serializer = serializerFactory.createStreamSerializer(EntityThrowingOnSerialize.class);
+		try {
+			serializer.accept(new EntityThrowingOnSerialize(), new ByteArrayOutputStream());
+			fail("Expected exception");
+		} catch (InvalidJsonException e) {
+			assertThat(e.getCause()).isInstanceOf(JsonMappingException.class);
+		}
+	}
+
 	private List<String> methodReturningListOfString() {
 		return asList("a", "b");
 	}
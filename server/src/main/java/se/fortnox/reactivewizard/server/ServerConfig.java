@@ -15,6 +15,9 @@ public class ServerConfig {
     private int shutdownTimeoutSeconds = 20;
     private boolean enableGzip = true;
     private long shutdownDelaySeconds = 5;
+    private boolean retainRequestBodyBuffers = false;
+    private boolean serializeToByteBuf = false;
+    private int responseArrayChunkSize = 64;
 
     public int getPort() {
         return port;
@@ -79,4 +82,28 @@ public class ServerConfig {
     public void setShutdownDelaySeconds(int shutdownDelaySeconds) {
         this.shutdownDelaySeconds = shutdownDelaySeconds;
     }
+
+    public boolean isRetainRequestBodyBuffers() {
+        return retainRequestBodyBuffers;
+    }
+
+    public void setRetainRequestBodyBuffers(boolean retainRequestBodyBuffers) {
+        this.retainRequestBodyBuffers = retainRequestBodyBuffers;
+    }
+
+    public boolean isSerializeToByteBuf() {
+        return serializeToByteBuf;
+    }
+
+    public void setSerializeToByteBuf(boolean serializeToByteBuf) {
+        this.serializeToByteBuf = serializeToByteBuf;
+    }
+
+    public int getResponseArrayChunkSize() {
+        return responseArrayChunkSize;
+    }
+
+    public void setResponseArrayChunkSize(int responseArrayChunkSize) {
+        this.responseArrayChunkSize = responseArrayChunkSize;
+    }
 }
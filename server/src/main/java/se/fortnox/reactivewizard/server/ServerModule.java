@@ -14,6 +14,7 @@ import se.fortnox.reactivewizard.jaxrs.JaxRsRequestHandler;
 import se.fortnox.reactivewizard.jaxrs.JaxRsResourcesProvider;
 import se.fortnox.reactivewizard.jaxrs.params.ParamResolver;
 import se.fortnox.reactivewizard.jaxrs.params.ParamResolverFactory;
+import se.fortnox.reactivewizard.jaxrs.response.ByteBufSerializerFactory;
 import se.fortnox.reactivewizard.jaxrs.response.NoContentTransformer;
 import se.fortnox.reactivewizard.jaxrs.response.ResponseDecoratorTransformer;
 import se.fortnox.reactivewizard.jaxrs.response.ResultTransformerFactory;
@@ -54,8 +55,10 @@ public class ServerModule implements AutoBindModule {
         Multibinder.newSetBinder(binder, TypeLiteral.get(ParamResolver.class));
         binder.bind(DateFormat.class).toProvider(StdDateFormat::new);
 
-        ByteBufCollector byteBufCollector = new ByteBufCollector(config.getMaxRequestSize());
+        ByteBufCollector byteBufCollector = new ByteBufCollector(config.getMaxRequestSize(), config.isRetainRequestBodyBuffers());
         binder.bind(ByteBufCollector.class).toInstance(byteBufCollector);
+        binder.bind(ByteBufSerializerFactory.class)
+            .toInstance(new ByteBufSerializerFactory(config.isSerializeToByteBuf(), config.getResponseArrayChunkSize()));
 
         JaxRsResourceRegistry jaxRsResourceRegistry = new JaxRsResourceRegistry();
         binder.bind(JaxRsResourceRegistry.class).toInstance(jaxRsResourceRegistry);
@@ -16,6 +16,9 @@ public class ServerConfigTest {
         assertThat(serverConfig.getShutdownTimeoutSeconds()).isEqualTo(20);
         assertThat(serverConfig.getMaxInitialLineLengthDefault()).isEqualTo(4096);
         assertThat(serverConfig.getMaxRequestSize()).isEqualTo(10*1024*1024);
+        assertThat(serverConfig.isRetainRequestBodyBuffers()).isFalse();
+        assertThat(serverConfig.isSerializeToByteBuf()).isFalse();
+        assertThat(serverConfig.getResponseArrayChunkSize()).isEqualTo(64);
     }
 
     @Test
@@ -26,6 +29,9 @@ public class ServerConfigTest {
         serverConfig.setShutdownTimeoutMs(4344);
         serverConfig.setMaxInitialLineLengthDefault(1344);
         serverConfig.setMaxRequestSize(314159);
+        serverConfig.setRetainRequestBodyBuffers(true);
+        serverConfig.setSerializeToByteBuf(true);
+        serverConfig.setResponseArrayChunkSize(16);
 
         assertThat(serverConfig.isEnabled()).isFalse();
         assertThat(serverConfig.getPort()).isEqualTo(1337);
@@ -33,5 +39,8 @@ public class ServerConfigTest {
         assertThat(serverConfig.getShutdownTimeoutSeconds()).isEqualTo(4344);
         assertThat(serverConfig.getMaxInitialLineLengthDefault()).isEqualTo(1344);
         assertThat(serverConfig.getMaxRequestSize()).isEqualTo(314159);
+        assertThat(serverConfig.isRetainRequestBodyBuffers()).isTrue();
+        assertThat(serverConfig.isSerializeToByteBuf()).isTrue();
+        assertThat(serverConfig.getResponseArrayChunkSize()).isEqualTo(16);
     }
 }
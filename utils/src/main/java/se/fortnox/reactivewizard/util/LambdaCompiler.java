@@ -12,6 +12,15 @@ import java.util.function.Supplier;
 public class LambdaCompiler {
     static boolean useLambdas = "true".equals(System.getProperty("useLambdas", "true"));
 
+    private static final Class<?>[] INVOKER_ARITIES = {
+        MethodInvoker.Arity0.class,
+        MethodInvoker.Arity1.class,
+        MethodInvoker.Arity2.class,
+        MethodInvoker.Arity3.class,
+        MethodInvoker.Arity4.class,
+        MethodInvoker.Arity5.class
+    };
+
     static <T> Supplier<T> compileLambdaSupplier(MethodHandles.Lookup lookup, MethodHandle methodHandle) throws Throwable {
         if (!useLambdas) {
             return () -> {
@@ -74,4 +83,50 @@ public class LambdaCompiler {
         );
         return (Function<I,T>) callSite.getTarget().invoke();
     }
+
+    static MethodInvoker compileLambdaInvoker(MethodHandles.Lookup lookup, MethodHandle methodHandle, Object instance) throws Throwable {
+        MethodType type      = methodHandle.type();
+        int        receivers = instance == null ? 0 : 1;
+        int        arity     = type.parameterCount() - receivers;
+        if (!useLambdas || arity >= INVOKER_ARITIES.length || type.returnType() == void.class) {
+            return compileHandleInvoker(methodHandle, instance);
+        }
+        Class<?> invokerType = INVOKER_ARITIES[arity];
+        CallSite callSite = LambdaMetafactory.metafactory(
+            lookup,
+            "invoke",
+            instance == null ? MethodType.methodType(invokerType) : MethodType.methodType(invokerType, type.parameterType(0)),
+            MethodType.genericMethodType(arity),
+            methodHandle,
+            type.dropParameterTypes(0, receivers).wrap()
+        );
+        Object invoker = instance == null ? callSite.getTarget().invoke() : callSite.getTarget().invoke(instance);
+        switch (arity) {
+            case 0:
+                MethodInvoker.Arity0 arity0 = (MethodInvoker.Arity0)invoker;
+                return args -> arity0.invoke();
+            case 1:
+                MethodInvoker.Arity1 arity1 = (MethodInvoker.Arity1)invoker;
+                return args -> arity1.invoke(args[0]);
+            case 2:
+                MethodInvoker.Arity2 arity2 = (MethodInvoker.Arity2)invoker;
+                return args -> arity2.invoke(args[0], args[1]);
+            case 3:
+                MethodInvoker.Arity3 arity3 = (MethodInvoker.Arity3)invoker;
+                return args -> arity3.invoke(args[0], args[1], args[2]);
+            case 4:
+                MethodInvoker.Arity4 arity4 = (MethodInvoker.Arity4)invoker;
+                return args -> arity4.invoke(args[0], args[1], args[2], args[3]);
+            default:
+                MethodInvoker.Arity5 arity5 = (MethodInvoker.Arity5)invoker;
+                return args -> arity5.invoke(args[0], args[1], args[2], args[3], args[4]);
+        }
+    }
+
+    static MethodInvoker compileHandleInvoker(MethodHandle methodHandle, Object instance) {
+        MethodHandle bound  = instance == null ? methodHandle : methodHandle.bindTo(instance);
+        MethodHandle target = bound.asSpreader(Object[].class, bound.type().parameterCount())
+            .asType(MethodType.methodType(Object.class, Object[].class));
+        return args -> (Object)target.invokeExact(args);
+    }
 }
@@ -0,0 +1,66 @@
+package se.fortnox.reactivewizard.util;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes a method on a fixed instance. Unlike {@link Method#invoke(Object, Object...)}, the call is made by a lambda
+ * compiled for the method and its number of parameters, and exceptions thrown by the method are not wrapped.
+ */
+@FunctionalInterface
+public interface MethodInvoker {
+
+    /**
+     * Invoke the method.
+     * @param args the arguments, one for each parameter of the method
+     * @return the value returned by the method, or null if it is void
+     * @throws Throwable anything thrown by the method
+     */
+    Object invoke(Object[] args) throws Throwable;
+
+    /**
+     * Create an invoker of a method.
+     * @param method the method
+     * @param instance the instance to invoke the method on, ignored if the method is static
+     * @return the invoker
+     */
+    static MethodInvoker create(Method method, Object instance) {
+        MethodHandles.Lookup lookup   = MethodHandles.lookup();
+        Object               receiver = Modifier.isStatic(method.getModifiers()) ? null : instance;
+        try {
+            if (Modifier.isPublic(method.getModifiers()) && Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                return LambdaCompiler.compileLambdaInvoker(lookup, lookup.unreflect(method), receiver);
+            }
+            // A lambda can only be compiled for methods accessible from here, so others are invoked through their handle
+            method.setAccessible(true);
+            return LambdaCompiler.compileHandleInvoker(lookup.unreflect(method), receiver);
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    interface Arity0 {
+        Object invoke();
+    }
+
+    interface Arity1 {
+        Object invoke(Object arg0);
+    }
+
+    interface Arity2 {
+        Object invoke(Object arg0, Object arg1);
+    }
+
+    interface Arity3 {
+        Object invoke(Object arg0, Object arg1, Object arg2);
+    }
+
+    interface Arity4 {
+        Object invoke(Object arg0, Object arg1, Object arg2, Object arg3);
+    }
+
+    interface Arity5 {
+        Object invoke(Object arg0, Object arg1, Object arg2, Object arg3, Object arg4);
+    }
+}
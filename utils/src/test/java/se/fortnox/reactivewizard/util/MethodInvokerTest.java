@@ -0,0 +1,147 @@
+package se.fortnox.reactivewizard.util;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(Parameterized.class)
+public class MethodInvokerTest {
+
+    private final Target target = new Target("t");
+
+    public MethodInvokerTest(boolean useLambdas) {
+        LambdaCompiler.useLambdas = useLambdas;
+    }
+
+    @Parameterized.Parameters
+    public static Collection useLambdasParameters() {
+        return List.of(new Object[][] {{ true }, { false }});
+    }
+
+    @Test
+    public void shouldInvokeMethodsOfAllArities() throws Throwable {
+        assertThat(invoke("none")).isEqualTo("t");
+        assertThat(invoke("one", "a")).isEqualTo("ta");
+        assertThat(invoke("two", "a", "b")).isEqualTo("tab");
+        assertThat(invoke("three", "a", "b", "c")).isEqualTo("tabc");
+        assertThat(invoke("four", "a", "b", "c", "d")).isEqualTo("tabcd");
+        assertThat(invoke("five", "a", "b", "c", "d", "e")).isEqualTo("tabcde");
+        assertThat(invoke("six", "a", "b", "c", "d", "e", "f")).isEqualTo("tabcdef");
+    }
+
+    @Test
+    public void shouldUnboxAndBoxPrimitives() throws Throwable {
+        assertThat(invoke("sum", 1, 2L)).isEqualTo(3L);
+    }
+
+    @Test
+    public void shouldInvokeStaticAndVoidMethods() throws Throwable {
+        assertThat(MethodInvoker.create(Target.class.getMethod("staticMethod", String.class), null).invoke(new Object[]{"a"}))
+            .isEqualTo("static a");
+        assertThat(invoke("nothing", "a")).isNull();
+        assertThat(target.value).isEqualTo("ta");
+    }
+
+    @Test
+    public void shouldInvokeInterfaceMethodOnImplementation() throws Throwable {
+        Method method = Named.class.getMethod("name", String.class);
+        assertThat(MethodInvoker.create(method, target).invoke(new Object[]{"x"})).isEqualTo("named tx");
+    }
+
+    @Test
+    public void shouldInvokeMethodOfPrivateClass() throws Throwable {
+        Method method = PrivateTarget.class.getDeclaredMethod("value");
+        assertThat(MethodInvoker.create(method, new PrivateTarget()).invoke(new Object[0])).isEqualTo("private");
+    }
+
+    @Test
+    public void shouldThrowExceptionOfMethodWithoutWrapping() {
+        assertThatThrownBy(() -> invoke("fail", "message"))
+            .isExactlyInstanceOf(IOException.class)
+            .hasMessage("message");
+    }
+
+    private Object invoke(String name, Object... args) throws Throwable {
+        for (Method method : Target.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return MethodInvoker.create(method, target).invoke(args);
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+
+    public interface Named {
+        String name(String suffix);
+    }
+
+    public static class Target implements Named {
+        private String value;
+
+        public Target(String value) {
+            this.value = value;
+        }
+
+        public static String staticMethod(String arg) {
+            return "static " + arg;
+        }
+
+        @Override
+        public String name(String suffix) {
+            return "named " + value + suffix;
+        }
+
+        public String none() {
+            return value;
+        }
+
+        public String one(String a) {
+            return value + a;
+        }
+
+        public String two(String a, String b) {
+            return value + a + b;
+        }
+
+        public String three(String a, String b, String c) {
+            return value + a + b + c;
+        }
+
+        public String four(String a, String b, String c, String d) {
+            return value + a + b + c + d;
+        }
+
+        public String five(String a, String b, String c, String d, String e) {
+            return value + a + b + c + d + e;
+        }
+
+        public String six(String a, String b, String c, String d, String e, String f) {
+            return value + a + b + c + d + e + f;
+        }
+
+        public long sum(int a, long b) {
+            return a + b;
+        }
+
+        public void nothing(String a) {
+            value = value + a;
+        }
+
+        public String fail(String message) throws IOException {
+            throw new IOException(message);
+        }
+    }
+
+    private static class PrivateTarget {
+        private String value() {
+            return "private";
+        }
+    }
+}